@@ -0,0 +1,23 @@
+package org.example.bean.dto;
+
+import lombok.*;
+
+/**
+ * 留言者彙總檢查結果
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Data
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommenterRollupCheckDto {
+    private String userName;
+    // 比對來源(熱表或冷表)
+    private String sourceTable;
+    // 與即時統計不一致的留言者數
+    private int mismatchedRows;
+    private boolean rebuilt;
+}
@@ -0,0 +1,37 @@
+package org.example.bean.dto;
+
+import lombok.*;
+import org.example.bean.enumtype.TaskStatusEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * 背景清除工作進度
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Data
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurgeProgressDto {
+    private String jobKey;
+    private String table;
+    private TaskStatusEnum status;
+    // 提交時符合條件的主鍵範圍
+    private Long minId;
+    private Long maxId;
+    // 下一批起始主鍵
+    private Long nextId;
+    private Double percent;
+    private long deletedRows;
+    private long chunks;
+    private long throttledMillis;
+    private int rangeIds;
+    private LocalDateTime submitTime;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String errorMessage;
+}
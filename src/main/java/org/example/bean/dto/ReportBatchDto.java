@@ -0,0 +1,26 @@
+package org.example.bean.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 多對象報表批次匯出進度
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Data
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportBatchDto {
+    private String batchId;
+    private LocalDateTime submitTime;
+    private int completed;
+    private int failed;
+    // 各對象的工作狀態，找不到用戶等無法提交者 jobId 為 null
+    private List<ReportJobDto> targets;
+}
@@ -0,0 +1,32 @@
+package org.example.bean.dto;
+
+import lombok.*;
+import org.example.bean.enumtype.TaskStatusEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * 報表匯出工作狀態
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Data
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJobDto {
+    private String jobId;
+    private String igUserName;
+    // 資料版本指紋，與用戶id組成快取鍵
+    private String fingerprint;
+    private TaskStatusEnum status;
+    // 是否直接取用已快取的檔案
+    private boolean cached;
+    private Long fileBytes;
+    private LocalDateTime submitTime;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String errorMessage;
+}
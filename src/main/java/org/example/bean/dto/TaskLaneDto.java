@@ -0,0 +1,35 @@
+package org.example.bean.dto;
+
+import lombok.*;
+import org.example.bean.enumtype.TaskTypeEnum;
+
+/**
+ * 任務類型通道的排程狀態
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Data
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskLaneDto {
+    private Long taskConfigId;
+    private TaskTypeEnum taskType;
+    private boolean needLoginIg;
+    private int weight;
+    private int maxConcurrency;
+    // 待領取的任務數
+    private long queued;
+    // 執行中的任務數
+    private long running;
+    // 最久的待領取任務已等待的秒數，無待領取任務為null
+    private Long oldestWaitSeconds;
+    // 本輪剩餘可領取數(deficit)
+    private int deficit;
+    // 上次領取的對象用戶ID
+    private int lastIgUserId;
+    // 啟動後已領取的任務數
+    private long claimed;
+}
@@ -0,0 +1,24 @@
+package org.example.bean.enumtype;
+
+import lombok.Getter;
+
+/**
+ * 資料庫連線池的工作負載類別，每類各自一個連線池
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Getter
+public enum DataSourceWorkloadEnum {
+    INGEST("ingest", "爬取分頁寫入、背景清除與封存"),
+    CONTROL("control", "排程輪詢與任務、登入帳號狀態"),
+    REPORTING("reporting", "匯出與統計查詢");
+
+    private final String poolName;
+    private final String description;
+
+    DataSourceWorkloadEnum(String poolName, String description) {
+        this.poolName = poolName;
+        this.description = description;
+    }
+}
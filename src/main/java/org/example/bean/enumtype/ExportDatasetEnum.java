@@ -0,0 +1,41 @@
+package org.example.bean.enumtype;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 串流匯出的資料集
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Getter
+public enum ExportDatasetEnum {
+    FOLLOWERS("followers", null, "已發布世代的追蹤者"),
+    MEDIA("media", null, "已發布世代的貼文"),
+    COMMENTS("comments", "media_comment", "已發布世代貼文的留言"),
+    LIKERS("likers", "media_liker", "已發布世代貼文的按讚者");
+
+    private final String code;
+    // 可封存的資料表，封存後改讀冷表；null 表示不會封存
+    private final String archivableTable;
+    private final String description;
+
+    ExportDatasetEnum(String code, String archivableTable, String description) {
+        this.code = code;
+        this.archivableTable = archivableTable;
+        this.description = description;
+    }
+
+    /**
+     * 依代碼取得資料集，不分大小寫
+     *
+     * @param code 代碼
+     * @return 資料集，無對應時為空
+     */
+    public static Optional<ExportDatasetEnum> fromCode(String code) {
+        return Arrays.stream(values()).filter(value -> value.code.equalsIgnoreCase(code)).findFirst();
+    }
+}
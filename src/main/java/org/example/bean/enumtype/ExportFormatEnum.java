@@ -0,0 +1,38 @@
+package org.example.bean.enumtype;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 串流匯出的輸出格式
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Getter
+public enum ExportFormatEnum {
+    NDJSON("ndjson", "application/x-ndjson", "每列一個JSON物件"),
+    CSV("csv", "text/csv", "含表頭的CSV(RFC 4180)");
+
+    private final String code;
+    private final String contentType;
+    private final String description;
+
+    ExportFormatEnum(String code, String contentType, String description) {
+        this.code = code;
+        this.contentType = contentType;
+        this.description = description;
+    }
+
+    /**
+     * 依代碼取得格式，不分大小寫
+     *
+     * @param code 代碼
+     * @return 格式，無對應時為空
+     */
+    public static Optional<ExportFormatEnum> fromCode(String code) {
+        return Arrays.stream(values()).filter(value -> value.code.equalsIgnoreCase(code)).findFirst();
+    }
+}
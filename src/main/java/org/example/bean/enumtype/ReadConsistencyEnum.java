@@ -0,0 +1,36 @@
+package org.example.bean.enumtype;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 唯讀查詢的一致性要求，可由請求標頭 X-Read-Consistency 指定
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Getter
+public enum ReadConsistencyEnum {
+    STRONG("strong", "一律讀取主庫"),
+    EVENTUAL("eventual", "可讀取延遲未超過上限的副本");
+
+    private final String code;
+    private final String description;
+
+    ReadConsistencyEnum(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    /**
+     * 依代碼取得一致性要求，不分大小寫
+     *
+     * @param code 代碼
+     * @return 一致性要求，無對應時為空
+     */
+    public static Optional<ReadConsistencyEnum> fromCode(String code) {
+        return Arrays.stream(values()).filter(value -> value.code.equalsIgnoreCase(code)).findFirst();
+    }
+}
@@ -3,7 +3,12 @@ package org.example.bean.enumtype;
 import lombok.Getter;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Getter
@@ -20,12 +25,45 @@ public enum TaskStatusEnum {
     DAILY_PAUSED("每日任務達上限但未完成"),
     DAILY_COMPLETED("每日任務已終結");
 
+    /**
+     * 允許的狀態轉換表，由 {@link #allowedNext} 的窮舉 switch 產生，新增狀態時未補上轉換會無法編譯
+     */
+    private static final Map<TaskStatusEnum, Set<TaskStatusEnum>> TRANSITIONS = buildTransitions();
+
     private final String description;
 
     TaskStatusEnum(String description) {
         this.description = description;
     }
 
+    /**
+     * 是否允許由此狀態轉換為 target
+     *
+     * @param target 目標狀態
+     * @return 是否允許
+     */
+    public boolean canTransitionTo(TaskStatusEnum target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    /**
+     * 可轉換的下一個狀態
+     *
+     * @return 下一個狀態集合，終結狀態為空集合
+     */
+    public Set<TaskStatusEnum> nextStatuses() {
+        return TRANSITIONS.get(this);
+    }
+
+    /**
+     * 是否為終結狀態(不可再轉換)
+     *
+     * @return 是否為終結狀態
+     */
+    public boolean isTerminal() {
+        return TRANSITIONS.get(this).isEmpty();
+    }
+
     /**
      * 获取未完成等級的任务状态
      *
@@ -36,4 +74,31 @@ public enum TaskStatusEnum {
                 .filter(status -> status == PENDING || status == IN_PROGRESS || status == PAUSED)
                 .collect(Collectors.toList());
     }
+
+    //private
+
+    private static Map<TaskStatusEnum, Set<TaskStatusEnum>> buildTransitions() {
+        Map<TaskStatusEnum, Set<TaskStatusEnum>> transitions = new EnumMap<>(TaskStatusEnum.class);
+        for (TaskStatusEnum status : values()) {
+            Set<TaskStatusEnum> next = allowedNext(status);
+            if (next.contains(status)) {
+                throw new IllegalStateException("任務狀態不可轉換為自身: " + status);
+            }
+            transitions.put(status, Collections.unmodifiableSet(next));
+        }
+        return Collections.unmodifiableMap(transitions);
+    }
+
+    /**
+     * 領取(IN_PROGRESS)只能來自待執行的狀態；執行中的任務結束時轉為待辦、暫停、完成或失敗；
+     * 每日任務達上限後暫停，排程重置為DAILY_PENDING後再領取
+     */
+    private static Set<TaskStatusEnum> allowedNext(TaskStatusEnum status) {
+        return switch (status) {
+            case PENDING, PAUSED, DAILY_PENDING -> EnumSet.of(IN_PROGRESS);
+            case IN_PROGRESS -> EnumSet.of(PENDING, PAUSED, COMPLETED, FAILED, DAILY_PAUSED, DAILY_COMPLETED);
+            case DAILY_PAUSED -> EnumSet.of(DAILY_PENDING);
+            case COMPLETED, FAILED, DAILY_COMPLETED -> EnumSet.noneOf(TaskStatusEnum.class);
+        };
+    }
 }
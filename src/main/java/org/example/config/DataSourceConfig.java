@@ -0,0 +1,111 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.bean.enumtype.ReadConsistencyEnum;
+import org.example.metrics.CrawlerMetrics;
+import org.example.metrics.HikariPoolMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 依工作負載分開的連線池，連線資訊共用 spring.datasource.*，各池大小於 datasource.pool.{池名稱}.* 設定
+ * <p>
+ * 大量匯出不會佔滿排程輪詢所需的連線，反之亦然；各池指標見 {@link org.example.metrics.HikariPoolMetrics}
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("datasource.pool.ingest")
+    public HikariDataSource ingestDataSource(DataSourceProperties properties) {
+        return createPool(properties, DataSourceWorkloadEnum.INGEST);
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.pool.control")
+    public HikariDataSource controlDataSource(DataSourceProperties properties) {
+        return createPool(properties, DataSourceWorkloadEnum.CONTROL);
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.pool.reporting")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        return createPool(properties, DataSourceWorkloadEnum.REPORTING);
+    }
+
+    /**
+     * 讀取副本(選用): REPORTING 唯讀呼叫改由副本提供，副本帳號密碼未設定時沿用主庫
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+    public ReplicaRoutingDataSource reportingReplicaDataSource(DataSourceProperties properties, Environment environment,
+                                                               @Qualifier("reportingDataSource") DataSource reportingDataSource,
+                                                               HikariPoolMetrics hikariPoolMetrics, CrawlerMetrics crawlerMetrics,
+                                                               @Value("${datasource.replica.urls}") List<String> urls,
+                                                               @Value("${datasource.replica.username:}") String username,
+                                                               @Value("${datasource.replica.password:}") String password,
+                                                               @Value("${datasource.replica.maxLagSeconds:5}") long maxLagSeconds,
+                                                               @Value("${datasource.replica.lagQuery:}") String lagQuery,
+                                                               @Value("${datasource.replica.defaultConsistency:eventual}") String defaultConsistency) {
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url.trim()).build();
+            if (!username.isBlank()) {
+                pool.setUsername(username);
+                pool.setPassword(password);
+            }
+            Binder.get(environment).bind("datasource.pool.replica", Bindable.ofInstance(pool));
+            pool.setPoolName("replica-" + (replicaPools.size() + 1));
+            pool.setReadOnly(true);
+            hikariPoolMetrics.track(pool);
+            replicaPools.add(pool);
+        }
+        ReadConsistencyEnum consistency = ReadConsistencyEnum.fromCode(defaultConsistency).orElse(ReadConsistencyEnum.EVENTUAL);
+        return new ReplicaRoutingDataSource(reportingDataSource, replicaPools, consistency, maxLagSeconds, lagQuery, crawlerMetrics);
+    }
+
+    /**
+     * JPA 與 JdbcTemplate 使用的資料來源，依 {@link DataSourceRoute} 分派至各連線池
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("ingestDataSource") DataSource ingestDataSource,
+                                 @Qualifier("controlDataSource") DataSource controlDataSource,
+                                 @Qualifier("reportingDataSource") DataSource reportingDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> reportingReplicaDataSource) {
+        WorkloadRoutingDataSource routingDataSource = new WorkloadRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(
+                DataSourceWorkloadEnum.INGEST, ingestDataSource,
+                DataSourceWorkloadEnum.CONTROL, controlDataSource,
+                DataSourceWorkloadEnum.REPORTING, reportingReplicaDataSource.getIfAvailable(() -> reportingDataSource)));
+        routingDataSource.setDefaultTargetDataSource(controlDataSource);
+        return routingDataSource;
+    }
+
+    //private
+
+    private static HikariDataSource createPool(DataSourceProperties properties, DataSourceWorkloadEnum workload) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(workload.getPoolName());
+        return dataSource;
+    }
+}
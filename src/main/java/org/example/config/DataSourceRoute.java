@@ -0,0 +1,27 @@
+package org.example.config;
+
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+
+import java.lang.annotation.*;
+
+/**
+ * 指定服務使用的連線池，可標註於類別或方法(方法優先)
+ * <p>
+ * 僅於交易開始(或非交易的單次存取)時決定連線池，已在交易中的巢狀呼叫沿用既有連線；
+ * 未標註的呼叫沿用呼叫端的連線池，最外層未標註時使用 CONTROL；
+ * 標註為唯讀的 REPORTING 呼叫於啟用讀取副本時改由副本提供(見 {@link ReplicaRoutingDataSource})
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DataSourceRoute {
+    DataSourceWorkloadEnum value();
+
+    /**
+     * 呼叫期間僅讀取，可接受讀取副本的延遲
+     */
+    boolean readOnly() default false;
+}
@@ -0,0 +1,51 @@
+package org.example.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * 依 {@link DataSourceRoute} 設定連線池，順序先於交易攔截，交易開始時即取得對應連線池的連線
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceRouteAspect {
+
+    @Around("@within(org.example.config.DataSourceRoute) || @annotation(org.example.config.DataSourceRoute)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        DataSourceRoute route = findRoute(joinPoint);
+        if (route == null) {
+            return joinPoint.proceed();
+        }
+        WorkloadRoutingDataSource.Binding previous = WorkloadRoutingDataSource.bind(route.value(), route.readOnly());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+
+    //private
+
+    /**
+     * 方法上的標註優先，其次為實作類別上的標註
+     */
+    private DataSourceRoute findRoute(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        DataSourceRoute route = AnnotatedElementUtils.findMergedAnnotation(method, DataSourceRoute.class);
+        return route != null ? route : AnnotatedElementUtils.findMergedAnnotation(targetClass, DataSourceRoute.class);
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.config;
+
+import org.example.bean.enumtype.ReadConsistencyEnum;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 讀取請求標頭 X-Read-Consistency(strong/eventual)，作為本次請求唯讀查詢的一致性要求；
+ * 例如剛完成爬取後立即匯出時帶 strong，確保讀到主庫的最新資料
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Component
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Read-Consistency";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadConsistencyEnum.fromCode(header.trim()).ifPresent(ReplicaRoutingDataSource::bindConsistency);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearConsistency();
+        }
+    }
+}
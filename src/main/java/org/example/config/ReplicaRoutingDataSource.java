@@ -0,0 +1,178 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.ReadConsistencyEnum;
+import org.example.metrics.CrawlerMetrics;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REPORTING 連線池的讀取副本分派: 標註為唯讀且一致性要求為 EVENTUAL 的呼叫，
+ * 輪流取用延遲未超過上限的副本；副本延遲未知、超過上限或無法連線時退回主庫
+ * <p>
+ * 副本延遲由 {@link #refreshLag()} 定期更新，未設定查詢語句時讀取 SHOW REPLICA STATUS 的 Seconds_Behind_Source，
+ * 未在複寫中的副本視為不可用
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final ThreadLocal<ReadConsistencyEnum> CONSISTENCY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadConsistencyEnum defaultConsistency;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final CrawlerMetrics crawlerMetrics;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, ReadConsistencyEnum defaultConsistency,
+                                    long maxLagSeconds, String lagQuery, CrawlerMetrics crawlerMetrics) {
+        this.primary = primary;
+        this.defaultConsistency = defaultConsistency;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.crawlerMetrics = crawlerMetrics;
+        replicaPools.forEach(pool -> {
+            Replica replica = new Replica(pool.getPoolName(), pool);
+            replicas.add(replica);
+            crawlerMetrics.registerGauge("db.replica." + replica.name + ".lagSeconds", () -> replica.lagSeconds);
+        });
+    }
+
+    /**
+     * 設定目前請求的一致性要求，請求結束時須呼叫 {@link #clearConsistency()}
+     *
+     * @param consistency 一致性要求
+     */
+    public static void bindConsistency(ReadConsistencyEnum consistency) {
+        CONSISTENCY.set(consistency);
+    }
+
+    public static void clearConsistency() {
+        CONSISTENCY.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * 關閉副本連線池，主庫連線池由 Spring 管理
+     */
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * 更新各副本的複寫延遲，查詢失敗的副本視為不可用
+     */
+    public void refreshLag() {
+        replicas.forEach(replica -> {
+            try {
+                updateLag(replica.name, queryLag(replica));
+            } catch (DataAccessException e) {
+                log.warn("讀取副本:{} 延遲查詢失敗，暫停使用: {}", replica.name, e.getMessage());
+                updateLag(replica.name, null);
+            }
+        });
+    }
+
+    /**
+     * 更新副本延遲
+     *
+     * @param replicaName 副本連線池名稱
+     * @param lagSeconds  延遲秒數，null 為不可用
+     */
+    void updateLag(String replicaName, Long lagSeconds) {
+        replicas.stream().filter(replica -> replica.name.equals(replicaName)).forEach(replica -> replica.lagSeconds = lagSeconds);
+    }
+
+    //private
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (WorkloadRoutingDataSource.isReadOnly() && currentConsistency() == ReadConsistencyEnum.EVENTUAL) {
+            for (Replica replica : availableReplicas()) {
+                try {
+                    Connection connection = source.get(replica.dataSource);
+                    crawlerMetrics.increment("db.replica." + replica.name + ".reads", 1);
+                    return connection;
+                } catch (SQLException e) {
+                    log.warn("讀取副本:{} 無法連線，暫停使用至下次延遲檢查: {}", replica.name, e.getMessage());
+                    replica.lagSeconds = null;
+                }
+            }
+            crawlerMetrics.increment("db.replica.fallback", 1);
+        }
+        return source.get(primary);
+    }
+
+    private ReadConsistencyEnum currentConsistency() {
+        ReadConsistencyEnum consistency = CONSISTENCY.get();
+        return consistency == null ? defaultConsistency : consistency;
+    }
+
+    /**
+     * 延遲未超過上限的副本，起點輪替以分散讀取
+     */
+    private List<Replica> availableReplicas() {
+        List<Replica> available = new ArrayList<>();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            Long lag = replica.lagSeconds;
+            if (lag != null && lag <= maxLagSeconds) {
+                available.add(replica);
+            }
+        }
+        return available;
+    }
+
+    private Long queryLag(Replica replica) {
+        if (!lagQuery.isBlank()) {
+            return replica.jdbcTemplate.queryForObject(lagQuery, Long.class);
+        }
+        List<Map<String, Object>> status = replica.jdbcTemplate.queryForList("SHOW REPLICA STATUS");
+        if (status.isEmpty()) return null;
+        Object lag = status.get(0).get("Seconds_Behind_Source");
+        return lag == null ? null : ((Number) lag).longValue();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        // 首次延遲檢查前視為不可用
+        private volatile Long lagSeconds;
+
+        private Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+}
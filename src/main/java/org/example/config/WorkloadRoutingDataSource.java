@@ -0,0 +1,98 @@
+package org.example.config;
+
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.function.Supplier;
+
+/**
+ * 依目前執行緒的工作負載選擇連線池，由 {@link DataSourceRouteAspect} 或背景執行緒自行設定
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 以指定工作負載執行，結束後還原呼叫前的設定
+     *
+     * @param workload 工作負載
+     * @param work     執行內容
+     * @return 執行結果
+     */
+    public static <T> T callWith(DataSourceWorkloadEnum workload, Supplier<T> work) {
+        Binding previous = bind(workload, false);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 以指定工作負載執行，結束後還原呼叫前的設定
+     *
+     * @param workload 工作負載
+     * @param work     執行內容
+     */
+    public static void runWith(DataSourceWorkloadEnum workload, Runnable work) {
+        callWith(workload, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * 目前執行緒的工作負載，未設定時為 CONTROL
+     */
+    public static DataSourceWorkloadEnum currentWorkload() {
+        Binding binding = CURRENT.get();
+        return binding == null ? DataSourceWorkloadEnum.CONTROL : binding.workload();
+    }
+
+    /**
+     * 目前呼叫是否標註為唯讀
+     */
+    public static boolean isReadOnly() {
+        Binding binding = CURRENT.get();
+        return binding != null && binding.readOnly();
+    }
+
+    /**
+     * 設定目前執行緒的工作負載
+     *
+     * @param workload 工作負載
+     * @param readOnly 是否僅讀取
+     * @return 設定前的狀態，供 {@link #restore} 還原
+     */
+    static Binding bind(DataSourceWorkloadEnum workload, boolean readOnly) {
+        Binding previous = CURRENT.get();
+        CURRENT.set(new Binding(workload, readOnly));
+        return previous;
+    }
+
+    /**
+     * 還原為設定前的狀態
+     *
+     * @param previous {@link #bind} 的回傳值
+     */
+    static void restore(Binding previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentWorkload();
+    }
+
+    /**
+     * 執行緒目前的連線池設定
+     */
+    record Binding(DataSourceWorkloadEnum workload, boolean readOnly) {
+    }
+}
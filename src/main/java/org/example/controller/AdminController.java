@@ -6,6 +6,9 @@ import com.alibaba.excel.read.listener.ReadListener;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.CommenterRollupCheckDto;
+import org.example.bean.dto.PurgeProgressDto;
+import org.example.bean.dto.TaskLaneDto;
 import org.example.bean.dto.UploadAccountRequest;
 import org.example.bean.enumtype.LoginAccountStatusEnum;
 import org.example.entity.IgUser;
@@ -13,15 +16,20 @@ import org.example.entity.LoginAccount;
 import org.example.entity.Media;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.CommenterRollupService;
 import org.example.service.IgUserService;
 import org.example.service.LoginService;
 import org.example.service.MediaService;
+import org.example.service.PurgeService;
+import org.example.task.TaskLaneScheduler;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Tag(name = "TEST controller", description = "開發測試用API")
@@ -32,11 +40,19 @@ public class AdminController extends BaseController {
     private final LoginService loginService;
     private final MediaService mediaService;
     private final IgUserService igUserService;
+    private final CrawlerMetrics crawlerMetrics;
+    private final PurgeService purgeService;
+    private final CommenterRollupService commenterRollupService;
+    private final TaskLaneScheduler taskLaneScheduler;
 
-    public AdminController(LoginService loginService, MediaService mediaService, IgUserService igUserService) {
+    public AdminController(LoginService loginService, MediaService mediaService, IgUserService igUserService, CrawlerMetrics crawlerMetrics, PurgeService purgeService, CommenterRollupService commenterRollupService, TaskLaneScheduler taskLaneScheduler) {
         this.loginService = loginService;
         this.mediaService = mediaService;
         this.igUserService = igUserService;
+        this.crawlerMetrics = crawlerMetrics;
+        this.purgeService = purgeService;
+        this.commenterRollupService = commenterRollupService;
+        this.taskLaneScheduler = taskLaneScheduler;
     }
 
     @Operation(summary = "查詢帳密", description = "查詢資料庫內，用於操作的IG帳密")
@@ -53,6 +69,34 @@ public class AdminController extends BaseController {
         return mediaService.listMediaByIgUserIdAndDateRange(targetUser, null);
     }
 
+    @Operation(summary = "查詢執行指標", description = "查詢程式內計數器、計時器(含每秒筆數)與量測值")
+    @GetMapping("metrics")
+    public Map<String, Object> getMetrics() {
+        return crawlerMetrics.snapshot();
+    }
+
+    @Operation(summary = "查詢清除進度", description = "查詢近期背景分批清除工作的進度(刪除筆數、主鍵範圍、節流時間)")
+    @GetMapping("purges")
+    public List<PurgeProgressDto> getPurges() {
+        return purgeService.listProgress();
+    }
+
+    @Operation(summary = "查詢任務通道", description = "查詢各任務類型通道的權重、執行上限、待領取數、執行中數、最久等待秒數與輪替狀態")
+    @GetMapping("lanes")
+    public List<TaskLaneDto> getLanes() {
+        return taskLaneScheduler.snapshot();
+    }
+
+    @Operation(summary = "檢查/重建留言者彙總", description = "比對留言者彙總與留言表的即時統計，rebuild=true 時比對後重建(回填用)；未指定用戶時處理所有用戶")
+    @PostMapping("commenterRollup")
+    public List<CommenterRollupCheckDto> checkCommenterRollup(@RequestParam(required = false) String userName,
+                                                              @RequestParam(defaultValue = "false") boolean rebuild) {
+        List<IgUser> targets = userName == null
+                ? igUserService.findAll()
+                : List.of(igUserService.findUserByIgUserName(userName).orElseThrow(() -> new ApiException(SysCode.IG_USER_NOT_FOUND_IN_DB)));
+        return targets.stream().map(igUser -> commenterRollupService.check(igUser, rebuild)).toList();
+    }
+
     @PostMapping(value = "/uploadAccountListByExcel", consumes = "multipart/form-data")
     @Operation(summary = "上傳帳密清單", description = "上傳帳密清單")
     public List<LoginAccount> handleFileUpload(@RequestParam(value = "file") MultipartFile file) {
@@ -3,16 +3,20 @@ package org.example.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.ReportBatchDto;
+import org.example.bean.dto.ReportJobDto;
 import org.example.entity.IgUser;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
-import org.example.service.ExcelService;
 import org.example.service.IgUserService;
 import org.example.service.MediaCommentService;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.example.service.ReportJobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletResponse;
 import java.util.List;
@@ -22,14 +26,20 @@ import java.util.List;
 @RestController
 @RequestMapping("excel")
 public class ExcelController extends BaseController {
+    // 查詢工作狀態時單次最長等待
+    private static final long MAX_POLL_WAIT_MILLIS = 30_000;
+
     private final IgUserService igUserService;
-    private final ExcelService excelService;
     private final MediaCommentService mediaCommentService;
+    private final ReportJobService reportJobService;
+    private final long exportWaitMillis;
 
-    public ExcelController(IgUserService igUserService, ExcelService excelService, MediaCommentService mediaCommentService) {
+    public ExcelController(IgUserService igUserService, MediaCommentService mediaCommentService, ReportJobService reportJobService,
+                           @Value("${report.exportWaitMillis:600000}") long exportWaitMillis) {
         this.igUserService = igUserService;
-        this.excelService = excelService;
         this.mediaCommentService = mediaCommentService;
+        this.reportJobService = reportJobService;
+        this.exportWaitMillis = exportWaitMillis;
     }
 
     @GetMapping(value = "/getUserCanExport")
@@ -39,10 +49,54 @@ public class ExcelController extends BaseController {
     }
 
     @GetMapping(value = "/exportComment/{igUserName}")
-    @Operation(summary = "倒出user comment excel", description = "倒出user comment excel")
+    @Operation(summary = "倒出user comment excel", description = "倒出user comment excel，資料未變動時直接回傳快取檔案，否則等待產生完成")
     public void export(HttpServletResponse response, @PathVariable String igUserName) {
-        IgUser igUser = igUserService.findUserByIgUserName(igUserName)
+        ReportJobDto job = reportJobService.submit(findUser(igUserName));
+        reportJobService.awaitJob(job.getJobId(), exportWaitMillis);
+        reportJobService.writeResult(job.getJobId(), response);
+    }
+
+    @PostMapping(value = "/jobs/{igUserName}")
+    @Operation(summary = "提交匯出工作", description = "於背景產生報表並回傳工作id；資料未變動時直接完成")
+    public ReportJobDto submitJob(@PathVariable String igUserName) {
+        return reportJobService.submit(findUser(igUserName));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}")
+    @Operation(summary = "查詢匯出工作", description = "查詢工作狀態；waitMillis > 0 時等待工作完成(最長30秒)後回傳")
+    public ReportJobDto getJob(@PathVariable String jobId, @RequestParam(defaultValue = "0") long waitMillis) {
+        return reportJobService.awaitJob(jobId, Math.min(waitMillis, MAX_POLL_WAIT_MILLIS));
+    }
+
+    @GetMapping(value = "/jobs/{jobId}/file")
+    @Operation(summary = "下載匯出結果", description = "下載已完成工作的報表")
+    public void downloadJob(HttpServletResponse response, @PathVariable String jobId) {
+        reportJobService.writeResult(jobId, response);
+    }
+
+    @PostMapping(value = "/batch")
+    @Operation(summary = "批次匯出多個對象", description = "各對象於背景並行產生，依完成順序串流寫入同一個ZIP，最後附上各對象結果清單manifest.csv；" +
+            "回應標頭 X-Batch-Id 可用於查詢進度")
+    public ResponseEntity<StreamingResponseBody> exportBatch(@RequestBody List<String> igUserNames) {
+        ReportBatchDto batch = reportJobService.submitBatch(igUserNames);
+        StreamingResponseBody body = out -> reportJobService.writeBatchZip(batch.getBatchId(), out);
+        return ResponseEntity.ok()
+                .header("X-Batch-Id", batch.getBatchId())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=reports-" + batch.getBatchId() + ".zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @GetMapping(value = "/batch/{batchId}")
+    @Operation(summary = "查詢批次匯出進度", description = "查詢批次內各對象的工作狀態")
+    public ReportBatchDto getBatch(@PathVariable String batchId) {
+        return reportJobService.findBatch(batchId);
+    }
+
+    //private
+
+    private IgUser findUser(String igUserName) {
+        return igUserService.findUserByIgUserName(igUserName)
                 .orElseThrow(() -> new ApiException(SysCode.IG_USER_NOT_FOUND));
-        excelService.createExcelForIgUser(igUser, response);
     }
-}
\ No newline at end of file
+}
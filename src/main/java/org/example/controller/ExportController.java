@@ -0,0 +1,64 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.ExportDatasetEnum;
+import org.example.bean.enumtype.ExportFormatEnum;
+import org.example.entity.IgUser;
+import org.example.exception.ApiException;
+import org.example.exception.SysCode;
+import org.example.service.BulkExportService;
+import org.example.service.IgUserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 串流匯出回傳 StreamingResponseBody，由非同步執行緒直接寫出，不經 ApiResponseBodyAdvice 包裝
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Tag(name = "Export controller", description = "大量資料串流匯出(NDJSON/CSV)")
+@RestController
+@RequestMapping("export")
+public class ExportController extends BaseController {
+    private final IgUserService igUserService;
+    private final BulkExportService bulkExportService;
+
+    public ExportController(IgUserService igUserService, BulkExportService bulkExportService) {
+        this.igUserService = igUserService;
+        this.bulkExportService = bulkExportService;
+    }
+
+    @GetMapping(value = "/{igUserName}/{dataset}")
+    @Operation(summary = "串流匯出資料", description = "dataset: followers/media/comments/likers，format: ndjson/csv；" +
+            "資料依 id 遞增輸出，中斷後以最後一列的 id 作為 after 續傳")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String igUserName, @PathVariable String dataset,
+                                                        @RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "true") boolean gzip) {
+        ExportDatasetEnum exportDataset = ExportDatasetEnum.fromCode(dataset)
+                .orElseThrow(() -> new ApiException(SysCode.EXPORT_TYPE_NOT_SUPPORTED));
+        ExportFormatEnum exportFormat = ExportFormatEnum.fromCode(format)
+                .orElseThrow(() -> new ApiException(SysCode.EXPORT_TYPE_NOT_SUPPORTED));
+        IgUser igUser = igUserService.findUserByIgUserName(igUserName)
+                .orElseThrow(() -> new ApiException(SysCode.IG_USER_NOT_FOUND));
+
+        String fileName = URLEncoder.encode(igUser.getUserName(), StandardCharsets.UTF_8) + "-" + exportDataset.getCode()
+                + "." + exportFormat.getCode() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> bulkExportService.export(igUser, exportDataset, exportFormat, after, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName)
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
+}
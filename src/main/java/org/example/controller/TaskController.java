@@ -148,7 +148,7 @@ public class TaskController extends BaseController {
         if (taskQueueService.checkTaskQueueExistByUserAndTaskType(user, taskType)) {
             throw new ApiException(SysCode.TASK_ALREADY_EXISTS);
         }
-        return taskQueueService.createTaskQueueAndDeleteOldData(user, taskType);
+        return taskQueueService.createTaskQueue(user, taskType);
     }
 
     /**
@@ -0,0 +1,36 @@
+package org.example.dao;
+
+import org.example.bean.dto.CommentReportDto;
+import org.example.entity.CommenterRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface CommenterRollupDao extends JpaRepository<CommenterRollup, Integer>, CustomCommenterRollupRepository {
+    /**
+     * 查詢留言統計資料，依留言數排序
+     *
+     * @param igUserId 對象用戶id
+     * @return 統計列表
+     */
+    @Query("SELECT new org.example.bean.dto.CommentReportDto(p.userName, p.fullName, r.commentCount, r.likeSum) " +
+            "FROM CommenterRollup r JOIN r.commenter p " +
+            "WHERE r.igUserId = :igUserId " +
+            "ORDER BY r.commentCount DESC")
+    List<CommentReportDto> findCommentSummary(@Param("igUserId") int igUserId);
+
+    /**
+     * 加總對象用戶的留言數，以 (ig_user_id, comment_count) 索引完成
+     *
+     * @param igUserId 對象用戶id
+     * @return 留言總數
+     */
+    @Query("SELECT COALESCE(SUM(r.commentCount), 0) FROM CommenterRollup r WHERE r.igUserId = :igUserId")
+    long sumCommentCount(@Param("igUserId") int igUserId);
+}
@@ -0,0 +1,36 @@
+package org.example.dao;
+
+import java.util.Collection;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface CustomCommenterRollupRepository {
+    /**
+     * 依留言表重新彙總指定留言者，於每頁留言寫入後呼叫(同一交易)
+     *
+     * @param igUserId     對象用戶id
+     * @param commenterPks 本頁有新增或變動留言的留言者
+     * @return 影響筆數
+     */
+    int refreshCommenters(int igUserId, Collection<Long> commenterPks);
+
+    /**
+     * 依留言表重建對象用戶的彙總，並刪除已無留言的留言者
+     *
+     * @param igUserId    對象用戶id
+     * @param sourceTable 來源留言表(media_comment 或 media_comment_archive)
+     * @return 影響筆數
+     */
+    int rebuild(int igUserId, String sourceTable);
+
+    /**
+     * 比對彙總與留言表即時統計不一致的留言者數
+     *
+     * @param igUserId    對象用戶id
+     * @param sourceTable 來源留言表(media_comment 或 media_comment_archive)
+     * @return 不一致筆數(含缺少與多出的留言者)
+     */
+    int countMismatches(int igUserId, String sourceTable);
+}
@@ -9,5 +9,5 @@ import java.util.List;
  * Date:2024/2/18
  */
 public interface CustomFollowersRepository {
-    void batchInsertOrUpdate(List<Followers> followersList);
+    int batchInsertOrUpdate(List<Followers> followersList);
 }
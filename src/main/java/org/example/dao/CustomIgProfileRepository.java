@@ -0,0 +1,13 @@
+package org.example.dao;
+
+import org.example.entity.IgProfile;
+
+import java.util.List;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface CustomIgProfileRepository {
+    int batchInsertOrUpdate(List<IgProfile> profileList);
+}
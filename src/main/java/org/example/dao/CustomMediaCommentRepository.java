@@ -1,13 +1,26 @@
 package org.example.dao;
 
+import org.example.bean.dto.MediaCommentDetailDto;
 import org.example.entity.MediaComment;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Eric.Lee
  * Date:2024/3/9
  */
 public interface CustomMediaCommentRepository {
-    void batchInsertOrUpdate(List<MediaComment> commentList);
+    int batchInsertOrUpdate(List<MediaComment> commentList);
+
+    /**
+     * 以伺服器端游標逐筆讀取留言詳細資料，結果集不整批載入記憶體
+     * consumer 執行期間游標仍佔用連線，不可於同一連線上發出其他查詢
+     *
+     * @param igUserId 用戶id
+     * @param archived 是否讀取冷資料表(media_comment_archive)
+     * @param consumer 每筆資料的處理
+     * @return 讀取筆數
+     */
+    long streamMediaCommentDetails(int igUserId, boolean archived, Consumer<MediaCommentDetailDto> consumer);
 }
@@ -9,5 +9,5 @@ import java.util.List;
  * Date:2024/3/11
  */
 public interface CustomMediaLikerRepository {
-    void batchInsertOrUpdate(List<MediaLiker> mediaLikerList);
+    int batchInsertOrUpdate(List<MediaLiker> mediaLikerList);
 }
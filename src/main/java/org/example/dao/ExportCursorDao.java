@@ -0,0 +1,28 @@
+package org.example.dao;
+
+import org.example.bean.enumtype.ExportDatasetEnum;
+
+import java.util.function.Consumer;
+
+/**
+ * 串流匯出的資料讀取，以伺服器端游標逐列讀取並依主鍵(keyset)續傳
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface ExportCursorDao {
+    /**
+     * 依主鍵遞增逐列讀取資料集，第一欄固定為 id，可作為續傳的 afterId
+     * 每列的值陣列會被重複使用，consumer 需在回呼內處理完畢
+     *
+     * @param dataset  資料集
+     * @param igUserId 對象用戶id
+     * @param archived 是否讀取冷資料表
+     * @param afterId  只讀取 id 大於此值的資料
+     * @param header   欄位名稱的處理，於第一列前呼叫一次
+     * @param row      每列的處理
+     * @return 讀取筆數
+     */
+    long streamRows(ExportDatasetEnum dataset, int igUserId, boolean archived, long afterId,
+                    Consumer<String[]> header, Consumer<Object[]> row);
+}
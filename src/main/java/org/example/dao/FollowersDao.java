@@ -3,6 +3,8 @@ package org.example.dao;
 import org.example.entity.Followers;
 import org.example.entity.IgUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -12,25 +14,20 @@ import java.util.List;
  */
 public interface FollowersDao extends JpaRepository<Followers, Integer>, CustomFollowersRepository {
     /**
-     * 透過用戶查詢追蹤者數量
+     * 透過用戶查詢指定世代(含)之後仍出現的追蹤者數量
      *
-     * @param igUser 用戶
+     * @param igUser     用戶
+     * @param generation 世代
      * @return 追蹤者數量
      */
-    int countByIgUser(IgUser igUser);
-
-    /**
-     * 透過用戶刪除舊的追蹤者資料
-     *
-     * @param igUser 用戶
-     */
-    void deleteByIgUser(IgUser igUser);
+    int countByIgUserAndLastSeenGenerationGreaterThanEqual(IgUser igUser, int generation);
 
     /**
-     * 透過用戶查詢追蹤者列表
+     * 透過用戶查詢追蹤者列表(僅已發布世代)
      *
      * @param igUser 用戶
      * @return 追蹤者列表
      */
-    List<Followers> findByIgUser(IgUser igUser);
-}
\ No newline at end of file
+    @Query("SELECT f FROM Followers f WHERE f.igUser = :igUser AND f.firstSeenGeneration <= f.igUser.followerGeneration AND f.lastSeenGeneration >= f.igUser.followerGeneration")
+    List<Followers> findByIgUser(@Param("igUser") IgUser igUser);
+}
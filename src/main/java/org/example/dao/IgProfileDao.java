@@ -0,0 +1,23 @@
+package org.example.dao;
+
+import org.example.entity.IgProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface IgProfileDao extends JpaRepository<IgProfile, Long>, CustomIgProfileRepository {
+    /**
+     * 僅更新頁面爬取的貼文數、粉絲數與追蹤數，不覆蓋API寫入的其他欄位
+     *
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query("UPDATE IgProfile p SET p.postCount = :postCount, p.followerCount = :followerCount, p.followingCount = :followingCount WHERE p.pk = :pk")
+    int updateCounts(@Param("pk") Long pk, @Param("postCount") Integer postCount,
+                     @Param("followerCount") Integer followerCount, @Param("followingCount") Integer followingCount);
+}
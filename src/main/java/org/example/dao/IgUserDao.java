@@ -2,6 +2,9 @@ package org.example.dao;
 
 import org.example.entity.IgUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -22,5 +25,63 @@ public interface IgUserDao extends JpaRepository<IgUser, Integer> {
      */
     Optional<IgUser> findByUserName(String userName);
 
+    /**
+     * 遞增用戶的追蹤者世代計數器(不小於已發布世代)，持有該列鎖至交易結束
+     *
+     * @param id 用戶ID
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE ig_user SET next_follower_generation = GREATEST(next_follower_generation, follower_generation) + 1 WHERE id = :id", nativeQuery = true)
+    int incrementFollowerGeneration(@Param("id") int id);
+
+    /**
+     * 查詢追蹤者世代計數器，需與遞增在同一交易內讀取
+     *
+     * @param id 用戶ID
+     * @return 最後配置的追蹤者世代
+     */
+    @Query(value = "SELECT next_follower_generation FROM ig_user WHERE id = :id", nativeQuery = true)
+    int findNextFollowerGenerationById(@Param("id") int id);
+
+    /**
+     * 遞增用戶的貼文世代計數器(不小於已發布世代)，持有該列鎖至交易結束
+     *
+     * @param id 用戶ID
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE ig_user SET next_media_generation = GREATEST(next_media_generation, media_generation) + 1 WHERE id = :id", nativeQuery = true)
+    int incrementMediaGeneration(@Param("id") int id);
 
+    /**
+     * 查詢貼文世代計數器，需與遞增在同一交易內讀取
+     *
+     * @param id 用戶ID
+     * @return 最後配置的貼文世代
+     */
+    @Query(value = "SELECT next_media_generation FROM ig_user WHERE id = :id", nativeQuery = true)
+    int findNextMediaGenerationById(@Param("id") int id);
+
+    /**
+     * 發布追蹤者世代，只允許往前切換
+     *
+     * @param id         用戶ID
+     * @param generation 世代
+     * @return 更新筆數，0代表已有相同或更新的世代
+     */
+    @Modifying
+    @Query("UPDATE IgUser u SET u.followerGeneration = :generation WHERE u.id = :id AND u.followerGeneration < :generation")
+    int publishFollowerGeneration(@Param("id") int id, @Param("generation") int generation);
+
+    /**
+     * 發布貼文世代，只允許往前切換
+     *
+     * @param id         用戶ID
+     * @param generation 世代
+     * @return 更新筆數，0代表已有相同或更新的世代
+     */
+    @Modifying
+    @Query("UPDATE IgUser u SET u.mediaGeneration = :generation WHERE u.id = :id AND u.mediaGeneration < :generation")
+    int publishMediaGeneration(@Param("id") int id, @Param("generation") int generation);
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package org.example.dao;
 import org.example.entity.IgUser;
 import org.example.entity.Media;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -15,16 +14,18 @@ import java.util.List;
  * Date:2024/2/18
  */
 public interface MediaDao extends JpaRepository<Media, Integer>, CustomMediaRepository {
-    int countByIgUserId(IgUser igUser);
-
-    // 檢查是否存在最早的貼文日期大於cutoffDate
-    @Query("SELECT COUNT(m) > 0 FROM Media m WHERE m.igUserId = :igUserId AND m.takenAt < :cutoffDate")
-    boolean existsEarlyMediaBeforeCutoff(@Param("igUserId") IgUser igUserId, @Param("cutoffDate") LocalDateTime cutoffDate);
+    /**
+     * 透過用戶查詢指定世代(含)之後仍出現的貼文數量
+     *
+     * @param igUser     用戶
+     * @param generation 世代
+     * @return 貼文數量
+     */
+    int countByIgUserIdAndLastSeenGenerationGreaterThanEqual(IgUser igUser, int generation);
 
-    // 透過用戶ID刪除舊的貼文資料
-    @Modifying
-    @Query("delete from Media m where m.igUserId.id = :igUserId")
-    void deleteByIgUserId(@Param("igUserId") Integer igUserId);
+    // 檢查指定世代(含)之後仍出現的貼文中，是否存在早於cutoffDate的貼文
+    @Query("SELECT COUNT(m) > 0 FROM Media m WHERE m.igUserId = :igUserId AND m.lastSeenGeneration >= :generation AND m.takenAt < :cutoffDate")
+    boolean existsEarlyMediaBeforeCutoff(@Param("igUserId") IgUser igUserId, @Param("generation") int generation, @Param("cutoffDate") LocalDateTime cutoffDate);
 
     /**
      * 尋找小於一定時間內的貼文
@@ -33,7 +34,7 @@ public interface MediaDao extends JpaRepository<Media, Integer>, CustomMediaRepo
      * @param time 時間
      * @return 貼文列表
      */
-    @Query("SELECT m FROM Media m WHERE m.igUserId = :igUserId AND m.takenAt > :time")
+    @Query("SELECT m FROM Media m WHERE m.igUserId = :igUserId AND m.firstSeenGeneration <= m.igUserId.mediaGeneration AND m.lastSeenGeneration >= m.igUserId.mediaGeneration AND m.takenAt > :time")
     List<Media> findMediaInTime(@Param("igUserId") IgUser igUser, @Param("time") LocalDateTime time);
 
     /**
@@ -43,7 +44,7 @@ public interface MediaDao extends JpaRepository<Media, Integer>, CustomMediaRepo
      * @param commentCount   留言數量
      * @return 貼文列表
      */
-    @Query("SELECT m FROM Media m WHERE m.igUserId = :igUserId AND m.commentCount > :commentCount")
+    @Query("SELECT m FROM Media m WHERE m.igUserId = :igUserId AND m.firstSeenGeneration <= m.igUserId.mediaGeneration AND m.lastSeenGeneration >= m.igUserId.mediaGeneration AND m.commentCount > :commentCount")
     List<Media> findAllByIgUserIdAndCommentCount(@Param("igUserId") IgUser igUser, @Param("commentCount") int commentCount);
 
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import org.example.entity.TaskConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +22,12 @@ public interface TaskConfigDao extends JpaRepository<TaskConfig, BigInteger> {
      */
     Optional<TaskConfig> findByTaskType(TaskTypeEnum taskType);
 
+    /**
+     * 依據任務類型集合查詢任務設定
+     *
+     * @param taskTypes 任務類型集合
+     * @return 任務設定集合(依ID排序)
+     */
+    List<TaskConfig> findByTaskTypeInOrderById(Collection<TaskTypeEnum> taskTypes);
+
 }
@@ -4,11 +4,15 @@ import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.bean.enumtype.TaskTypeEnum;
 import org.example.entity.IgUser;
 import org.example.entity.TaskQueue;
+import org.example.entity.TaskQueueMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigInteger;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,12 +43,40 @@ public interface TaskQueueDao extends JpaRepository<TaskQueue, Integer> {
     boolean existsInProgressTasks(@Param("status") List<TaskStatusEnum> status, @Param("needLoginIg") boolean needLoginIg);
 
     /**
-     * 依據任務狀態及提交時間排序，查詢最早提交的任務序列1條
+     * 鎖定任務類型通道中指定狀態、對象用戶 ig_user_id 大於 afterIgUserId 的第一個可領取任務(同一對象取最早提交者)；
+     * 依 idx_task_queue_lane 的順序讀取，只鎖定回傳的一列，已被其他交易鎖定的任務直接略過(SKIP LOCKED)，需在交易內呼叫
      *
-     * @param status 任務狀態
-     * @return 任務序列
+     * @param taskConfigId  任務設定ID(通道)
+     * @param status        可領取的任務狀態
+     * @param afterIgUserId 上次領取的對象用戶ID
+     * @return 已鎖定的任務
      */
-    Optional<TaskQueue> findFirstByStatusAndTaskConfig_NeedLoginIgOrderBySubmitTimeDesc(TaskStatusEnum status, boolean needLoginIg);
+    @Query(value = "SELECT t.* FROM task_queue t WHERE t.task_config_id = :taskConfigId AND t.status = :status AND t.ig_user_id > :afterIgUserId " +
+            "ORDER BY t.ig_user_id, t.submit_time LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<TaskQueue> lockNextInLane(@Param("taskConfigId") Long taskConfigId, @Param("status") String status, @Param("afterIgUserId") int afterIgUserId);
+
+    /**
+     * 鎖定任務類型通道中指定狀態、ig_user_id 最小的可領取任務，輪替到底後繞回時使用；其餘同 {@link #lockNextInLane}
+     *
+     * @param taskConfigId 任務設定ID(通道)
+     * @param status       可領取的任務狀態
+     * @return 已鎖定的任務
+     */
+    @Query(value = "SELECT t.* FROM task_queue t WHERE t.task_config_id = :taskConfigId AND t.status = :status " +
+            "ORDER BY t.ig_user_id, t.submit_time LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<TaskQueue> lockFirstInLane(@Param("taskConfigId") Long taskConfigId, @Param("status") String status);
+
+    /**
+     * 依任務設定(通道)統計待領取數、執行中數，以及最久的待領取任務已等待的秒數
+     * 待領取任務的等待起點為最近一次修改時間(暫停、重置)，未曾修改則為提交時間
+     *
+     * @param statuses 待領取的任務狀態
+     * @return 每列為 [task_config_id, 待領取數, 執行中數, 最久等待秒數(無待領取為null)]
+     */
+    @Query(value = "SELECT t.task_config_id, SUM(t.status IN (:statuses)), SUM(t.status = 'IN_PROGRESS'), " +
+            "TIMESTAMPDIFF(SECOND, MIN(CASE WHEN t.status IN (:statuses) THEN COALESCE(t.modify_time, t.submit_time) END), NOW()) " +
+            "FROM task_queue t WHERE t.status IN (:statuses) OR t.status = 'IN_PROGRESS' GROUP BY t.task_config_id", nativeQuery = true)
+    List<Object[]> countByLane(@Param("statuses") List<String> statuses);
 
 
     /**
@@ -62,4 +94,136 @@ public interface TaskQueueDao extends JpaRepository<TaskQueue, Integer> {
      * @return boolean
      */
     Optional<TaskQueue> findById(BigInteger taskId);
+
+    /**
+     * 更新任務的下一頁游標
+     *
+     * @param taskId 任務ID
+     * @param nextId 下一頁游標
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query("UPDATE TaskQueue t SET t.nextIdForSearch = :nextId, t.modifyTime = CURRENT_TIMESTAMP WHERE t.id = :taskId")
+    int updateNextIdForSearch(@Param("taskId") BigInteger taskId, @Param("nextId") String nextId);
+
+    /**
+     * 更新任務目前指向的媒體子任務
+     *
+     * @param taskId         任務ID
+     * @param taskQueueMedia 子任務，null代表解除指向
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query("UPDATE TaskQueue t SET t.taskQueueMediaId = :taskQueueMedia, t.modifyTime = CURRENT_TIMESTAMP WHERE t.id = :taskId")
+    int updateTaskQueueMedia(@Param("taskId") BigInteger taskId, @Param("taskQueueMedia") TaskQueueMedia taskQueueMedia);
+
+    /**
+     * 記錄任務的爬取世代，已有世代時不覆寫
+     *
+     * @param taskId     任務ID
+     * @param generation 世代
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE task_queue SET crawl_generation = :generation WHERE id = :taskId AND crawl_generation IS NULL", nativeQuery = true)
+    int updateCrawlGeneration(@Param("taskId") BigInteger taskId, @Param("generation") int generation);
+
+    /**
+     * 記錄任務的舊資料清除完成時間，不改版本號
+     *
+     * @param taskId 任務ID
+     * @param now    完成時間
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE task_queue SET content_purged_at = :now WHERE id = :taskId AND content_purged_at IS NULL", nativeQuery = true)
+    int markContentPurged(@Param("taskId") BigInteger taskId, @Param("now") LocalDateTime now);
+
+    /**
+     * 比對狀態與版本號後轉換任務狀態(compare-and-set)，不載入任務實體；
+     * 一律更新修改時間，終結狀態另記結束時間，錯誤訊息為null時保留原值
+     *
+     * @param taskId       任務ID
+     * @param from         預期的目前狀態
+     * @param version      預期的目前版本號
+     * @param to           新狀態
+     * @param terminal     新狀態是否為終結狀態
+     * @param errorMessage 錯誤訊息
+     * @param now          轉換時間
+     * @return 更新筆數，0代表狀態或版本已被變更
+     */
+    @Modifying
+    @Query(value = "UPDATE task_queue SET status = :to, version = version + 1, modify_time = :now, " +
+            "end_time = CASE WHEN :terminal THEN :now ELSE end_time END, error_message = COALESCE(:errorMessage, error_message) " +
+            "WHERE id = :taskId AND status = :from AND version = :version", nativeQuery = true)
+    int compareAndSetStatus(@Param("taskId") BigInteger taskId, @Param("from") String from, @Param("version") Long version,
+                            @Param("to") String to, @Param("terminal") boolean terminal,
+                            @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+
+    /**
+     * 將所有 from 狀態的任務轉換為 to 狀態
+     *
+     * @param from 目前狀態
+     * @param to   新狀態
+     * @param now  轉換時間
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE task_queue SET status = :to, version = version + 1, modify_time = :now WHERE status = :from", nativeQuery = true)
+    int updateAllStatus(@Param("from") String from, @Param("to") String to, @Param("now") LocalDateTime now);
+
+    /**
+     * 設定任務的租約到期時間(領取時，於領取交易內)
+     *
+     * @param taskId    任務ID
+     * @param expiresAt 租約到期時間
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE task_queue SET lease_expires_at = :expiresAt WHERE id = :taskId", nativeQuery = true)
+    int grantLease(@Param("taskId") BigInteger taskId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 續約執行中任務的租約，不改版本號
+     *
+     * @param taskId    任務ID
+     * @param expiresAt 新的租約到期時間
+     * @return 更新筆數，0代表任務已不在執行中
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE task_queue SET lease_expires_at = :expiresAt WHERE id = :taskId AND status = 'IN_PROGRESS'", nativeQuery = true)
+    int renewLease(@Param("taskId") BigInteger taskId, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 查詢租約已過期或未曾給予租約的執行中任務
+     *
+     * @param now 目前時間
+     * @return 任務ID集合
+     */
+    @Query(value = "SELECT id FROM task_queue WHERE status = 'IN_PROGRESS' AND (lease_expires_at IS NULL OR lease_expires_at < :now)", nativeQuery = true)
+    List<BigInteger> findExpiredLeaseIds(@Param("now") LocalDateTime now);
+
+    /**
+     * 將租約已過期的執行中任務改回PAUSED，游標與子任務指針不變；查詢後才續約的任務不受影響
+     *
+     * @param taskIds 任務ID集合
+     * @param now     目前時間
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = "UPDATE task_queue SET status = 'PAUSED', version = version + 1, modify_time = :now, lease_expires_at = NULL " +
+            "WHERE id IN (:taskIds) AND status = 'IN_PROGRESS' AND (lease_expires_at IS NULL OR lease_expires_at < :now)", nativeQuery = true)
+    int releaseExpiredLeases(@Param("taskIds") List<BigInteger> taskIds, @Param("now") LocalDateTime now);
+
+    /**
+     * 查詢對象用戶某類任務最近一次的完成時間
+     *
+     * @param igUser   對象用戶
+     * @param taskType 任務類型
+     * @param status   任務狀態
+     * @return 完成時間，無則為null
+     */
+    @Query("SELECT MAX(t.endTime) FROM TaskQueue t WHERE t.igUser = :igUser AND t.taskConfig.taskType = :taskType AND t.status = :status")
+    LocalDateTime findLatestEndTime(@Param("igUser") IgUser igUser, @Param("taskType") TaskTypeEnum taskType, @Param("status") TaskStatusEnum status);
 }
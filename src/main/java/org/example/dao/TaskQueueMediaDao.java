@@ -4,6 +4,9 @@ import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.entity.TaskQueue;
 import org.example.entity.TaskQueueMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -16,4 +19,26 @@ public interface TaskQueueMediaDao extends JpaRepository<TaskQueueMedia, Integer
      * @param taskQueue 任務
      */
     void deleteByTaskQueue(TaskQueue taskQueue);
+
+    /**
+     * 更新子任務的下一頁游標
+     *
+     * @param id          子任務ID
+     * @param nextMediaId 下一頁游標
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query("UPDATE TaskQueueMedia m SET m.nextMediaId = :nextMediaId WHERE m.id = :id")
+    int updateNextMediaId(@Param("id") int id, @Param("nextMediaId") String nextMediaId);
+
+    /**
+     * 更新子任務狀態
+     *
+     * @param id     子任務ID
+     * @param status 狀態
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query("UPDATE TaskQueueMedia m SET m.status = :status WHERE m.id = :id")
+    int updateStatus(@Param("id") int id, @Param("status") TaskStatusEnum status);
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package org.example.dao.impl;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import lombok.extern.slf4j.Slf4j;
+import org.example.metrics.CrawlerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 大量資料以 LOAD DATA LOCAL INFILE 寫入暫存表，再以一次 INSERT ... SELECT ... ON DUPLICATE KEY UPDATE 合併
+ * 資料以TSV經由記憶體管道串流給驅動程式，不落地、不整批組字串；筆數未達門檻時改走多列批量寫入
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Component
+public class BulkLoadTemplate {
+    private static final String STAGING_PREFIX = "stg_";
+    // 暫存表欄位加前綴，避免合併時 ON DUPLICATE KEY UPDATE 子句的欄位名稱與來源表衝突
+    private static final String STAGING_COLUMN_PREFIX = "s_";
+    private static final String NULL_VALUE = "\\N";
+    private static final int PIPE_BUFFER_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkUpsertTemplate bulkUpsertTemplate;
+    private final CrawlerMetrics crawlerMetrics;
+    private final int rowThreshold;
+    private final boolean enabled;
+    private final long backoffNanos;
+    // 載入失敗後暫停載入模式至此時間(System.nanoTime)，0為未暫停
+    private final AtomicLong suspendedUntilNanos = new AtomicLong();
+    private final ExecutorService tsvWriters = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-load-tsv");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BulkLoadTemplate(JdbcTemplate jdbcTemplate, BulkUpsertTemplate bulkUpsertTemplate, CrawlerMetrics crawlerMetrics,
+                            @Value("${ingest.bulkLoad.enabled:false}") boolean enabled,
+                            @Value("${ingest.bulkLoad.rowThreshold:2000}") int rowThreshold,
+                            @Value("${ingest.bulkLoad.backoffMillis:600000}") long backoffMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkUpsertTemplate = bulkUpsertTemplate;
+        this.crawlerMetrics = crawlerMetrics;
+        this.enabled = enabled;
+        this.rowThreshold = rowThreshold;
+        this.backoffNanos = TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+    }
+
+    /**
+     * 依筆數選擇寫入方式: 達門檻走 LOAD DATA，否則走多列批量寫入
+     * 若伺服器未開啟 local_infile、TSV寫入失敗等原因導致載入失敗，本次改走批量寫入，並於 backoffMillis 內暫停載入模式
+     *
+     * @param table                表名
+     * @param columns              插入欄位
+     * @param onDuplicateKeyUpdate ON DUPLICATE KEY UPDATE 子句
+     * @param rows                 資料
+     * @param valuesOf             單筆資料對應欄位值，順序同 columns
+     * @return 影響列數
+     */
+    public <T> int upsert(String table, String[] columns, String onDuplicateKeyUpdate, List<T> rows, Function<T, Object[]> valuesOf) {
+        if (enabled && rows.size() >= rowThreshold && !isSuspended()) {
+            try {
+                return load(table, columns, onDuplicateKeyUpdate, rows, valuesOf);
+            } catch (RuntimeException e) {
+                // 載入失敗時合併語句未執行或已整句回滾，改走批量寫入不會重複寫入
+                log.warn("{} LOAD DATA 失敗，暫停載入模式{}ms並改用批量寫入: {}", table, TimeUnit.NANOSECONDS.toMillis(backoffNanos), e.getMessage());
+                crawlerMetrics.increment("ingest.bulkLoad.fallback", 1);
+                suspendedUntilNanos.set(Math.max(1, System.nanoTime() + backoffNanos));
+            }
+        }
+        return bulkUpsertTemplate.upsert(table, columns, onDuplicateKeyUpdate, rows, valuesOf);
+    }
+
+    /**
+     * 以 LOAD DATA LOCAL INFILE 載入暫存表並合併至目標表，全程使用同一連線
+     *
+     * @return 合併時的影響列數
+     */
+    public <T> int load(String table, String[] columns, String onDuplicateKeyUpdate, List<T> rows, Function<T, Object[]> valuesOf) {
+        if (rows.isEmpty()) return 0;
+        String stagingTable = STAGING_PREFIX + table;
+        String targetColumns = String.join(", ", columns);
+        String stagingColumns = Arrays.stream(columns).map(column -> STAGING_COLUMN_PREFIX + column).collect(Collectors.joining(", "));
+        String stagingDefinition = Arrays.stream(columns).map(column -> column + " AS " + STAGING_COLUMN_PREFIX + column).collect(Collectors.joining(", "));
+        long start = System.nanoTime();
+
+        Integer affectedRows = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TEMPORARY TABLE IF EXISTS " + stagingTable);
+                // 僅複製欄位型別，不含索引與外鍵
+                statement.execute("CREATE TEMPORARY TABLE " + stagingTable + " SELECT " + stagingDefinition + " FROM " + table + " LIMIT 0");
+                try {
+                    loadTsv(statement, stagingTable, stagingColumns, rows, valuesOf);
+                    return statement.executeUpdate("INSERT INTO " + table + " (" + targetColumns + ") SELECT " + stagingColumns + " FROM " + stagingTable + " " + onDuplicateKeyUpdate);
+                } finally {
+                    statement.execute("DROP TEMPORARY TABLE IF EXISTS " + stagingTable);
+                }
+            }
+        });
+
+        long elapsedNanos = System.nanoTime() - start;
+        crawlerMetrics.record("ingest.bulkLoad." + table, rows.size(), elapsedNanos);
+        log.info("{} LOAD DATA 載入{}筆, 耗時{}ms", table, rows.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return affectedRows == null ? 0 : affectedRows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tsvWriters.shutdownNow();
+    }
+
+    // private
+
+    private boolean isSuspended() {
+        long until = suspendedUntilNanos.get();
+        if (until == 0) return false;
+        if (System.nanoTime() - until < 0) return true;
+        // 暫停期滿，下一次達門檻的寫入重新嘗試載入
+        suspendedUntilNanos.compareAndSet(until, 0);
+        return false;
+    }
+
+    /**
+     * 由另一執行緒將資料寫為TSV送入管道，本執行緒執行 LOAD DATA 讀取管道
+     */
+    private <T> void loadTsv(Statement statement, String stagingTable, String stagingColumns, List<T> rows, Function<T, Object[]> valuesOf) throws SQLException {
+        PipedInputStream in = new PipedInputStream(PIPE_BUFFER_BYTES);
+        Future<?> writer;
+        try {
+            PipedOutputStream out = new PipedOutputStream(in);
+            writer = tsvWriters.submit(() -> writeTsv(out, rows, valuesOf));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(in);
+            statement.execute("LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + stagingTable +
+                    " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (" + stagingColumns + ")");
+        } finally {
+            // 關閉讀端，載入中斷時寫入執行緒會因管道關閉而結束
+            closeQuietly(in);
+        }
+        awaitWriter(writer);
+    }
+
+    private static <T> Void writeTsv(OutputStream out, List<T> rows, Function<T, Object[]> valuesOf) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            for (T row : rows) {
+                Object[] values = valuesOf.apply(row);
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) writer.write('\t');
+                    writer.write(toTsvField(values[i]));
+                }
+                writer.write('\n');
+            }
+        }
+        return null;
+    }
+
+    private static String toTsvField(Object value) {
+        if (value == null) return NULL_VALUE;
+        if (value instanceof Boolean bool) return bool ? "1" : "0";
+        String text = value.toString();
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '\t' -> escaped.append("\\t");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\0' -> escaped.append("\\0");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static void awaitWriter(Future<?> writer) {
+        try {
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待TSV寫入時被中斷", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("TSV寫入失敗", e.getCause());
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("關閉管道失敗", e);
+        }
+    }
+}
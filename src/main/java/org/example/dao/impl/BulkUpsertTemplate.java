@@ -0,0 +1,216 @@
+package org.example.dao.impl;
+
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.example.metrics.CrawlerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 多列 INSERT ... VALUES (...),(...) ON DUPLICATE KEY UPDATE 批量寫入
+ * 每張表依實測單次往返耗時調整每批列數(達標則加、超時則減半)，並受封包大小與佔位符數上限限制
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Component
+public class BulkUpsertTemplate {
+    // MySQL prepared statement 佔位符上限
+    private static final int MAX_PLACEHOLDERS = 65535;
+    private static final int MIN_CHUNK_ROWS = 10;
+    private static final int MAX_CHUNK_ROWS = 1000;
+    private static final int INITIAL_CHUNK_ROWS = 200;
+    // 每個參數於封包中的估計額外位元組
+    private static final int PARAM_OVERHEAD_BYTES = 8;
+    // 查詢既有雜湊時單次 IN 條件的鍵數
+    private static final int HASH_LOOKUP_KEYS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerMetrics crawlerMetrics;
+    private final long maxPacketBytes;
+    private final long targetChunkMillis;
+    private final Map<String, AtomicInteger> chunkRows = new ConcurrentHashMap<>();
+
+    public BulkUpsertTemplate(JdbcTemplate jdbcTemplate, CrawlerMetrics crawlerMetrics,
+                              @Value("${ingest.bulkUpsert.maxPacketBytes:4194304}") long maxPacketBytes,
+                              @Value("${ingest.bulkUpsert.targetChunkMillis:250}") long targetChunkMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerMetrics = crawlerMetrics;
+        this.maxPacketBytes = maxPacketBytes;
+        this.targetChunkMillis = targetChunkMillis;
+    }
+
+    /**
+     * 批量插入，發生衝突則依 onDuplicateKeyUpdate 更新
+     *
+     * @param table                表名
+     * @param columns              插入欄位
+     * @param onDuplicateKeyUpdate ON DUPLICATE KEY UPDATE 子句
+     * @param rows                 資料
+     * @param valuesOf             單筆資料對應欄位值，順序同 columns
+     * @return 影響列數(新增計1、更新計2)
+     */
+    public <T> int upsert(String table, String[] columns, String onDuplicateKeyUpdate, List<T> rows, Function<T, Object[]> valuesOf) {
+        if (rows.isEmpty()) return 0;
+        AtomicInteger chunkSize = chunkRowsOf(table);
+        int maxRowsByPlaceholders = MAX_PLACEHOLDERS / columns.length;
+        int affectedRows = 0;
+        int roundTrips = 0;
+        long start = System.nanoTime();
+
+        List<Object[]> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        for (T row : rows) {
+            Object[] values = valuesOf.apply(row);
+            long rowBytes = estimateBytes(values);
+            int rowLimit = Math.min(chunkSize.get(), maxRowsByPlaceholders);
+            if (!chunk.isEmpty() && (chunk.size() >= rowLimit || chunkBytes + rowBytes > maxPacketBytes)) {
+                affectedRows += executeChunk(table, columns, onDuplicateKeyUpdate, chunk, chunkSize);
+                roundTrips++;
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(values);
+            chunkBytes += rowBytes;
+        }
+        affectedRows += executeChunk(table, columns, onDuplicateKeyUpdate, chunk, chunkSize);
+        roundTrips++;
+
+        long elapsedNanos = System.nanoTime() - start;
+        crawlerMetrics.record("ingest.upsert." + table, rows.size(), elapsedNanos);
+        log.info("{} 批量寫入{}筆, 往返{}次, 耗時{}ms, 下批列數:{}", table, rows.size(), roundTrips,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), chunkSize.get());
+        return affectedRows;
+    }
+
+    /**
+     * 比對資料庫中既有的 content_hash，只保留新增或內容有變動的資料；略過筆數計入 ingest.skipped.{table}
+     *
+     * @param table       表名
+     * @param scopeColumn 鍵所屬範圍欄位(如 media_id)，鍵本身即唯一時為null
+     * @param scopeOf     單筆資料的範圍值
+     * @param keyColumn   鍵欄位
+     * @param keyOf       單筆資料的鍵
+     * @param keyType     鍵型別
+     * @param rows        資料
+     * @param hashOf      單筆資料的內容雜湊
+     * @return 需寫入的資料
+     */
+    public <T, K> List<T> retainChanged(String table, String scopeColumn, Function<T, ?> scopeOf, String keyColumn, Function<T, K> keyOf,
+                                        Class<K> keyType, List<T> rows, ToLongFunction<T> hashOf) {
+        if (rows.isEmpty()) return rows;
+        Map<Object, List<T>> rowsByScope = scopeColumn == null
+                ? Map.of(table, rows)
+                : rows.stream().collect(Collectors.groupingBy(scopeOf, LinkedHashMap::new, Collectors.toList()));
+
+        List<T> changed = new ArrayList<>(rows.size());
+        rowsByScope.forEach((scope, scopedRows) -> {
+            Map<K, Long> storedHashes = findContentHashes(table, scopeColumn, scope, keyColumn, keyType,
+                    scopedRows.stream().map(keyOf).distinct().toList());
+            scopedRows.stream()
+                    .filter(row -> !Objects.equals(storedHashes.get(keyOf.apply(row)), hashOf.applyAsLong(row)))
+                    .forEach(changed::add);
+        });
+
+        int skipped = rows.size() - changed.size();
+        if (skipped > 0) {
+            crawlerMetrics.increment("ingest.skipped." + table, skipped);
+            log.info("{} 內容未變動略過{}筆, 需寫入{}筆", table, skipped, changed.size());
+        }
+        return changed;
+    }
+
+    // private
+
+    private <K> Map<K, Long> findContentHashes(String table, String scopeColumn, Object scope, String keyColumn, Class<K> keyType, List<K> keys) {
+        Map<K, Long> storedHashes = new HashMap<>();
+        for (List<K> keyChunk : Lists.partition(keys, HASH_LOOKUP_KEYS)) {
+            StringBuilder sql = new StringBuilder("SELECT ").append(keyColumn).append(", content_hash FROM ").append(table).append(" WHERE ");
+            List<Object> args = new ArrayList<>(keyChunk.size() + 1);
+            if (scopeColumn != null) {
+                sql.append(scopeColumn).append(" = ? AND ");
+                args.add(scope);
+            }
+            sql.append(keyColumn).append(" IN (").append(String.join(", ", Collections.nCopies(keyChunk.size(), "?"))).append(')');
+            args.addAll(keyChunk);
+            jdbcTemplate.query(sql.toString(), rs -> {
+                storedHashes.put(rs.getObject(1, keyType), rs.getObject(2, Long.class));
+            }, args.toArray());
+        }
+        return storedHashes;
+    }
+
+    private AtomicInteger chunkRowsOf(String table) {
+        return chunkRows.computeIfAbsent(table, key -> {
+            AtomicInteger chunkSize = new AtomicInteger(INITIAL_CHUNK_ROWS);
+            crawlerMetrics.registerGauge("ingest.upsert." + key + ".chunkRows", chunkSize::get);
+            return chunkSize;
+        });
+    }
+
+    private int executeChunk(String table, String[] columns, String onDuplicateKeyUpdate, List<Object[]> chunk, AtomicInteger chunkSize) {
+        String sql = buildSql(table, columns, onDuplicateKeyUpdate, chunk.size());
+        long start = System.nanoTime();
+        int affectedRows = jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (Object[] values : chunk) {
+                for (Object value : values) {
+                    ps.setObject(index++, value);
+                }
+            }
+        });
+        adjustChunkSize(chunkSize, chunk.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return affectedRows;
+    }
+
+    /**
+     * 超過目標延遲時減半；未超過且本批已滿時加四分之一，於[MIN_CHUNK_ROWS, MAX_CHUNK_ROWS]間
+     */
+    private void adjustChunkSize(AtomicInteger chunkSize, int rowsInChunk, long elapsedMillis) {
+        chunkSize.updateAndGet(current -> {
+            if (elapsedMillis > targetChunkMillis) {
+                return Math.max(MIN_CHUNK_ROWS, current / 2);
+            }
+            if (rowsInChunk >= current) {
+                return Math.min(MAX_CHUNK_ROWS, current + Math.max(MIN_CHUNK_ROWS, current / 4));
+            }
+            return current;
+        });
+    }
+
+    private static String buildSql(String table, String[] columns, String onDuplicateKeyUpdate, int rowCount) {
+        String rowPlaceholders = "(" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        StringBuilder sql = new StringBuilder(64 + rowCount * (rowPlaceholders.length() + 1))
+                .append("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) sql.append(',');
+            sql.append(rowPlaceholders);
+        }
+        return sql.append(' ').append(onDuplicateKeyUpdate).toString();
+    }
+
+    /**
+     * 估計單列於封包中的大小，字串以 utf8mb4 每字元最多 4 位元組計
+     */
+    private static long estimateBytes(Object[] values) {
+        long bytes = 0;
+        for (Object value : values) {
+            bytes += PARAM_OVERHEAD_BYTES;
+            if (value instanceof CharSequence text) {
+                bytes += text.length() * 4L;
+            }
+        }
+        return bytes;
+    }
+}
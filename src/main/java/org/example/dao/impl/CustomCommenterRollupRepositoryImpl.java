@@ -0,0 +1,82 @@
+package org.example.dao.impl;
+
+import org.example.dao.CustomCommenterRollupRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 彙總一律由留言表重新計算受影響的留言者，重複執行結果相同，不因重試或重複寫入而累加錯誤
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Repository
+public class CustomCommenterRollupRepositoryImpl implements CustomCommenterRollupRepository {
+    private static final Set<String> SOURCE_TABLES = Set.of("media_comment", "media_comment_archive");
+    // 與原報表查詢相同，只計入已發布世代的貼文；%s 為來源表與額外條件
+    private static final String AGGREGATE = "SELECT mc.ig_user_id, mc.commenter_user_id, COUNT(*) AS comment_count, " +
+            "COALESCE(SUM(mc.comment_like_count), 0) AS like_sum " +
+            "FROM %s mc JOIN media m ON m.id = mc.media_id JOIN ig_user u ON u.id = m.ig_user_id " +
+            "WHERE mc.ig_user_id = ? AND mc.commenter_user_id IS NOT NULL AND m.first_seen_generation <= u.media_generation AND m.last_seen_generation >= u.media_generation%s " +
+            "GROUP BY mc.ig_user_id, mc.commenter_user_id";
+    // last_seen 需先於計數更新，才能比對更新前的值
+    private static final String UPSERT = "INSERT INTO commenter_rollup (ig_user_id, commenter_pk, comment_count, like_sum, first_seen, last_seen) " +
+            "SELECT s.ig_user_id, s.commenter_user_id, s.comment_count, s.like_sum, NOW(), NOW() FROM (%s) s " +
+            "ON DUPLICATE KEY UPDATE " +
+            "last_seen = IF(comment_count <> VALUES(comment_count) OR like_sum <> VALUES(like_sum), VALUES(last_seen), last_seen), " +
+            "comment_count = VALUES(comment_count), like_sum = VALUES(like_sum)";
+    private static final String NO_QUALIFYING_COMMENT = "NOT EXISTS (SELECT 1 FROM %s mc " +
+            "JOIN media m ON m.id = mc.media_id JOIN ig_user u ON u.id = m.ig_user_id " +
+            "WHERE mc.ig_user_id = r.ig_user_id AND mc.commenter_user_id = r.commenter_pk AND m.first_seen_generation <= u.media_generation AND m.last_seen_generation >= u.media_generation)";
+    private static final String DELETE_STALE = "DELETE r FROM commenter_rollup r WHERE r.ig_user_id = ? AND " + NO_QUALIFYING_COMMENT;
+    private static final String COUNT_MISMATCHES = "SELECT " +
+            "(SELECT COUNT(*) FROM (%s) s LEFT JOIN commenter_rollup r ON r.ig_user_id = s.ig_user_id AND r.commenter_pk = s.commenter_user_id " +
+            "WHERE r.id IS NULL OR r.comment_count <> s.comment_count OR r.like_sum <> s.like_sum) + " +
+            "(SELECT COUNT(*) FROM commenter_rollup r WHERE r.ig_user_id = ? AND " + NO_QUALIFYING_COMMENT + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomCommenterRollupRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int refreshCommenters(int igUserId, Collection<Long> commenterPks) {
+        if (commenterPks.isEmpty()) return 0;
+        String in = " AND mc.commenter_user_id IN (" + String.join(",", Collections.nCopies(commenterPks.size(), "?")) + ")";
+        List<Object> args = new ArrayList<>();
+        args.add(igUserId);
+        args.addAll(commenterPks);
+        return jdbcTemplate.update(String.format(UPSERT, String.format(AGGREGATE, "media_comment", in)), args.toArray());
+    }
+
+    @Override
+    public int rebuild(int igUserId, String sourceTable) {
+        checkSource(sourceTable);
+        int upserted = jdbcTemplate.update(String.format(UPSERT, String.format(AGGREGATE, sourceTable, "")), igUserId);
+        int deleted = jdbcTemplate.update(String.format(DELETE_STALE, sourceTable), igUserId);
+        return upserted + deleted;
+    }
+
+    @Override
+    public int countMismatches(int igUserId, String sourceTable) {
+        checkSource(sourceTable);
+        Integer mismatches = jdbcTemplate.queryForObject(String.format(COUNT_MISMATCHES, String.format(AGGREGATE, sourceTable, ""), sourceTable),
+                Integer.class, igUserId, igUserId);
+        return mismatches == null ? 0 : mismatches;
+    }
+
+    //private
+
+    private static void checkSource(String sourceTable) {
+        if (!SOURCE_TABLES.contains(sourceTable)) {
+            throw new IllegalArgumentException("不支援的留言來源表: " + sourceTable);
+        }
+    }
+}
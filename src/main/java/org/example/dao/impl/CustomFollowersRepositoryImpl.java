@@ -3,69 +3,44 @@ package org.example.dao.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dao.CustomFollowersRepository;
 import org.example.entity.Followers;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.List;
 
 /**
+ * 追蹤關係(ig_user_id, follower_pk)，個人資料另存於 ig_profile
+ *
  * @author Eric.Lee
  * Date:2024/2/18
  */
 @Slf4j
 @Repository
 public class CustomFollowersRepositoryImpl implements CustomFollowersRepository {
-
-    private final JdbcTemplate jdbcTemplate;
-
-    public CustomFollowersRepositoryImpl(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    private static final String TABLE = "followers";
+    private static final String[] COLUMNS = {"ig_user_id", "follower_pk", "first_seen_generation", "last_seen_generation"};
+    // 已存在的關係僅將最後出現世代往前推進；未出現在已發布世代(已不可見)者首次出現世代重設為本世代，需先於 last_seen 更新
+    // 同一追蹤者追蹤多個用戶時各自一列，互不影響
+    private static final String ON_DUPLICATE_KEY_UPDATE = "ON DUPLICATE KEY UPDATE " +
+            "first_seen_generation = IF(last_seen_generation < (SELECT u.follower_generation FROM ig_user u WHERE u.id = followers.ig_user_id), " +
+            "VALUES(first_seen_generation), first_seen_generation), " +
+            "last_seen_generation = GREATEST(last_seen_generation, VALUES(last_seen_generation))";
+
+    private final BulkLoadTemplate bulkLoadTemplate;
+
+    public CustomFollowersRepositoryImpl(BulkLoadTemplate bulkLoadTemplate) {
+        this.bulkLoadTemplate = bulkLoadTemplate;
     }
 
     @Override
-    public void batchInsertOrUpdate(List<Followers> followersList) {
-        String sql = "INSERT INTO followers (ig_user_id, follower_pk, follower_user_name, follower_full_name, is_private, profile_pic_url, profile_pic_id, is_verified, has_anonymous_profile_picture, latest_reel_media) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE " +
-                "follower_user_name = VALUES(follower_user_name), " +
-                "follower_full_name = VALUES(follower_full_name), " +
-                "is_private = VALUES(is_private), " +
-                "profile_pic_url = VALUES(profile_pic_url), " +
-                "profile_pic_id = VALUES(profile_pic_id), " +
-                "is_verified = VALUES(is_verified), " +
-                "has_anonymous_profile_picture = VALUES(has_anonymous_profile_picture), " +
-                "latest_reel_media = VALUES(latest_reel_media)";
-
-        int[] updateCounts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                Followers follower = followersList.get(i);
-                ps.setInt(1, follower.getIgUser().getId());
-                ps.setLong(2, follower.getFollowerPk());
-                ps.setString(3, follower.getFollowerUserName());
-                ps.setString(4, follower.getFollowerFullName());
-                ps.setBoolean(5, follower.getIsPrivate());
-                ps.setString(6, follower.getProfilePicUrl());
-                ps.setString(7, follower.getProfilePicId());
-                ps.setBoolean(8, follower.getIsVerified());
-                ps.setBoolean(9, follower.getHasAnonymousProfilePicture());
-                ps.setLong(10, follower.getLatestReelMedia());
-            }
-
-            @Override
-            public int getBatchSize() {
-                return followersList.size();
-            }
+    public int batchInsertOrUpdate(List<Followers> followersList) {
+        int affectedRows = bulkLoadTemplate.upsert(TABLE, COLUMNS, ON_DUPLICATE_KEY_UPDATE, followersList, follower -> new Object[]{
+                follower.getIgUser().getId(),
+                follower.getFollowerPk(),
+                follower.getFirstSeenGeneration(),
+                follower.getLastSeenGeneration()
         });
-        // 計算實際寫入的記錄數
-        int actualInsertCount = 0;
-        for (int count : updateCounts) {
-            if (count > 0) {
-                actualInsertCount++;
-            }
-        }
-        log.info("實際寫入的記錄數: {}", actualInsertCount);
+        // 影響列數: 新增計1、推進世代計2、未變動計0
+        log.info("實際寫入的影響列數: {}", affectedRows);
+        return affectedRows;
     }
 }
@@ -0,0 +1,73 @@
+package org.example.dao.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.dao.CustomIgProfileRepository;
+import org.example.entity.IgProfile;
+import org.example.utils.ContentHashUtil;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Repository
+public class CustomIgProfileRepositoryImpl implements CustomIgProfileRepository {
+    private static final String TABLE = "ig_profile";
+    // 發文數、追蹤數等由追蹤者明細任務寫入，不在此覆蓋
+    private static final String[] COLUMNS = {"pk", "user_name", "full_name", "is_private", "is_verified", "profile_pic_id", "profile_pic_url", "has_anonymous_profile_picture", "latest_reel_media", "content_hash"};
+    private static final String ON_DUPLICATE_KEY_UPDATE = "ON DUPLICATE KEY UPDATE " +
+            "user_name = VALUES(user_name), full_name = VALUES(full_name), " +
+            "is_private = VALUES(is_private), is_verified = VALUES(is_verified), " +
+            "profile_pic_id = VALUES(profile_pic_id), profile_pic_url = VALUES(profile_pic_url), " +
+            "has_anonymous_profile_picture = VALUES(has_anonymous_profile_picture), " +
+            "latest_reel_media = VALUES(latest_reel_media), content_hash = VALUES(content_hash)";
+
+    private final BulkUpsertTemplate bulkUpsertTemplate;
+    private final BulkLoadTemplate bulkLoadTemplate;
+
+    public CustomIgProfileRepositoryImpl(BulkUpsertTemplate bulkUpsertTemplate, BulkLoadTemplate bulkLoadTemplate) {
+        this.bulkUpsertTemplate = bulkUpsertTemplate;
+        this.bulkLoadTemplate = bulkLoadTemplate;
+    }
+
+    /**
+     * 批量插入，發生衝突則更新；同一頁內重複的帳號(如同一人多則留言)只寫入最後一筆
+     *
+     * @param profileList 個人資料列表
+     * @return 實際送出寫入的筆數(未變動者略過)
+     */
+    @Override
+    public int batchInsertOrUpdate(List<IgProfile> profileList) {
+        Map<Long, IgProfile> profiles = new LinkedHashMap<>();
+        profileList.forEach(profile -> profiles.put(profile.getPk(), profile));
+        List<IgProfile> distinctList = List.copyOf(profiles.values());
+        distinctList.forEach(profile -> profile.setContentHash(contentHash(profile)));
+        // 僅寫入新增或內容有變動的個人資料
+        List<IgProfile> changedList = bulkUpsertTemplate.retainChanged(TABLE, null, null, "pk", IgProfile::getPk, Long.class,
+                distinctList, IgProfile::getContentHash);
+        int affectedRows = bulkLoadTemplate.upsert(TABLE, COLUMNS, ON_DUPLICATE_KEY_UPDATE, changedList, profile -> new Object[]{
+                profile.getPk(),
+                profile.getUserName(),
+                profile.getFullName(),
+                profile.getIsPrivate(),
+                profile.getIsVerified(),
+                profile.getProfilePicId(),
+                profile.getProfilePicUrl(),
+                profile.getHasAnonymousProfilePicture(),
+                profile.getLatestReelMedia(),
+                profile.getContentHash()
+        });
+        log.info("實際寫入的影響列數: {}", affectedRows);
+        return changedList.size();
+    }
+
+    private static long contentHash(IgProfile profile) {
+        return ContentHashUtil.of(profile.getUserName(), profile.getFullName(), profile.getIsPrivate(), profile.getIsVerified(),
+                profile.getProfilePicId(), profile.getProfilePicUrl(), profile.getHasAnonymousProfilePicture(), profile.getLatestReelMedia());
+    }
+}
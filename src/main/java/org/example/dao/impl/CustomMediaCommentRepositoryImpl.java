@@ -1,15 +1,21 @@
 package org.example.dao.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.MediaCommentDetailDto;
+import org.example.dao.CommenterRollupDao;
 import org.example.dao.CustomMediaCommentRepository;
 import org.example.entity.MediaComment;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.example.utils.ContentHashUtil;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.sql.ResultSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * @author Eric.Lee
@@ -18,51 +24,94 @@ import java.util.List;
 @Slf4j
 @Repository
 public class CustomMediaCommentRepositoryImpl implements CustomMediaCommentRepository {
+    private static final String TABLE = "media_comment";
+    // 留言者個人資料另存於 ig_profile，此處只保留留言者 pk
+    private static final String[] COLUMNS = {"ig_user_id", "media_id", "text", "commenter_user_id", "comment_pk", "content_type", "status", "comment_like_count", "content_hash"};
+    private static final String ON_DUPLICATE_KEY_UPDATE = "ON DUPLICATE KEY UPDATE " +
+            "text = VALUES(text), commenter_user_id = VALUES(commenter_user_id), " +
+            "content_type = VALUES(content_type), status = VALUES(status), comment_like_count = VALUES(comment_like_count), content_hash = VALUES(content_hash)";
+
+    // 熱/冷資料表共用的明細查詢，只讀取已發布世代的貼文
+    private static final String DETAIL = "SELECT m.text, m.media_pk, p.user_name, p.full_name, c.text, " +
+            "p.is_private, p.is_verified, p.latest_reel_media, c.comment_like_count " +
+            "FROM %s c " +
+            "JOIN media m ON m.id = c.media_id JOIN ig_user u ON u.id = m.ig_user_id " +
+            "JOIN ig_profile p ON p.pk = c.commenter_user_id " +
+            "WHERE c.ig_user_id = ? AND m.ig_user_id = c.ig_user_id AND m.first_seen_generation <= u.media_generation AND m.last_seen_generation >= u.media_generation";
+    private static final String DETAIL_HOT = String.format(DETAIL, TABLE);
+    private static final String DETAIL_ARCHIVE = String.format(DETAIL, TABLE + "_archive");
+
+    private final BulkUpsertTemplate bulkUpsertTemplate;
     private final JdbcTemplate jdbcTemplate;
+    private final CommenterRollupDao commenterRollupDao;
 
-    public CustomMediaCommentRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    public CustomMediaCommentRepositoryImpl(BulkUpsertTemplate bulkUpsertTemplate, JdbcTemplate jdbcTemplate, CommenterRollupDao commenterRollupDao) {
+        this.bulkUpsertTemplate = bulkUpsertTemplate;
         this.jdbcTemplate = jdbcTemplate;
+        this.commenterRollupDao = commenterRollupDao;
     }
 
     /**
-     * 批量插入，發生衝突則更新
+     * 批量插入，發生衝突則更新；同一交易內重新彙總有變動的留言者
      *
      * @param mediaCommentList 媒體列表
+     * @return 實際送出寫入的筆數(未變動者略過)
      */
     @Override
-    public void batchInsertOrUpdate(List<MediaComment> mediaCommentList) {
-        String sql = "INSERT INTO media_comment (media_id, text, commenter_full_name, commenter_user_id, commenter_user_name, comment_pk, commenter_is_private, commenter_is_verified, commenter_profile_pic_id, commenter_profile_pic_url, commenter_latest_reel_media, content_type, status, comment_like_count) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE " +
-                "text = VALUES(text), commenter_full_name = VALUES(commenter_full_name), commenter_user_id = VALUES(commenter_user_id), " +
-                "commenter_user_name = VALUES(commenter_user_name), commenter_is_private = VALUES(commenter_is_private), commenter_is_verified = VALUES(commenter_is_verified), " +
-                "commenter_profile_pic_id = VALUES(commenter_profile_pic_id), commenter_profile_pic_url = VALUES(commenter_profile_pic_url), commenter_latest_reel_media = VALUES(commenter_latest_reel_media), " +
-                "content_type = VALUES(content_type), status = VALUES(status), comment_like_count = VALUES(comment_like_count)";
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                MediaComment mediaComment = mediaCommentList.get(i);
-                ps.setInt(1, mediaComment.getMedia().getId());
-                ps.setString(2, mediaComment.getText());
-                ps.setString(3, mediaComment.getCommenterFullName());
-                ps.setLong(4, mediaComment.getCommenterUserId());
-                ps.setString(5, mediaComment.getCommenterUserName());
-                ps.setString(6, mediaComment.getCommentPk());
-                ps.setBoolean(7, mediaComment.isCommenterIsPrivate());
-                ps.setBoolean(8, mediaComment.isCommenterIsVerified());
-                ps.setString(9, mediaComment.getCommenterProfilePicId());
-                ps.setString(10, mediaComment.getCommenterProfilePicUrl());
-                ps.setLong(11, mediaComment.getCommenterLatestReelMedia());
-                ps.setString(12, mediaComment.getContentType());
-                ps.setString(13, mediaComment.getStatus());
-                ps.setInt(14, mediaComment.getCommentLikeCount());
-            }
+    public int batchInsertOrUpdate(List<MediaComment> mediaCommentList) {
+        mediaCommentList.forEach(mediaComment -> mediaComment.setContentHash(contentHash(mediaComment)));
+        // 僅寫入新增或內容有變動的留言
+        List<MediaComment> changedList = bulkUpsertTemplate.retainChanged(TABLE, "media_id", mediaComment -> mediaComment.getMedia().getId(),
+                "comment_pk", MediaComment::getCommentPk, String.class, mediaCommentList, MediaComment::getContentHash);
+        bulkUpsertTemplate.upsert(TABLE, COLUMNS, ON_DUPLICATE_KEY_UPDATE, changedList, mediaComment -> new Object[]{
+                mediaComment.getIgUser().getId(),
+                mediaComment.getMedia().getId(),
+                mediaComment.getText(),
+                mediaComment.getCommenterUserId(),
+                mediaComment.getCommentPk(),
+                mediaComment.getContentType(),
+                mediaComment.getStatus(),
+                mediaComment.getCommentLikeCount(),
+                mediaComment.getContentHash()
+        });
+        // 一頁留言皆屬同一對象用戶
+        changedList.stream()
+                .filter(mediaComment -> mediaComment.getCommenterUserId() != null)
+                .collect(Collectors.groupingBy(mediaComment -> mediaComment.getIgUser().getId(),
+                        Collectors.mapping(MediaComment::getCommenterUserId, Collectors.toSet())))
+                .forEach(commenterRollupDao::refreshCommenters);
+        return changedList.size();
+    }
 
-            @Override
-            public int getBatchSize() {
-                return mediaCommentList.size();
-            }
+    @Override
+    public long streamMediaCommentDetails(int igUserId, boolean archived, Consumer<MediaCommentDetailDto> consumer) {
+        String sql = archived ? DETAIL_ARCHIVE : DETAIL_HOT;
+        AtomicLong count = new AtomicLong();
+        jdbcTemplate.query(connection -> {
+            // MySQL Connector/J 僅在 forward-only、read-only 且 fetchSize 為 Integer.MIN_VALUE 時逐列串流
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, igUserId);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            consumer.accept(new MediaCommentDetailDto(
+                    rs.getString(1),
+                    rs.getObject(2, Long.class),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getObject(6, Boolean.class),
+                    rs.getObject(7, Boolean.class),
+                    rs.getObject(8, Long.class),
+                    rs.getObject(9, Integer.class)
+            ));
+            count.incrementAndGet();
         });
+        return count.get();
+    }
+
+    private static long contentHash(MediaComment mediaComment) {
+        return ContentHashUtil.of(mediaComment.getText(), mediaComment.getCommenterUserId(),
+                mediaComment.getContentType(), mediaComment.getStatus(), mediaComment.getCommentLikeCount());
     }
 }
@@ -3,55 +3,42 @@ package org.example.dao.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dao.CustomMediaLikerRepository;
 import org.example.entity.MediaLiker;
-import org.jetbrains.annotations.NotNull;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.List;
 
 /**
+ * 按讚關係(media_id, liker_pk)，個人資料另存於 ig_profile
+ *
  * @author Eric.Lee
  * Date:2024/3/11
  */
 @Slf4j
 @Repository
 public class CustomMediaLikerRepositoryImpl implements CustomMediaLikerRepository {
-    private final JdbcTemplate jdbcTemplate;
+    private static final String TABLE = "media_liker";
+    private static final String[] COLUMNS = {"ig_user_id", "media_id", "liker_pk"};
+    // 關係已存在時不需更新任何欄位
+    private static final String ON_DUPLICATE_KEY_UPDATE = "ON DUPLICATE KEY UPDATE liker_pk = liker_pk";
 
-    public CustomMediaLikerRepositoryImpl(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
-    }
+    private final BulkLoadTemplate bulkLoadTemplate;
 
+    public CustomMediaLikerRepositoryImpl(BulkLoadTemplate bulkLoadTemplate) {
+        this.bulkLoadTemplate = bulkLoadTemplate;
+    }
 
+    /**
+     * 批量插入，關係已存在則略過
+     *
+     * @param mediaLikerList 按讚者列表
+     * @return 新增的關係筆數
+     */
     @Override
-    public void batchInsertOrUpdate(List<MediaLiker> mediaLikerList) {
-        String sql = "INSERT INTO media_liker (media_id, liker_user_name, liker_full_name, liker_pk, liker_is_private, liker_is_verified, liker_profile_pic_id, liker_profile_pic_url, liker_latest_reel_media) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE " +
-                "liker_user_name = VALUES(liker_user_name), " + // 更新一個不變的欄位或使用其它邏輯來確保記錄不變
-                "liker_user_name = liker_user_name"; // 實際上這行不會改變任何數據，只是為了符合語法
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(@NotNull PreparedStatement ps, int i) throws SQLException {
-                MediaLiker mediaLiker = mediaLikerList.get(i);
-                // 設置PreparedStatement的值
-                ps.setInt(1, mediaLiker.getMedia().getId());
-                ps.setString(2, mediaLiker.getLikerUserName());
-                ps.setString(3, mediaLiker.getLikerFullName());
-                ps.setLong(4, mediaLiker.getLikerPk());
-                ps.setBoolean(5, mediaLiker.isLikerIsPrivate());
-                ps.setBoolean(6, mediaLiker.isLikerIsVerified());
-                ps.setString(7, mediaLiker.getLikerProfilePicId());
-                ps.setString(8, mediaLiker.getLikerProfilePicUrl());
-                ps.setLong(9, mediaLiker.getLikerLatestReelMedia());
-            }
-            @Override
-            public int getBatchSize() {
-                return mediaLikerList.size();
-            }
+    public int batchInsertOrUpdate(List<MediaLiker> mediaLikerList) {
+        return bulkLoadTemplate.upsert(TABLE, COLUMNS, ON_DUPLICATE_KEY_UPDATE, mediaLikerList, mediaLiker -> new Object[]{
+                mediaLiker.getIgUser().getId(),
+                mediaLiker.getMedia().getId(),
+                mediaLiker.getLikerPk()
         });
     }
 }
@@ -3,12 +3,8 @@ package org.example.dao.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dao.CustomMediaRepository;
 import org.example.entity.Media;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.List;
 
@@ -19,11 +15,21 @@ import java.util.List;
 @Slf4j
 @Repository
 public class CustomMediaRepositoryImpl implements CustomMediaRepository {
-
-    private final JdbcTemplate jdbcTemplate;
-
-    public CustomMediaRepositoryImpl(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    private static final String TABLE = "media";
+    private static final String[] COLUMNS = {"media_id", "ig_user_id", "media_pk", "play_count", "fb_play_count", "like_count", "fb_like_count", "reshare_count", "comment_count", "number_of_qualities", "taken_at", "text", "first_seen_generation", "last_seen_generation"};
+    // 未出現在已發布世代(已不可見)者首次出現世代重設為本世代，需先於 last_seen 更新
+    private static final String ON_DUPLICATE_KEY_UPDATE = "ON DUPLICATE KEY UPDATE " +
+            "media_pk = VALUES(media_pk), play_count = VALUES(play_count), fb_play_count = VALUES(fb_play_count), " +
+            "like_count = VALUES(like_count), fb_like_count = VALUES(fb_like_count), reshare_count = VALUES(reshare_count), " +
+            "comment_count = VALUES(comment_count), number_of_qualities = VALUES(number_of_qualities), taken_at = VALUES(taken_at), " +
+            "first_seen_generation = IF(last_seen_generation < (SELECT u.media_generation FROM ig_user u WHERE u.id = media.ig_user_id), " +
+            "VALUES(first_seen_generation), first_seen_generation), " +
+            "last_seen_generation = GREATEST(last_seen_generation, VALUES(last_seen_generation))";
+
+    private final BulkUpsertTemplate bulkUpsertTemplate;
+
+    public CustomMediaRepositoryImpl(BulkUpsertTemplate bulkUpsertTemplate) {
+        this.bulkUpsertTemplate = bulkUpsertTemplate;
     }
 
     /**
@@ -33,36 +39,25 @@ public class CustomMediaRepositoryImpl implements CustomMediaRepository {
      */
     @Override
     public void batchInsertOrUpdate(List<Media> mediaList) {
-        String sql = "INSERT INTO media (media_id, ig_user_id, media_pk, play_count, fb_play_count, like_count, fb_like_count, reshare_count, comment_count, number_of_qualities, taken_at, text) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "ON DUPLICATE KEY UPDATE " +
-                "media_pk = VALUES(media_pk), play_count = VALUES(play_count), fb_play_count = VALUES(fb_play_count), " +
-                "like_count = VALUES(like_count), fb_like_count = VALUES(fb_like_count), reshare_count = VALUES(reshare_count), " +
-                "comment_count = VALUES(comment_count), number_of_qualities = VALUES(number_of_qualities), taken_at = VALUES(taken_at)";
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(PreparedStatement ps, int i) throws SQLException {
-                Media media = mediaList.get(i);
-                ps.setString(1, media.getMediaId());
-                ps.setLong(2, media.getIgUserId().getId()); // 注意，這裡假設 IgUser 實體存在並有 getId() 方法
-                ps.setLong(3, media.getMediaPk());
-                ps.setInt(4, media.getPlayCount() == null ? 0 : media.getPlayCount());
-                ps.setInt(5, media.getFbPlayCount() == null ? 0 : media.getFbPlayCount());
-                ps.setInt(6, media.getLikeCount() == null ? 0 : media.getLikeCount());
-                ps.setInt(7, media.getFbLikeCount() == null ? 0 : media.getFbLikeCount());
-                ps.setInt(8, media.getReshareCount() == null ? 0 : media.getReshareCount());
-                ps.setInt(9, media.getCommentCount() == null ? 0 : media.getCommentCount());
-                ps.setInt(10, media.getNumberOfQualities() == null ? 0 : media.getNumberOfQualities());
-                ps.setTimestamp(11, Timestamp.valueOf(media.getTakenAt()));
-                ps.setString(12, media.getText());
-
-            }
-
-            @Override
-            public int getBatchSize() {
-                return mediaList.size();
-            }
+        bulkUpsertTemplate.upsert(TABLE, COLUMNS, ON_DUPLICATE_KEY_UPDATE, mediaList, media -> new Object[]{
+                media.getMediaId(),
+                media.getIgUserId().getId(),
+                media.getMediaPk(),
+                zeroIfNull(media.getPlayCount()),
+                zeroIfNull(media.getFbPlayCount()),
+                zeroIfNull(media.getLikeCount()),
+                zeroIfNull(media.getFbLikeCount()),
+                zeroIfNull(media.getReshareCount()),
+                zeroIfNull(media.getCommentCount()),
+                zeroIfNull(media.getNumberOfQualities()),
+                Timestamp.valueOf(media.getTakenAt()),
+                media.getText(),
+                media.getFirstSeenGeneration(),
+                media.getLastSeenGeneration()
         });
     }
+
+    private static int zeroIfNull(Integer value) {
+        return value == null ? 0 : value;
+    }
 }
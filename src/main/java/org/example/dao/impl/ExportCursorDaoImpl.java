@@ -0,0 +1,103 @@
+package org.example.dao.impl;
+
+import org.example.bean.enumtype.ExportDatasetEnum;
+import org.example.dao.ExportCursorDao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 各資料集只讀取已發布世代，條件與報表查詢一致；以 ig_user_id 限定分區後依 id 遞增讀取
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Repository
+public class ExportCursorDaoImpl implements ExportCursorDao {
+    private static final String FOLLOWERS = "SELECT f.id, f.follower_pk AS pk, p.user_name, p.full_name, p.is_private, p.is_verified, " +
+            "p.post_count, p.follower_count, p.following_count " +
+            "FROM followers f JOIN ig_user u ON u.id = f.ig_user_id " +
+            "LEFT JOIN ig_profile p ON p.pk = f.follower_pk " +
+            "WHERE f.ig_user_id = ? AND f.first_seen_generation <= u.follower_generation AND f.last_seen_generation >= u.follower_generation AND f.id > ? ORDER BY f.id";
+    private static final String MEDIA = "SELECT m.id, m.media_pk, m.media_id, m.taken_at, m.like_count, m.comment_count, " +
+            "m.play_count, m.reshare_count, m.text " +
+            "FROM media m JOIN ig_user u ON u.id = m.ig_user_id " +
+            "WHERE m.ig_user_id = ? AND m.first_seen_generation <= u.media_generation AND m.last_seen_generation >= u.media_generation AND m.id > ? ORDER BY m.id";
+    // %s 為熱表或冷表
+    private static final String COMMENTS = "SELECT c.id, m.media_pk, c.comment_pk, c.commenter_user_id AS commenter_pk, " +
+            "p.user_name, p.full_name, c.text, c.comment_like_count, c.status " +
+            "FROM %s c JOIN media m ON m.id = c.media_id JOIN ig_user u ON u.id = m.ig_user_id " +
+            "LEFT JOIN ig_profile p ON p.pk = c.commenter_user_id " +
+            "WHERE c.ig_user_id = ? AND m.first_seen_generation <= u.media_generation AND m.last_seen_generation >= u.media_generation AND c.id > ? ORDER BY c.id";
+    private static final String LIKERS = "SELECT l.id, m.media_pk, l.liker_pk, p.user_name, p.full_name, p.is_private, p.is_verified " +
+            "FROM %s l JOIN media m ON m.id = l.media_id JOIN ig_user u ON u.id = m.ig_user_id " +
+            "LEFT JOIN ig_profile p ON p.pk = l.liker_pk " +
+            "WHERE l.ig_user_id = ? AND m.first_seen_generation <= u.media_generation AND m.last_seen_generation >= u.media_generation AND l.id > ? ORDER BY l.id";
+    private static final Map<ExportDatasetEnum, String> HOT_SQL = Map.of(
+            ExportDatasetEnum.FOLLOWERS, FOLLOWERS,
+            ExportDatasetEnum.MEDIA, MEDIA,
+            ExportDatasetEnum.COMMENTS, String.format(COMMENTS, "media_comment"),
+            ExportDatasetEnum.LIKERS, String.format(LIKERS, "media_liker"));
+    private static final Map<ExportDatasetEnum, String> ARCHIVE_SQL = Map.of(
+            ExportDatasetEnum.COMMENTS, String.format(COMMENTS, "media_comment_archive"),
+            ExportDatasetEnum.LIKERS, String.format(LIKERS, "media_liker_archive"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportCursorDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long streamRows(ExportDatasetEnum dataset, int igUserId, boolean archived, long afterId,
+                           Consumer<String[]> header, Consumer<Object[]> row) {
+        String sql = archived && ARCHIVE_SQL.containsKey(dataset) ? ARCHIVE_SQL.get(dataset) : HOT_SQL.get(dataset);
+        Long count = jdbcTemplate.query(connection -> {
+            // forward-only、read-only 且 fetchSize 為 Integer.MIN_VALUE 時 Connector/J 逐列串流
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, igUserId);
+            ps.setLong(2, afterId);
+            return ps;
+        }, (ResultSetExtractor<Long>) rs -> {
+            // 無資料時仍輸出表頭
+            header.accept(labels(rs.getMetaData()));
+            Object[] values = new Object[rs.getMetaData().getColumnCount()];
+            long rows = 0;
+            while (rs.next()) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = normalize(rs.getObject(i + 1));
+                }
+                row.accept(values);
+                rows++;
+            }
+            return rows;
+        });
+        return count == null ? 0 : count;
+    }
+
+    //private
+
+    private static String[] labels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+
+    /**
+     * 日期時間轉為 ISO-8601 字串，使 NDJSON 與 CSV 輸出一致
+     */
+    private static Object normalize(Object value) {
+        return value instanceof TemporalAccessor ? value.toString() : value;
+    }
+}
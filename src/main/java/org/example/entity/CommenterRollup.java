@@ -0,0 +1,60 @@
+package org.example.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 留言者彙總，每個對象用戶的每位留言者一列，留言寫入時依受影響的留言者增量更新
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Entity
+@Schema(description = "留言者彙總")
+@Getter
+@Setter
+@Table(name = "commenter_rollup", schema = "crawler_ig",
+        uniqueConstraints = @UniqueConstraint(name = "idx_commenter_rollup_unique", columnNames = {"ig_user_id", "commenter_pk"}),
+        indexes = @Index(name = "idx_commenter_rollup_count", columnList = "ig_user_id, comment_count"))
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommenterRollup {
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    // 對象用戶(留言所屬貼文的用戶)
+    @Column(name = "ig_user_id", nullable = false)
+    private Integer igUserId;
+
+    @Column(name = "commenter_pk", nullable = false)
+    private Long commenterPk;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "commenter_pk", referencedColumnName = "pk", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    private IgProfile commenter;
+
+    @Column(name = "comment_count", nullable = false)
+    private Long commentCount;
+
+    @Column(name = "like_sum", nullable = false)
+    private Long likeSum;
+
+    // 首次彙總到此留言者的時間
+    @Column(name = "first_seen")
+    private LocalDateTime firstSeen;
+
+    // 最近一次留言數或按讚數變動的時間
+    @Column(name = "last_seen")
+    private LocalDateTime lastSeen;
+}
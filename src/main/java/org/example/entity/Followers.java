@@ -13,7 +13,8 @@ import javax.persistence.*;
 @Schema(description = "追蹤者")
 @Getter
 @Setter
-@Table(name = "followers", schema = "crawler_ig")
+@Table(name = "followers", schema = "crawler_ig",
+        uniqueConstraints = @UniqueConstraint(name = "idx_followers_ig_user_follower_pk", columnNames = {"ig_user_id", "follower_pk"}))
 @ToString
 @RequiredArgsConstructor
 @AllArgsConstructor
@@ -31,38 +32,18 @@ public class Followers {
     @Column(name = "follower_pk")
     private Long followerPk;
 
-    @Column(name = "follower_user_name")
-    private String followerUserName;
-
-    @Column(name = "follower_full_name")
-    private String followerFullName;
-
-    @Column(name = "is_private")
-    private Boolean isPrivate;
-
-    @Lob
-    @Column(name = "profile_pic_url")
-    private String profilePicUrl;
-
-    @Column(name = "profile_pic_id")
-    private String profilePicId;
-
-    @Column(name = "is_verified")
-    private Boolean isVerified;
-
-    @Column(name = "has_anonymous_profile_picture")
-    private Boolean hasAnonymousProfilePicture;
-
-    @Column(name = "latest_reel_media")
-    private Long latestReelMedia;
-
-    @Column(name = "post_count")
-    private Integer postCount;
+    // 個人資料於寫入關聯前已以 pk 寫入 ig_profile，不建立外鍵
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "follower_pk", referencedColumnName = "pk", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private IgProfile profile;
 
-    @Column(name = "follower_count")
-    private Integer followerCount;
+    // 首次出現的爬取世代，中斷後重新出現時重設
+    @Column(name = "first_seen_generation", columnDefinition = "int not null default 0")
+    private int firstSeenGeneration;
 
-    @Column(name = "following_count")
-    private Integer followingCount;
+    // 最後出現的爬取世代；讀取端只看 first_seen <= 已發布世代 <= last_seen 的列
+    @Column(name = "last_seen_generation", columnDefinition = "int not null default 0")
+    private int lastSeenGeneration;
 
 }
@@ -0,0 +1,64 @@
+package org.example.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * IG帳號個人資料，追蹤者、留言者、按讚者共用，以 IG pk 為主鍵
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Entity
+@Schema(description = "IG帳號個人資料")
+@Getter
+@Setter
+@Table(name = "ig_profile", schema = "crawler_ig")
+@ToString
+@RequiredArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IgProfile {
+    @Id
+    @Column(name = "pk")
+    private Long pk;
+
+    @Column(name = "user_name")
+    private String userName;
+
+    @Column(name = "full_name")
+    private String fullName;
+
+    @Column(name = "is_private")
+    private Boolean isPrivate;
+
+    @Column(name = "is_verified")
+    private Boolean isVerified;
+
+    @Column(name = "profile_pic_id")
+    private String profilePicId;
+
+    @Lob
+    @Column(name = "profile_pic_url")
+    private String profilePicUrl;
+
+    @Column(name = "has_anonymous_profile_picture")
+    private Boolean hasAnonymousProfilePicture;
+
+    @Column(name = "latest_reel_media")
+    private Long latestReelMedia;
+
+    @Column(name = "post_count")
+    private Integer postCount;
+
+    @Column(name = "follower_count")
+    private Integer followerCount;
+
+    @Column(name = "following_count")
+    private Integer followingCount;
+
+    @Column(name = "content_hash")
+    private Long contentHash;
+}
@@ -39,6 +39,21 @@ public class IgUser {
     @Column(name = "following_count")
     private int followingCount;
 
+    // 已發布(讀取端可見)的追蹤者世代，僅由 CrawlGenerationService 以條件更新切換
+    @Column(name = "follower_generation", columnDefinition = "int not null default 0", insertable = false, updatable = false)
+    private int followerGeneration;
+
+    // 已發布(讀取端可見)的貼文世代，僅由 CrawlGenerationService 以條件更新切換
+    @Column(name = "media_generation", columnDefinition = "int not null default 0", insertable = false, updatable = false)
+    private int mediaGeneration;
+
+    // 最後配置的追蹤者/貼文世代，僅由 CrawlGenerationService 遞增
+    @Column(name = "next_follower_generation", columnDefinition = "int not null default 0", insertable = false, updatable = false)
+    private int nextFollowerGeneration;
+
+    @Column(name = "next_media_generation", columnDefinition = "int not null default 0", insertable = false, updatable = false)
+    private int nextMediaGeneration;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -64,4 +64,12 @@ public class Media {
     @Lob
     @Column(name = "text")
     private String text;
+
+    // 首次出現的爬取世代，中斷後重新出現時重設
+    @Column(name = "first_seen_generation", columnDefinition = "int not null default 0")
+    private int firstSeenGeneration;
+
+    // 最後出現的爬取世代；讀取端只看 first_seen <= 已發布世代 <= last_seen 的列
+    @Column(name = "last_seen_generation", columnDefinition = "int not null default 0")
+    private int lastSeenGeneration;
 }
@@ -11,7 +11,9 @@ import javax.persistence.*;
  * Date: 2024/3/8
  */
 @Entity
-@Table(name = "media_comment", schema = "crawler_ig")
+@Table(name = "media_comment", schema = "crawler_ig",
+        uniqueConstraints = @UniqueConstraint(name = "idx_media_comment_unique", columnNames = {"ig_user_id", "media_id", "comment_pk"}),
+        indexes = @Index(name = "idx_media_comment_commenter", columnList = "ig_user_id, commenter_user_id"))
 @ToString
 @RequiredArgsConstructor
 @AllArgsConstructor
@@ -25,40 +27,34 @@ public class MediaComment {
     @Column(name = "id")
     private int id;
 
+    // 分區表不支援外鍵
     @ManyToOne
-    @JoinColumn(name = "media_id", unique = true)
+    @JoinColumn(name = "media_id", unique = true, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private Media media;
+
+    // 分區鍵，與貼文所屬用戶相同；查詢帶此條件時只掃描該用戶所在分區
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ig_user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    private IgUser igUser;
     
     @Column(name = "text")
     private String text;
     
-    @Column(name = "commenter_full_name")
-    private String commenterFullName;
-    
     @Column(name = "commenter_user_id")
     private Long commenterUserId;
     
-    @Column(name = "commenter_user_name")
-    private String commenterUserName;
-    
     @Column(name = "comment_pk")
     private String commentPk;
     
-    @Column(name = "commenter_is_private")
-    private boolean commenterIsPrivate;
-    
-    @Column(name = "commenter_is_verified")
-    private boolean commenterIsVerified;
-    
-    @Column(name = "commenter_profile_pic_id")
-    private String commenterProfilePicId;
-    
-    @Column(name = "commenter_profile_pic_url")
-    private String commenterProfilePicUrl;
-    
-    @Column(name = "commenter_latest_reel_media")
-    private long commenterLatestReelMedia;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "commenter_user_id", referencedColumnName = "pk", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    private IgProfile commenter;
 
     @Column(name = "content_type")
     private String contentType;
@@ -68,4 +64,7 @@ public class MediaComment {
 
     @Column(name = "comment_like_count")
     private Integer commentLikeCount;
+
+    @Column(name = "content_hash")
+    private Long contentHash;
 }
@@ -11,7 +11,8 @@ import javax.persistence.*;
  * Date:2024/3/11
  */
 @Entity
-@Table(name = "media_liker", schema = "crawler_ig")
+@Table(name = "media_liker", schema = "crawler_ig",
+        uniqueConstraints = @UniqueConstraint(name = "idx_media_liker_unique", columnNames = {"ig_user_id", "media_id", "liker_pk"}))
 @ToString
 @RequiredArgsConstructor
 @AllArgsConstructor
@@ -25,32 +26,26 @@ public class MediaLiker {
     @Column(name = "id")
     private int id;
 
+    // 分區表不支援外鍵
     @ManyToOne
-    @JoinColumn(name = "media_id", unique = true)
+    @JoinColumn(name = "media_id", unique = true, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private Media media;
 
-    @Column(name = "liker_user_name")
-    private String likerUserName;
-    
-    @Column(name = "liker_full_name")
-    private String likerFullName;
-    
+    // 分區鍵，與貼文所屬用戶相同；查詢帶此條件時只掃描該用戶所在分區
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ig_user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    private IgUser igUser;
+
     @Column(name = "liker_pk")
     private Long likerPk;
-    
-    @Column(name = "liker_is_private")
-    private boolean likerIsPrivate;
-    
-    @Column(name = "liker_is_verified")
-    private boolean likerIsVerified;
-    
-    @Column(name = "liker_profile_pic_id")
-    private String likerProfilePicId;
-    
-    @Column(name = "liker_profile_pic_url")
-    private String likerProfilePicUrl;
-    
-    @Column(name = "liker_latest_reel_media")
-    private Long likerLatestReelMedia;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "liker_pk", referencedColumnName = "pk", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    private IgProfile liker;
 }
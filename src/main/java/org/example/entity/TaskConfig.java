@@ -37,6 +37,14 @@ public class TaskConfig {
     @Enumerated(EnumType.STRING)
     private InitStatusEnum initStatus;
 
+    // 通道權重，每輪可領取的任務數
+    @Column(name = "weight")
+    private int weight;
+
+    // 通道同時執行中的任務上限
+    @Column(name = "max_concurrency")
+    private int maxConcurrency;
+
     public TaskStatusEnum mapInitStatusToTaskStatus(InitStatusEnum initStatus) {
         return switch (initStatus) {
             case PENDING -> TaskStatusEnum.PENDING;
@@ -60,11 +60,23 @@ public class TaskQueue {
     @Column(name = "next_id_for_search")
     private String nextIdForSearch;
 
+    // GET_FOLLOWERS/GET_MEDIA 本次爬取寫入的世代，任務完成時發布
+    @Column(name = "crawl_generation")
+    private Integer crawlGeneration;
+
     @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
     @JoinColumn(name = "task_queue_media_id")
     @ToString.Exclude
     private TaskQueueMedia taskQueueMediaId;
 
+    // 執行租約到期時間，只由 TaskLeaseService 以UPDATE寫入，儲存實體時不覆蓋
+    @Column(name = "lease_expires_at", insertable = false, updatable = false)
+    private LocalDateTime leaseExpiresAt;
+
+    // 舊的留言/按讚資料清除完成時間，只由 TaskQueueService 以UPDATE寫入；有值時不再重新清除
+    @Column(name = "content_purged_at", insertable = false, updatable = false)
+    private LocalDateTime contentPurgedAt;
+
     @Version
     @Column(name = "version")
     private Long version;
@@ -22,6 +22,12 @@ public enum SysCode implements ErrorCode {
     EXCEL_OUTPUT_FAILED(2005, "文件傳送失敗"),
     FILE_NOT_FOUND(2006, "文件未找到"),
     CLOSING_ELEMENT_NOT_FOUND(2007, "關閉元素未找到"),
+    ARCHIVE_TABLE_NOT_SUPPORTED(2008, "不支援封存的資料表"),
+    REPORT_JOB_NOT_FOUND(2009, "報表匯出工作未找到"),
+    REPORT_NOT_READY(2010, "報表尚未產生完成"),
+    EXPORT_TYPE_NOT_SUPPORTED(2011, "不支援的匯出資料集或格式"),
+    REPORT_BATCH_TOO_LARGE(2012, "批次匯出對象數超過上限"),
+    REPORT_BATCH_NOT_FOUND(2013, "批次匯出未找到"),
 
     //任務運行相關錯誤
     TASK_CREATION_FAILED(2100, "任務創建失敗"),
@@ -36,6 +42,8 @@ public enum SysCode implements ErrorCode {
     TASK_SEND_PROMOTE_MESSAGE_NOT_FOUNT(2109, "找不到任務對應的發送推廣訊息任務明細"),
     TASK_SEND_PROMOTE_MESSAGE_BY_POST_SHARE_NOT_FOUNT(2110, "找不到每日推廣任務對應的發送推廣訊息任務明細"),
     SELENIUM_IG_USER_NOT_FOUND(2111, "用戶未找到"),
+    INGEST_WRITE_FAILED(2112, "分頁資料寫入失敗，已停止後續寫入"),
+    TASK_STATUS_TRANSITION_NOT_ALLOWED(2113, "任務狀態轉換不在允許的轉換表內"),
 
 
     //IG行為時相關錯誤
@@ -0,0 +1,106 @@
+package org.example.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 程式內指標登錄處，提供計數器、計時器與量測值，由管理API輸出快照
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Component
+public class CrawlerMetrics {
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<?>> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * 計數器累加
+     *
+     * @param name  指標名稱
+     * @param delta 增加量
+     */
+    public void increment(String name, long delta) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 記錄一次耗時操作及其處理筆數，快照中換算為每秒筆數
+     *
+     * @param name         指標名稱
+     * @param units        本次處理筆數
+     * @param elapsedNanos 本次耗時(奈秒)
+     */
+    public void record(String name, long units, long elapsedNanos) {
+        timers.computeIfAbsent(name, key -> new Timer()).record(units, elapsedNanos);
+    }
+
+    /**
+     * 註冊量測值，於快照時讀取當下數值；同名重複註冊時以後者為準
+     *
+     * @param name     指標名稱
+     * @param supplier 數值來源
+     */
+    public void registerGauge(String name, Supplier<?> supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * 取得計數器目前數值
+     *
+     * @param name 指標名稱
+     * @return 數值，不存在時為0
+     */
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * 所有指標的快照，依名稱排序
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        timers.forEach((name, timer) -> snapshot.put(name, timer.toMap()));
+        gauges.forEach((name, supplier) -> snapshot.put(name, supplier.get()));
+        return snapshot;
+    }
+
+    /**
+     * 累計呼叫次數、處理筆數與耗時
+     */
+    private static class Timer {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder units = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long unitCount, long elapsedNanos) {
+            calls.increment();
+            units.add(unitCount);
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        private Map<String, Object> toMap() {
+            long nanos = totalNanos.sum();
+            long unitSum = units.sum();
+            Map<String, Object> map = new TreeMap<>();
+            map.put("calls", calls.sum());
+            map.put("units", unitSum);
+            map.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(nanos));
+            map.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            map.put("unitsPerSecond", nanos == 0 ? 0 : Math.round(unitSum * 1_000_000_000d / nanos));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 連線池指標: 於連線池啟動前掛上 Hikari 指標追蹤器，
+ * 各連線池分別輸出使用中/閒置/上限/等待數量、取得連線等待時間與連線持有時間
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Component
+public class HikariPoolMetrics implements BeanPostProcessor {
+    private final CrawlerMetrics crawlerMetrics;
+
+    public HikariPoolMetrics(CrawlerMetrics crawlerMetrics) {
+        this.crawlerMetrics = crawlerMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            track(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * 為非 Spring 管理的連線池(如讀取副本)掛上指標追蹤器，須於連線池啟動前呼叫
+     *
+     * @param dataSource 連線池
+     */
+    public void track(HikariDataSource dataSource) {
+        if (dataSource.getMetricsTrackerFactory() == null) {
+            dataSource.setMetricsTrackerFactory(this::createTracker);
+        }
+    }
+
+    //private
+
+    /**
+     * 連線池啟動時由 Hikari 呼叫，註冊量測值並建立追蹤器
+     *
+     * @param poolName  連線池名稱
+     * @param poolStats 連線池狀態
+     * @return 指標追蹤器
+     */
+    private IMetricsTracker createTracker(String poolName, PoolStats poolStats) {
+        String prefix = "db.pool." + poolName + ".";
+        crawlerMetrics.registerGauge(prefix + "active", poolStats::getActiveConnections);
+        crawlerMetrics.registerGauge(prefix + "idle", poolStats::getIdleConnections);
+        crawlerMetrics.registerGauge(prefix + "total", poolStats::getTotalConnections);
+        crawlerMetrics.registerGauge(prefix + "pending", poolStats::getPendingThreads);
+        crawlerMetrics.registerGauge(prefix + "max", poolStats::getMaxConnections);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                crawlerMetrics.record(prefix + "acquire", 1, elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                crawlerMetrics.record(prefix + "usage", 1, TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                crawlerMetrics.increment(prefix + "timeout", 1);
+            }
+        };
+    }
+}
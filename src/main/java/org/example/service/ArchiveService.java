@@ -0,0 +1,61 @@
+package org.example.service;
+
+import java.util.List;
+
+/**
+ * 冷資料封存：長期未爬取的用戶，其留言/按讚資料由分區熱表移至壓縮的 {table}_archive 表
+ * 封存狀態記錄於 cold_archive，讀取端依狀態決定讀熱表或冷表
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface ArchiveService {
+    /**
+     * 可封存的資料表
+     *
+     * @return 表名列表
+     */
+    List<String> listArchivableTables();
+
+    /**
+     * 查詢可封存的用戶：熱表仍有資料、尚未封存，且無未完成任務並超過閒置天數未執行任務
+     *
+     * @param table 表名
+     * @return 用戶id列表
+     */
+    List<Integer> findInactiveTargets(String table);
+
+    /**
+     * 將用戶資料複製至冷表並記錄封存狀態，提交後於背景分批刪除熱表資料
+     *
+     * @param igUserId 用戶id
+     * @param table    表名
+     * @return 封存筆數
+     */
+    int archive(int igUserId, String table);
+
+    /**
+     * 用戶資料是否已封存
+     *
+     * @param igUserId 用戶id
+     * @param table    表名
+     * @return 是否已封存
+     */
+    boolean isArchived(int igUserId, String table);
+
+    /**
+     * 重新爬取時捨棄封存資料：立即改讀熱表，冷表資料於背景分批刪除；未封存時不做任何事
+     *
+     * @param igUserId 用戶id
+     * @param table    表名
+     */
+    void discard(int igUserId, String table);
+
+    /**
+     * 查詢已封存資料的用戶名稱
+     *
+     * @param table 表名
+     * @return 用戶名稱列表
+     */
+    List<String> findArchivedUserNames(String table);
+}
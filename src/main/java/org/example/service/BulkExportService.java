@@ -0,0 +1,29 @@
+package org.example.service;
+
+import org.example.bean.enumtype.ExportDatasetEnum;
+import org.example.bean.enumtype.ExportFormatEnum;
+import org.example.entity.IgUser;
+
+import java.io.OutputStream;
+
+/**
+ * 大量資料串流匯出(NDJSON/CSV)
+ * 資料由資料庫游標逐列寫出，記憶體用量與筆數無關；每列第一欄為 id，中斷後以最後一列的 id 作為 afterId 續傳
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface BulkExportService {
+    /**
+     * 將資料集寫入輸出串流(不關閉串流)
+     *
+     * @param igUser  對象用戶
+     * @param dataset 資料集
+     * @param format  輸出格式
+     * @param afterId 續傳位置，只輸出 id 大於此值的資料，從頭開始為 0
+     * @param gzip    是否以 gzip 壓縮
+     * @param out     輸出串流
+     * @return 輸出筆數
+     */
+    long export(IgUser igUser, ExportDatasetEnum dataset, ExportFormatEnum format, long afterId, boolean gzip, OutputStream out);
+}
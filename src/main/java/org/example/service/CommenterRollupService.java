@@ -0,0 +1,48 @@
+package org.example.service;
+
+import org.example.bean.dto.CommentReportDto;
+import org.example.bean.dto.CommenterRollupCheckDto;
+import org.example.entity.IgUser;
+
+import java.util.List;
+
+/**
+ * 留言者彙總(commenter_rollup)，取代報表每次對全部留言的 GROUP BY
+ * 每頁留言寫入時增量更新；貼文世代切換、舊資料清除後重建
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface CommenterRollupService {
+    /**
+     * 查詢留言統計資料，依留言數排序
+     *
+     * @param igUser 對象用戶
+     * @return 統計列表
+     */
+    List<CommentReportDto> findCommentSummary(IgUser igUser);
+
+    /**
+     * 查詢對象用戶彙總中的留言總數
+     *
+     * @param igUser 對象用戶
+     * @return 留言總數
+     */
+    long sumCommentCount(IgUser igUser);
+
+    /**
+     * 依留言表(封存後為冷表)重建對象用戶的彙總
+     *
+     * @param igUserId 對象用戶id
+     */
+    void rebuild(int igUserId);
+
+    /**
+     * 比對彙總與留言表即時統計，供回填與一致性檢查
+     *
+     * @param igUser  對象用戶
+     * @param rebuild 是否於比對後重建
+     * @return 檢查結果
+     */
+    CommenterRollupCheckDto check(IgUser igUser, boolean rebuild);
+}
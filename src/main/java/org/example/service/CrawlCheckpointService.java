@@ -0,0 +1,55 @@
+package org.example.service;
+
+import org.example.entity.*;
+
+import java.util.List;
+
+/**
+ * 爬蟲分頁保存與游標檢查點
+ * 每取得一頁資料即保存，並在同一個獨立交易內記錄下一頁游標，任務中斷時可由最後一頁繼續；
+ * 回傳值為依 content_hash 比對後內容未變動而略過的筆數(個人資料、留言)，由寫入緩衝依任務累計
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface CrawlCheckpointService {
+    /**
+     * 保存一頁追蹤者，並記錄任務游標(task_queue.next_id_for_search)
+     *
+     * @param task      任務
+     * @param followers 本頁追蹤者
+     * @param nextMaxId 下一頁游標，null代表已無下一頁
+     * @return 內容未變動而略過寫入的筆數
+     */
+    int saveFollowersPage(TaskQueue task, List<Followers> followers, String nextMaxId);
+
+    /**
+     * 保存一頁貼文，並記錄任務游標(task_queue.next_id_for_search)
+     *
+     * @param task      任務
+     * @param medias    本頁貼文
+     * @param nextMaxId 下一頁游標，null代表已無下一頁
+     * @return 內容未變動而略過寫入的筆數
+     */
+    int saveMediaPage(TaskQueue task, List<Media> medias, String nextMaxId);
+
+    /**
+     * 保存一頁留言，並記錄子任務游標(task_queue_media.next_media_id)
+     *
+     * @param task      任務
+     * @param comments  本頁留言
+     * @param nextMaxId 下一頁游標，null代表已無下一頁
+     * @return 內容未變動而略過寫入的筆數
+     */
+    int saveCommentsPage(TaskQueue task, List<MediaComment> comments, String nextMaxId);
+
+    /**
+     * 保存一頁按讚者，並記錄子任務游標(task_queue_media.next_media_id)
+     *
+     * @param task      任務
+     * @param likers    本頁按讚者
+     * @param nextMaxId 下一頁游標，null代表已無下一頁
+     * @return 內容未變動而略過寫入的筆數
+     */
+    int saveLikersPage(TaskQueue task, List<MediaLiker> likers, String nextMaxId);
+}
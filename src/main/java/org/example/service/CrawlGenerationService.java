@@ -0,0 +1,39 @@
+package org.example.service;
+
+import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.entity.IgUser;
+import org.example.entity.TaskQueue;
+
+/**
+ * 爬取世代(GET_FOLLOWERS/GET_MEDIA)
+ * 重新爬取時不先刪除舊資料，而是以新世代寫入；讀取端只看已發布世代，任務完成時才切換，
+ * 被取代的舊世代資料於背景分批清除
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface CrawlGenerationService {
+    /**
+     * 配置用戶下一個爬取世代，依任務類型各自遞增，同一世代號碼不會配置兩次
+     *
+     * @param igUser   用戶
+     * @param taskType 任務類型，僅支援 GET_FOLLOWERS/GET_MEDIA
+     * @return 世代
+     */
+    int nextGeneration(IgUser igUser, TaskTypeEnum taskType);
+
+    /**
+     * 任務尚未指定世代時(如升級前建立的任務)補上下一個世代
+     *
+     * @param task 任務
+     * @return 任務的世代
+     */
+    int ensureGeneration(TaskQueue task);
+
+    /**
+     * 發布任務的世代，與任務完成同一交易提交；提交後於背景清除被取代的舊世代資料
+     *
+     * @param task 任務
+     */
+    void publish(TaskQueue task);
+}
@@ -2,7 +2,7 @@ package org.example.service;
 
 import org.example.entity.IgUser;
 
-import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
 
 /**
  * @author Eric.Lee
@@ -11,10 +11,10 @@ import javax.servlet.http.HttpServletResponse;
 public interface ExcelService {
 
     /**
-     * 生成Excel文件
+     * 生成Excel文件並寫入輸出串流(不關閉串流)
      *
-     * @param igUser   使用者資訊
-     * @param response 回應
+     * @param igUser 使用者資訊
+     * @param out    輸出串流
      */
-    void createExcelForIgUser(IgUser igUser, HttpServletResponse response);
+    void writeExcelForIgUser(IgUser igUser, OutputStream out);
 }
@@ -12,29 +12,24 @@ import java.util.List;
  */
 public interface FollowersService extends BaseService<Followers> {
     /**
-     * 批量插入追蹤者
+     * 批量插入追蹤關係，個人資料需先以 IgProfileService 寫入
      *
      * @param followersList 追蹤者列表
+     * @return 影響列數
      */
-    void batchInsertFollowers(List<Followers> followersList);
+    int batchInsertFollowers(List<Followers> followersList);
 
     /**
-     * 透過用戶ID查詢追蹤者數量
+     * 透過用戶查詢指定世代(含)之後寫入的追蹤者數量
      *
-     * @param igUser 用戶
+     * @param igUser     用戶
+     * @param generation 爬取世代
      * @return 追蹤者數量
      */
-    int countFollowersByIgUserName(IgUser igUser);
-
-    /**
-     * 透過用戶刪除舊的追蹤者資料
-     *
-     * @param igUser 用戶
-     */
-    void deleteOldFollowersDataByIgUser(IgUser igUser);
+    int countFollowersByIgUserName(IgUser igUser, int generation);
 
     /**
-     * 透過用戶查詢追蹤者列表
+     * 透過用戶查詢追蹤者列表(僅已發布世代)
      *
      * @param igUser 用戶
      * @return 追蹤者列表
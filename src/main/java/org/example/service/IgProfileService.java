@@ -0,0 +1,28 @@
+package org.example.service;
+
+import org.example.entity.IgProfile;
+
+import java.util.List;
+
+/**
+ * IG帳號個人資料(追蹤者、留言者、按讚者共用)
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface IgProfileService {
+    /**
+     * 批量插入或更新個人資料，每頁爬取資料寫入關聯前呼叫一次
+     *
+     * @param profileList 個人資料列表
+     * @return 實際寫入筆數，內容未變動者略過
+     */
+    int batchInsertProfiles(List<IgProfile> profileList);
+
+    /**
+     * 更新個人頁面爬取的貼文數、粉絲數與追蹤數
+     *
+     * @param profile 個人資料
+     */
+    void updateProfileCounts(IgProfile profile);
+}
@@ -0,0 +1,31 @@
+package org.example.service;
+
+import org.example.entity.TaskQueue;
+
+import java.util.function.IntSupplier;
+
+/**
+ * 爬蟲寫入緩衝(write-behind)
+ * 分頁資料的轉換與保存交由單一寫入執行緒處理，與請求間暫停重疊進行，爬取執行緒不等待資料庫
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface IngestBufferService {
+    /**
+     * 提交一頁寫入工作，依提交順序執行；緩衝已滿時阻塞等待(背壓)
+     * 若該任務先前的寫入已失敗，直接拋出例外以停止後續爬取
+     *
+     * @param task  任務
+     * @param write 寫入工作(轉換、保存、記錄游標)，回傳內容未變動而略過寫入的筆數
+     */
+    void submit(TaskQueue task, IntSupplier write);
+
+    /**
+     * 等待該任務所有已提交的寫入完成，於任務結束判斷前呼叫；
+     * 本次執行累計略過的寫入筆數於此記錄一次(日誌及依任務類型的 ingest.skipped.taskType.{type} 計數)
+     *
+     * @param task 任務
+     */
+    void flush(TaskQueue task);
+}
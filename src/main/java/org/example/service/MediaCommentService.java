@@ -1,11 +1,12 @@
 package org.example.service;
 
-import org.example.bean.dto.CommentReportDto;
 import org.example.bean.dto.MediaCommentDetailDto;
 import org.example.entity.IgUser;
 import org.example.entity.MediaComment;
+import org.example.entity.TaskQueue;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Eric.Lee
@@ -13,32 +14,30 @@ import java.util.List;
  */
 public interface MediaCommentService extends BaseService<MediaComment> {
     /**
-     * 透過用戶ID刪除舊的貼文留言資料
+     * 於背景分批刪除任務對象所有貼文的舊留言資料，同一任務重複呼叫時沿用同一清除工作；
+     * 清除完成時處理封存等後續工作，呼叫端需於回傳 true 後記錄完成標記，不再呼叫
      *
-     * @param mediaIds 貼文IDs
+     * @param taskQueue 任務
+     * @return 是否已刪除完畢
      */
-    void deleteOldMediaCotentDataByIgUserId(List<Integer> mediaIds);
+    boolean purgeOldMediaContentData(TaskQueue taskQueue);
 
     /**
      * 批次儲存
      *
      * @param commentList 留言列表
+     * @return 實際寫入筆數，內容未變動者略過
      */
-    void batchInsertMedias(List<MediaComment> commentList);
+    int batchInsertMedias(List<MediaComment> commentList);
 
     /**
-     * 查詢留言統計資料
+     * 逐筆讀取留言詳細資料，已封存的用戶改讀冷資料表
      *
-     * @return 統計列表
+     * @param igUser   用戶
+     * @param consumer 每筆資料的處理
+     * @return 讀取筆數
      */
-    List<CommentReportDto> findCommentSummary(IgUser igUser);
-
-    /**
-     * 查詢留言詳細資料
-     *
-     * @return 列表
-     */
-    List<MediaCommentDetailDto> findCommentDetail(IgUser igUser);
+    long streamCommentDetail(IgUser igUser, Consumer<MediaCommentDetailDto> consumer);
 
     /**
      * 查詢所有留言資料對應的igUser
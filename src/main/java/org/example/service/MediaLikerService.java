@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.entity.MediaLiker;
+import org.example.entity.TaskQueue;
 
 import java.util.List;
 
@@ -10,16 +11,19 @@ import java.util.List;
  */
 public interface MediaLikerService extends BaseService<MediaLiker> {
     /**
-     * 透過用戶ID刪除舊的貼文留言資料
+     * 於背景分批刪除任務對象所有貼文的舊按讚資料，同一任務重複呼叫時沿用同一清除工作；
+     * 清除完成時處理封存等後續工作，呼叫端需於回傳 true 後記錄完成標記，不再呼叫
      *
-     * @param mediaIds 貼文IDs
+     * @param taskQueue 任務
+     * @return 是否已刪除完畢
      */
-    void deleteOldMediaLikerByIgUserId(List<Integer> mediaIds);
+    boolean purgeOldMediaLikerData(TaskQueue taskQueue);
 
     /**
-     * 批次儲存
+     * 批次儲存按讚關係，個人資料需先以 IgProfileService 寫入
      *
      * @param likerList 按讚者列表
+     * @return 新增的關係筆數
      */
-    void batchInsert(List<MediaLiker> likerList);
+    int batchInsert(List<MediaLiker> likerList);
 }
@@ -21,28 +21,23 @@ public interface MediaService extends BaseService<Media> {
     void batchInsertMedias(List<Media> mediasList);
 
     /**
-     * 透過用戶查詢貼文數量
+     * 透過用戶查詢指定世代(含)之後寫入的貼文數量
      *
-     * @param igUser 用戶
-     * @return 追蹤者數量
+     * @param igUser     用戶
+     * @param generation 爬取世代
+     * @return 貼文數量
      */
-    int countMediaByIgUser(IgUser igUser);
+    int countMediaByIgUser(IgUser igUser, int generation);
 
     /**
-     * 檢查是否存在最早的貼文日期大於輸入日期參數
+     * 檢查指定世代(含)之後寫入的貼文中，是否存在早於輸入日期參數的貼文
      *
      * @param igUser     用戶
+     * @param generation 爬取世代
      * @param cutoffDate 截止日期
      * @return 是否存在
      */
-    boolean existsEarlyMediaBeforeCutoff(IgUser igUser, LocalDateTime cutoffDate);
-
-    /**
-     * 透過用戶ID刪除舊的貼文資料
-     *
-     * @param igUserId 用戶ID
-     */
-    void deleteOldMediaDataByIgUserId(Integer igUserId);
+    boolean existsEarlyMediaBeforeCutoff(IgUser igUser, int generation, LocalDateTime cutoffDate);
 
     /**
      * 透過用戶ID及日期區間查詢貼文列表
@@ -0,0 +1,50 @@
+package org.example.service;
+
+import org.example.bean.dto.PurgeProgressDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 背景分批清除
+ * 以主鍵範圍分批刪除，每批一個短交易，於低優先權的單一執行緒依提交順序執行；
+ * 依每批耗時(與可選的複寫延遲)調整範圍大小及暫停時間
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface PurgeService {
+    /**
+     * 提交清除工作；同一 jobKey 已有未失敗的工作時沿用該工作，不重複提交
+     * 刪除範圍以提交時符合條件的最大主鍵為界，之後新寫入的資料不受影響
+     *
+     * @param jobKey    工作識別
+     * @param table     表名(主鍵欄位為 id)
+     * @param condition WHERE 條件，可參照 table 本身欄位
+     * @param args      condition 的參數
+     * @return 工作進度
+     */
+    PurgeProgressDto purge(String jobKey, String table, String condition, Object... args);
+
+    /**
+     * 於目前已提交的清除工作之後執行(不論其成功與否)，用於依清除後資料重建衍生資料
+     *
+     * @param action 執行內容
+     */
+    void runAfterQueued(Runnable action);
+
+    /**
+     * 查詢工作進度
+     *
+     * @param jobKey 工作識別
+     * @return 工作進度
+     */
+    Optional<PurgeProgressDto> findProgress(String jobKey);
+
+    /**
+     * 列出近期工作進度(依提交順序)
+     *
+     * @return 工作進度列表
+     */
+    List<PurgeProgressDto> listProgress();
+}
@@ -0,0 +1,75 @@
+package org.example.service;
+
+import org.example.bean.dto.ReportBatchDto;
+import org.example.bean.dto.ReportJobDto;
+import org.example.entity.IgUser;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 報表匯出工作
+ * 報表於背景產生並存於本機磁碟，以「用戶 + 資料版本指紋」為快取鍵；
+ * 指紋涵蓋已發布的貼文世代、最近完成的留言任務與留言者彙總，資料未變動時直接回傳已產生的檔案
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface ReportJobService {
+    /**
+     * 提交匯出工作；快取已有相同指紋的檔案時直接完成，同一快取鍵產生中時沿用該工作
+     *
+     * @param igUser 對象用戶
+     * @return 工作狀態
+     */
+    ReportJobDto submit(IgUser igUser);
+
+    /**
+     * 查詢工作狀態，可等待工作完成
+     *
+     * @param jobId      工作id
+     * @param waitMillis 最長等待時間(毫秒)，0 則立即回傳
+     * @return 工作狀態
+     */
+    ReportJobDto awaitJob(String jobId, long waitMillis);
+
+    /**
+     * 將已完成工作的檔案寫入回應
+     *
+     * @param jobId    工作id
+     * @param response 回應
+     */
+    void writeResult(String jobId, HttpServletResponse response);
+
+    /**
+     * 預先產生報表(依設定開啟)，供留言任務完成後呼叫
+     *
+     * @param igUser 對象用戶
+     */
+    void prerender(IgUser igUser);
+
+    /**
+     * 提交多個對象的匯出工作，各對象獨立產生，單一對象失敗不影響其他對象
+     *
+     * @param igUserNames 對象用戶名稱
+     * @return 批次進度
+     */
+    ReportBatchDto submitBatch(List<String> igUserNames);
+
+    /**
+     * 查詢批次進度
+     *
+     * @param batchId 批次id
+     * @return 批次進度
+     */
+    ReportBatchDto findBatch(String batchId);
+
+    /**
+     * 依完成順序將批次內的報表寫入 ZIP，最後附上各對象結果清單(manifest.csv)；不關閉輸出串流
+     *
+     * @param batchId 批次id
+     * @param out     輸出串流
+     */
+    void writeBatchZip(String batchId, OutputStream out);
+}
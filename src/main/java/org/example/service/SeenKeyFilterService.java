@@ -0,0 +1,36 @@
+package org.example.service;
+
+import org.example.entity.TaskQueue;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 任務層級的已寫入鍵過濾(Bloom filter)
+ * 續爬或重疊爬取時，同一任務已保存過的留言/按讚者在送出 JDBC 前即略過；
+ * 過濾器只存在記憶體，重啟後由資料表的唯一鍵 + ON DUPLICATE KEY UPDATE 保證不重複
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface SeenKeyFilterService {
+    /**
+     * 移除任務中已保存過的資料(及本批內重複者)
+     *
+     * @param task  任務
+     * @param name  資料名稱(指標用，如 media_comment)
+     * @param rows  資料
+     * @param keyOf 單筆資料的鍵
+     * @return 未保存過的資料
+     */
+    <T> List<T> retainUnseen(TaskQueue task, String name, List<T> rows, Function<T, String> keyOf);
+
+    /**
+     * 資料提交後標記為已保存
+     *
+     * @param task  任務
+     * @param rows  已保存的資料
+     * @param keyOf 單筆資料的鍵
+     */
+    <T> void markSeen(TaskQueue task, List<T> rows, Function<T, String> keyOf);
+}
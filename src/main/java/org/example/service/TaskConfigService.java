@@ -3,6 +3,8 @@ package org.example.service;
 import org.example.bean.enumtype.TaskTypeEnum;
 import org.example.entity.TaskConfig;
 
+import java.util.List;
+
 /**
  * @author Eric.Lee
  * Date: 2024/2/26
@@ -15,4 +17,11 @@ public interface TaskConfigService extends BaseService<TaskConfig>{
      * @return 任務設定
      */
     TaskConfig findByTaskType(TaskTypeEnum taskType);
+
+    /**
+     * 查詢 TaskTypeEnum 中所有任務類型的設定，略過資料表中程式未定義的類型
+     *
+     * @return 任務設定集合(依ID排序)
+     */
+    List<TaskConfig> findAllDefined();
 }
@@ -0,0 +1,46 @@
+package org.example.service;
+
+import org.example.entity.TaskQueue;
+
+/**
+ * 任務租約
+ * 領取任務時給予租約，執行期間定期續約(心跳)；程序中止後租約不再續約，
+ * 到期的IN_PROGRESS任務由回收排程改回PAUSED，游標與子任務指針保持原樣，下次領取從中斷處繼續
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface TaskLeaseService {
+    /**
+     * 於領取交易內給予租約
+     *
+     * @param task 已鎖定的任務
+     */
+    void grant(TaskQueue task);
+
+    /**
+     * 開始為執行中的任務定期續約，關閉回傳的租約後停止續約
+     *
+     * @param task 執行中的任務
+     * @return 租約
+     */
+    TaskLease hold(TaskQueue task);
+
+    /**
+     * 將租約已過期(或未曾給予租約)的IN_PROGRESS任務改回PAUSED
+     *
+     * @return 回收的任務數
+     */
+    int recoverExpired();
+
+    /**
+     * 執行中持有的租約
+     */
+    interface TaskLease extends AutoCloseable {
+        /**
+         * 停止續約
+         */
+        @Override
+        void close();
+    }
+}
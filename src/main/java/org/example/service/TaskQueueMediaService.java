@@ -35,4 +35,20 @@ public interface TaskQueueMediaService extends BaseService<TaskQueueMedia> {
      * @param taskQueue 任務
      */
     void deleteByTaskQueue(TaskQueue taskQueue);
+
+    /**
+     * 記錄子任務的下一頁游標
+     *
+     * @param taskQueueMedia 子任務
+     * @param nextMediaId    下一頁游標
+     */
+    void updateNextMediaId(TaskQueueMedia taskQueueMedia, String nextMediaId);
+
+    /**
+     * 記錄子任務狀態
+     *
+     * @param taskQueueMedia 子任務
+     * @param status         狀態
+     */
+    void updateStatus(TaskQueueMedia taskQueueMedia, TaskStatusEnum status);
 }
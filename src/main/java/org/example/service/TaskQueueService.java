@@ -3,10 +3,16 @@ package org.example.service;
 import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.bean.enumtype.TaskTypeEnum;
 import org.example.entity.IgUser;
+import org.example.bean.dto.TaskLaneDto;
+import org.example.entity.TaskConfig;
 import org.example.entity.TaskQueue;
+import org.example.entity.TaskQueueMedia;
 
 import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -17,28 +23,100 @@ public interface TaskQueueService extends BaseService<TaskQueue> {
     boolean checkTaskQueueExistByUserAndTaskType(IgUser targetUser, TaskTypeEnum taskType);
 
     /**
-     * 創建任務佇列並刪除舊數據(依任務類型)
+     * 創建任務佇列；GET_FOLLOWERS/GET_MEDIA 任務指定新的爬取世代，舊數據於新世代發布後清除
      *
      * @param igUser   用戶
      * @param taskType 任務類型
      * @return TaskQueue
      */
-    TaskQueue createTaskQueueAndDeleteOldData(IgUser igUser, TaskTypeEnum taskType);
+    TaskQueue createTaskQueue(IgUser igUser, TaskTypeEnum taskType);
 
     boolean checkTasksByStatusAndNeedLogin(List<TaskStatusEnum> status, boolean needLoginIg);
 
-    Optional<TaskQueue> findFirstTaskQueueByStatusAndNeedLogin(TaskStatusEnum status, boolean needLoginIg);
+    /**
+     * 領取任務類型通道中下一個可執行的任務並標記為IN_PROGRESS、給予執行租約，查詢與更新在同一交易內完成；
+     * 先依狀態優先順序，同狀態內對象用戶依 ig_user_id 輪替，避免單一對象的大量任務佔滿通道
+     *
+     * @param taskConfig     任務設定(通道)
+     * @param statusPriority 可領取的任務狀態(依優先順序)
+     * @param afterIgUserId  上次領取的對象用戶ID，此次從下一個對象開始
+     * @return 已領取的任務，無可領取任務時為空
+     */
+    Optional<TaskQueue> claimNextTask(TaskConfig taskConfig, List<TaskStatusEnum> statusPriority, int afterIgUserId);
+
+    /**
+     * 依任務設定(通道)統計待領取數、執行中數與最久等待時間
+     *
+     * @param queuedStatuses 待領取的任務狀態
+     * @return 通道統計，僅含有待領取或執行中任務的通道，以任務設定ID為鍵
+     */
+    Map<Long, TaskLaneDto> countByLane(Collection<TaskStatusEnum> queuedStatuses);
 
     List<TaskQueue> findTasksByStatus(TaskStatusEnum status);
 
+    List<TaskQueue> saveAll(List<TaskQueue> tasks);
+
     /**
-     * 更新任務狀態(採用樂觀鎖)
+     * 以單一條件式UPDATE將任務由 from 轉換為 to(比對狀態與版本號)，不載入也不寫回其他欄位；
+     * 成功時同步更新傳入實體的狀態、版本號與時間；傳入的任務須為脫離狀態(不在進行中交易的持久化內容內)
      *
-     * @param taskId    任務ID
-     * @param newStatus 新狀態
-     * @return boolean
+     * @param task 任務，使用其ID與版本號
+     * @param from 預期的目前狀態
+     * @param to   新狀態
+     * @return 是否轉換成功，false代表任務已被其他流程變更
+     * @throws org.example.exception.ApiException 狀態轉換表不允許此轉換
      */
-    TaskQueue updateTaskStatus(BigInteger taskId, TaskStatusEnum newStatus);
+    boolean transition(TaskQueue task, TaskStatusEnum from, TaskStatusEnum to);
 
-    List<TaskQueue> saveAll(List<TaskQueue> tasks);
+    /**
+     * 同 {@link #transition(TaskQueue, TaskStatusEnum, TaskStatusEnum)}，一併記錄錯誤訊息
+     *
+     * @param task         任務
+     * @param from         預期的目前狀態
+     * @param to           新狀態
+     * @param errorMessage 錯誤訊息
+     * @return 是否轉換成功
+     */
+    boolean transition(TaskQueue task, TaskStatusEnum from, TaskStatusEnum to, String errorMessage);
+
+    /**
+     * 將所有 from 狀態的任務轉換為 to 狀態
+     *
+     * @param from 目前狀態
+     * @param to   新狀態
+     * @return 轉換筆數
+     */
+    int transitionAll(TaskStatusEnum from, TaskStatusEnum to);
+
+    /**
+     * 記錄任務的下一頁游標(不經過樂觀鎖，僅更新游標欄位)
+     *
+     * @param taskId 任務ID
+     * @param nextId 下一頁游標
+     */
+    void updateNextIdForSearch(BigInteger taskId, String nextId);
+
+    /**
+     * 記錄任務目前指向的媒體子任務(不經過樂觀鎖，僅更新指向欄位)
+     *
+     * @param taskId         任務ID
+     * @param taskQueueMedia 子任務，null代表解除指向
+     */
+    void updateTaskQueueMedia(BigInteger taskId, TaskQueueMedia taskQueueMedia);
+
+    /**
+     * 記錄任務的舊資料清除已完成(持久化，程序重啟或任務被回收後不再重新清除)
+     *
+     * @param taskId 任務ID
+     */
+    void markContentPurged(BigInteger taskId);
+
+    /**
+     * 查詢對象用戶某類任務最近一次完成的時間
+     *
+     * @param igUser   對象用戶
+     * @param taskType 任務類型
+     * @return 完成時間
+     */
+    Optional<LocalDateTime> findLatestCompletedTime(IgUser igUser, TaskTypeEnum taskType);
 }
@@ -0,0 +1,18 @@
+package org.example.service;
+
+/**
+ * 任務執行單元，將領取、保存、結束等資料庫操作切成各自獨立的短交易，
+ * 避免連線跨越IG請求與請求間的等待
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public interface TaskUnitService {
+    /**
+     * 於新的交易中執行一個單元並記錄耗時，單元內不可進行遠端請求或等待
+     *
+     * @param unit 單元名稱，作為指標名稱的一部分
+     * @param work 單元內容
+     */
+    void runInTransaction(String unit, Runnable work);
+}
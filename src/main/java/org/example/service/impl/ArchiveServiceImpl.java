@@ -0,0 +1,142 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.config.DataSourceRoute;
+import org.example.exception.ApiException;
+import org.example.exception.SysCode;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.ArchiveService;
+import org.example.service.PurgeService;
+import org.example.utils.TransactionUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 封存以 INSERT ... SELECT 於同一交易複製資料並寫入 cold_archive，讀取端於提交當下即改讀冷表；
+ * 熱表資料於提交後交由 PurgeService 分批刪除
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("archiveService")
+@DataSourceRoute(DataSourceWorkloadEnum.INGEST)
+public class ArchiveServiceImpl implements ArchiveService {
+    private static final String ARCHIVE_SUFFIX = "_archive";
+    private static final DateTimeFormatter JOB_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // 冷表欄位與熱表相同，明確列出避免熱表新增欄位後 INSERT ... SELECT 錯位
+    private static final Map<String, String> COLUMNS = Map.of(
+            "media_comment", "id, ig_user_id, media_id, text, commenter_user_id, comment_pk, content_type, status, comment_like_count, content_hash",
+            "media_liker", "id, ig_user_id, media_id, liker_pk");
+    private static final List<String> ACTIVE_STATUSES = List.of(TaskStatusEnum.PENDING.name(), TaskStatusEnum.IN_PROGRESS.name(),
+            TaskStatusEnum.PAUSED.name(), TaskStatusEnum.DAILY_PENDING.name(), TaskStatusEnum.DAILY_PAUSED.name());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PurgeService purgeService;
+    private final CrawlerMetrics crawlerMetrics;
+    private final int inactiveDays;
+    private final int maxTargetsPerRun;
+
+    public ArchiveServiceImpl(JdbcTemplate jdbcTemplate, PurgeService purgeService, CrawlerMetrics crawlerMetrics,
+                              @Value("${archive.inactiveDays:90}") int inactiveDays,
+                              @Value("${archive.maxTargetsPerRun:10}") int maxTargetsPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeService = purgeService;
+        this.crawlerMetrics = crawlerMetrics;
+        this.inactiveDays = inactiveDays;
+        this.maxTargetsPerRun = maxTargetsPerRun;
+    }
+
+    @Override
+    public List<String> listArchivableTables() {
+        return COLUMNS.keySet().stream().sorted().toList();
+    }
+
+    @Override
+    public List<Integer> findInactiveTargets(String table) {
+        columnsOf(table);
+        String statuses = String.join(", ", Collections.nCopies(ACTIVE_STATUSES.size(), "?"));
+        String sql = "SELECT u.id FROM ig_user u " +
+                "WHERE EXISTS (SELECT 1 FROM " + table + " x WHERE x.ig_user_id = u.id) " +
+                "AND NOT EXISTS (SELECT 1 FROM cold_archive ca WHERE ca.ig_user_id = u.id AND ca.table_name = ?) " +
+                "AND NOT EXISTS (SELECT 1 FROM task_queue t WHERE t.ig_user_id = u.id " +
+                "AND (t.status IN (" + statuses + ") OR COALESCE(t.end_time, t.modify_time, t.submit_time) >= ?)) " +
+                "ORDER BY u.id LIMIT ?";
+        List<Object> args = new ArrayList<>();
+        args.add(table);
+        args.addAll(ACTIVE_STATUSES);
+        args.add(LocalDateTime.now().minusDays(inactiveDays));
+        args.add(maxTargetsPerRun);
+        return jdbcTemplate.queryForList(sql, Integer.class, args.toArray());
+    }
+
+    @Override
+    @Transactional
+    public int archive(int igUserId, String table) {
+        String columns = columnsOf(table);
+        LocalDateTime archivedTime = LocalDateTime.now().withNano(0);
+        long start = System.nanoTime();
+        int rows = jdbcTemplate.update("INSERT INTO " + table + ARCHIVE_SUFFIX + " (" + columns + ") SELECT " + columns +
+                " FROM " + table + " WHERE ig_user_id = ?", igUserId);
+        jdbcTemplate.update("INSERT INTO cold_archive (ig_user_id, table_name, archived_rows, archived_time) VALUES (?, ?, ?, ?)",
+                igUserId, table, rows, archivedTime);
+        long elapsedNanos = System.nanoTime() - start;
+        crawlerMetrics.record("archive." + table, rows, elapsedNanos);
+        log.info("用戶:{} ,{} 封存{}筆, 耗時{}ms", igUserId, table, rows, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        // 提交後冷表已完整，才刪除熱表資料
+        String jobKey = "archive:" + table + ":user:" + igUserId + ":" + archivedTime.format(JOB_TIME);
+        TransactionUtil.runAfterCommit(() -> purgeService.purge(jobKey, table, "ig_user_id = ?", igUserId));
+        return rows;
+    }
+
+    @Override
+    public boolean isArchived(int igUserId, String table) {
+        return findArchivedTime(igUserId, table).isPresent();
+    }
+
+    @Override
+    public void discard(int igUserId, String table) {
+        columnsOf(table);
+        Optional<LocalDateTime> archivedTime = findArchivedTime(igUserId, table);
+        if (archivedTime.isEmpty()) return;
+        int deleted = jdbcTemplate.update("DELETE FROM cold_archive WHERE ig_user_id = ? AND table_name = ?", igUserId, table);
+        if (deleted == 0) return;
+        String archiveTable = table + ARCHIVE_SUFFIX;
+        String jobKey = archiveTable + ":user:" + igUserId + ":" + archivedTime.get().format(JOB_TIME);
+        purgeService.purge(jobKey, archiveTable, "ig_user_id = ?", igUserId);
+        log.info("用戶:{} ,重新爬取{}，捨棄封存資料", igUserId, table);
+    }
+
+    @Override
+    public List<String> findArchivedUserNames(String table) {
+        return jdbcTemplate.queryForList("SELECT u.user_name FROM cold_archive ca JOIN ig_user u ON u.id = ca.ig_user_id " +
+                "WHERE ca.table_name = ?", String.class, table);
+    }
+
+    // private
+
+    private Optional<LocalDateTime> findArchivedTime(int igUserId, String table) {
+        return jdbcTemplate.queryForList("SELECT archived_time FROM cold_archive WHERE ig_user_id = ? AND table_name = ?",
+                LocalDateTime.class, igUserId, table).stream().findFirst();
+    }
+
+    /**
+     * 表名會組入SQL，只接受可封存的表
+     */
+    private static String columnsOf(String table) {
+        String columns = COLUMNS.get(table);
+        if (columns == null) {
+            throw new ApiException(SysCode.ARCHIVE_TABLE_NOT_SUPPORTED);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.bean.enumtype.ExportDatasetEnum;
+import org.example.bean.enumtype.ExportFormatEnum;
+import org.example.config.DataSourceRoute;
+import org.example.dao.ExportCursorDao;
+import org.example.entity.IgUser;
+import org.example.exception.ApiException;
+import org.example.exception.SysCode;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.ArchiveService;
+import org.example.service.BulkExportService;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 游標回呼內直接寫出，寫出失敗(如客戶端中斷)以 UncheckedIOException 終止查詢並釋放連線
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("bulkExportService")
+@DataSourceRoute(value = DataSourceWorkloadEnum.REPORTING, readOnly = true)
+public class BulkExportServiceImpl implements BulkExportService {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ExportCursorDao exportCursorDao;
+    private final ArchiveService archiveService;
+    private final ObjectMapper objectMapper;
+    private final CrawlerMetrics crawlerMetrics;
+
+    public BulkExportServiceImpl(ExportCursorDao exportCursorDao, ArchiveService archiveService, ObjectMapper objectMapper, CrawlerMetrics crawlerMetrics) {
+        this.exportCursorDao = exportCursorDao;
+        this.archiveService = archiveService;
+        this.objectMapper = objectMapper;
+        this.crawlerMetrics = crawlerMetrics;
+    }
+
+    @Override
+    public long export(IgUser igUser, ExportDatasetEnum dataset, ExportFormatEnum format, long afterId, boolean gzip, OutputStream out) {
+        boolean archived = dataset.getArchivableTable() != null && archiveService.isArchived(igUser.getId(), dataset.getArchivableTable());
+        long start = System.nanoTime();
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : new BufferedOutputStream(out, BUFFER_BYTES);
+            RowWriter writer = format == ExportFormatEnum.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(objectMapper, target);
+            long rows = exportCursorDao.streamRows(dataset, igUser.getId(), archived, afterId,
+                    writer::header, writer::row);
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+            target.flush();
+            crawlerMetrics.record("export." + dataset.getCode(), rows, System.nanoTime() - start);
+            log.info("用戶:{} 匯出{}:{}筆, 格式:{}, afterId:{}", igUser.getUserName(), dataset.getCode(), rows, format.getCode(), afterId);
+            return rows;
+        } catch (IOException | UncheckedIOException e) {
+            // 多為客戶端中斷下載，已輸出的部分可依最後一列的 id 續傳
+            crawlerMetrics.increment("export." + dataset.getCode() + ".aborted", 1);
+            log.warn("用戶:{} 匯出{}中斷, afterId:{}, 原因:{}", igUser.getUserName(), dataset.getCode(), afterId, e.getMessage());
+            throw new ApiException(SysCode.EXCEL_OUTPUT_FAILED);
+        }
+    }
+
+    //private
+
+    private interface RowWriter {
+        void header(String[] labels);
+
+        void row(Object[] values);
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * 每列一個 JSON 物件，以換行分隔
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] labels;
+
+        private NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            // 輸出串流由呼叫端管理
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void header(String[] labels) {
+            this.labels = labels;
+        }
+
+        @Override
+        public void row(Object[] values) {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < values.length; i++) {
+                    generator.writeObjectField(labels[i], values[i]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * RFC 4180: 含逗號、雙引號或換行的欄位以雙引號包覆，內部雙引號重複一次；null 輸出為空欄位
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void header(String[] labels) {
+            row(labels);
+        }
+
+        @Override
+        public void row(Object[] values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    if (values[i] != null) {
+                        writeField(values[i].toString());
+                    }
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
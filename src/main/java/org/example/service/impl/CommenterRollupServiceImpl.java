@@ -0,0 +1,77 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.CommentReportDto;
+import org.example.bean.dto.CommenterRollupCheckDto;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.config.DataSourceRoute;
+import org.example.dao.CommenterRollupDao;
+import org.example.entity.IgUser;
+import org.example.service.ArchiveService;
+import org.example.service.CommenterRollupService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("commenterRollupService")
+public class CommenterRollupServiceImpl implements CommenterRollupService {
+    private static final String TABLE = "media_comment";
+
+    private final CommenterRollupDao commenterRollupDao;
+    private final ArchiveService archiveService;
+
+    public CommenterRollupServiceImpl(CommenterRollupDao commenterRollupDao, ArchiveService archiveService) {
+        this.commenterRollupDao = commenterRollupDao;
+        this.archiveService = archiveService;
+    }
+
+    @Override
+    public List<CommentReportDto> findCommentSummary(IgUser igUser) {
+        // 封存只搬移留言，彙總不變，不需區分冷熱表
+        return commenterRollupDao.findCommentSummary(igUser.getId());
+    }
+
+    @Override
+    public long sumCommentCount(IgUser igUser) {
+        return commenterRollupDao.sumCommentCount(igUser.getId());
+    }
+
+    @Override
+    @DataSourceRoute(DataSourceWorkloadEnum.INGEST)
+    @Transactional
+    public void rebuild(int igUserId) {
+        String sourceTable = sourceTable(igUserId);
+        int affected = commenterRollupDao.rebuild(igUserId, sourceTable);
+        log.info("用戶:{} ,留言者彙總已依{}重建, 影響筆數:{}", igUserId, sourceTable, affected);
+    }
+
+    @Override
+    @DataSourceRoute(DataSourceWorkloadEnum.INGEST)
+    @Transactional
+    public CommenterRollupCheckDto check(IgUser igUser, boolean rebuild) {
+        String sourceTable = sourceTable(igUser.getId());
+        int mismatches = commenterRollupDao.countMismatches(igUser.getId(), sourceTable);
+        if (rebuild) {
+            commenterRollupDao.rebuild(igUser.getId(), sourceTable);
+        }
+        log.info("用戶:{} ,留言者彙總與{}不一致筆數:{}, 重建:{}", igUser.getUserName(), sourceTable, mismatches, rebuild);
+        return CommenterRollupCheckDto.builder()
+                .userName(igUser.getUserName())
+                .sourceTable(sourceTable)
+                .mismatchedRows(mismatches)
+                .rebuilt(rebuild)
+                .build();
+    }
+
+    //private
+
+    private String sourceTable(int igUserId) {
+        return archiveService.isArchived(igUserId, TABLE) ? TABLE + "_archive" : TABLE;
+    }
+}
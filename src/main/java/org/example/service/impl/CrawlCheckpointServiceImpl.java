@@ -0,0 +1,103 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.config.DataSourceRoute;
+import org.example.entity.*;
+import org.example.service.*;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 每頁資料與游標於獨立交易(REQUIRES_NEW)內提交，不受外層任務交易回滾影響
+ * 追蹤者、留言者、按讚者的個人資料每頁先寫入 ig_profile，再寫入僅含 pk 的關係
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("crawlCheckpointService")
+@DataSourceRoute(DataSourceWorkloadEnum.INGEST)
+public class CrawlCheckpointServiceImpl implements CrawlCheckpointService {
+    private final IgProfileService igProfileService;
+    private final FollowersService followersService;
+    private final MediaService mediaService;
+    private final MediaCommentService mediaCommentService;
+    private final MediaLikerService mediaLikerService;
+    private final TaskQueueService taskQueueService;
+    private final TaskQueueMediaService taskQueueMediaService;
+
+    public CrawlCheckpointServiceImpl(IgProfileService igProfileService, FollowersService followersService, MediaService mediaService, MediaCommentService mediaCommentService, MediaLikerService mediaLikerService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService) {
+        this.igProfileService = igProfileService;
+        this.followersService = followersService;
+        this.mediaService = mediaService;
+        this.mediaCommentService = mediaCommentService;
+        this.mediaLikerService = mediaLikerService;
+        this.taskQueueService = taskQueueService;
+        this.taskQueueMediaService = taskQueueMediaService;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int saveFollowersPage(TaskQueue task, List<Followers> followers, String nextMaxId) {
+        List<IgProfile> profiles = profilesOf(followers, Followers::getProfile);
+        int written = igProfileService.batchInsertProfiles(profiles);
+        followersService.batchInsertFollowers(followers);
+        taskQueueService.updateNextIdForSearch(task.getId(), nextMaxId);
+        log.info("任務:{} ,已保存追蹤者{}筆(個人資料寫入{}筆), 游標:{}", task.getId(), followers.size(), written, nextMaxId);
+        return distinctCount(profiles) - written;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int saveMediaPage(TaskQueue task, List<Media> medias, String nextMaxId) {
+        mediaService.batchInsertMedias(medias);
+        taskQueueService.updateNextIdForSearch(task.getId(), nextMaxId);
+        log.info("任務:{} ,已保存貼文{}筆, 游標:{}", task.getId(), medias.size(), nextMaxId);
+        // 貼文的互動數每次皆可能變動，不做內容比對
+        return 0;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int saveCommentsPage(TaskQueue task, List<MediaComment> comments, String nextMaxId) {
+        List<IgProfile> profiles = profilesOf(comments, MediaComment::getCommenter);
+        int profilesWritten = igProfileService.batchInsertProfiles(profiles);
+        int written = mediaCommentService.batchInsertMedias(comments);
+        taskQueueMediaService.updateNextMediaId(task.getTaskQueueMediaId(), nextMaxId);
+        log.info("任務:{} ,已保存留言{}筆(寫入{}筆), 游標:{}", task.getId(), comments.size(), written, nextMaxId);
+        return distinctCount(profiles) - profilesWritten + comments.size() - written;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int saveLikersPage(TaskQueue task, List<MediaLiker> likers, String nextMaxId) {
+        List<IgProfile> profiles = profilesOf(likers, MediaLiker::getLiker);
+        int written = igProfileService.batchInsertProfiles(profiles);
+        int added = mediaLikerService.batchInsert(likers);
+        taskQueueMediaService.updateNextMediaId(task.getTaskQueueMediaId(), nextMaxId);
+        log.info("任務:{} ,已保存按讚者{}筆(個人資料寫入{}筆, 新增關係{}筆), 游標:{}", task.getId(), likers.size(), written, added, nextMaxId);
+        return distinctCount(profiles) - written;
+    }
+
+    // private
+
+    /**
+     * 取出關係所引用的個人資料，須於寫入關係前寫入 ig_profile
+     */
+    private static <T> List<IgProfile> profilesOf(List<T> rows, Function<T, IgProfile> profileOf) {
+        return rows.stream().map(profileOf).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * 個人資料依 pk 去重後的筆數，與 batchInsertProfiles 比對內容前的筆數相同
+     */
+    private static int distinctCount(List<IgProfile> profiles) {
+        return (int) profiles.stream().map(IgProfile::getPk).distinct().count();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.dao.IgUserDao;
+import org.example.dao.TaskQueueDao;
+import org.example.entity.IgUser;
+import org.example.entity.TaskQueue;
+import org.example.exception.ApiException;
+import org.example.exception.SysCode;
+import org.example.service.CommenterRollupService;
+import org.example.service.CrawlGenerationService;
+import org.example.service.PurgeService;
+import org.example.utils.TransactionUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 世代由 ig_user 上的計數器配置，每個世代號碼只使用一次(失敗未發布的世代不會被重試沿用)；
+ * 世代切換以 ig_user 上的條件更新完成(只往前)，舊世代交由 PurgeService 於背景分批刪除
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("crawlGenerationService")
+public class CrawlGenerationServiceImpl implements CrawlGenerationService {
+    // 已被取代世代的追蹤者，略過仍被追蹤者明細任務引用者
+    private static final String SUPERSEDED_FOLLOWERS = "ig_user_id = ? AND last_seen_generation < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM task_queue_followers_detail d WHERE d.follower_id = followers.id)";
+    // 已被取代世代的貼文，略過仍被留言/按讚任務引用者
+    private static final String SUPERSEDED_MEDIA = "ig_user_id = ? AND last_seen_generation < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM task_queue_media tqm WHERE tqm.media_id = media.id)";
+    // 先以 ig_user_id 限定分區
+    private static final String OF_SUPERSEDED_MEDIA = "ig_user_id = ? AND media_id IN (SELECT m.id FROM media m WHERE m.ig_user_id = ? AND m.last_seen_generation < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM task_queue_media tqm WHERE tqm.media_id = m.id))";
+
+    private final IgUserDao igUserDao;
+    private final TaskQueueDao taskQueueDao;
+    private final PurgeService purgeService;
+    private final CommenterRollupService commenterRollupService;
+
+    public CrawlGenerationServiceImpl(IgUserDao igUserDao, TaskQueueDao taskQueueDao, PurgeService purgeService, CommenterRollupService commenterRollupService) {
+        this.igUserDao = igUserDao;
+        this.taskQueueDao = taskQueueDao;
+        this.purgeService = purgeService;
+        this.commenterRollupService = commenterRollupService;
+    }
+
+    @Override
+    @Transactional
+    public int nextGeneration(IgUser igUser, TaskTypeEnum taskType) {
+        // 遞增後於同一交易讀回，列鎖保證並行配置不會取得相同世代
+        return switch (taskType) {
+            case GET_FOLLOWERS -> {
+                igUserDao.incrementFollowerGeneration(igUser.getId());
+                yield igUserDao.findNextFollowerGenerationById(igUser.getId());
+            }
+            case GET_MEDIA -> {
+                igUserDao.incrementMediaGeneration(igUser.getId());
+                yield igUserDao.findNextMediaGenerationById(igUser.getId());
+            }
+            default -> throw new ApiException(SysCode.TASK_TYPE_NOT_FOUND);
+        };
+    }
+
+    @Override
+    @Transactional
+    public int ensureGeneration(TaskQueue task) {
+        if (task.getCrawlGeneration() == null) {
+            task.setCrawlGeneration(nextGeneration(task.getIgUser(), task.getTaskConfig().getTaskType()));
+            // 立即寫入世代欄位，不隨任務實體儲存，暫停後續爬時沿用同一世代
+            taskQueueDao.updateCrawlGeneration(task.getId(), task.getCrawlGeneration());
+            log.info("任務:{} ,未指定爬取世代，補上世代:{}", task.getId(), task.getCrawlGeneration());
+        }
+        return task.getCrawlGeneration();
+    }
+
+    @Override
+    @Transactional
+    public void publish(TaskQueue task) {
+        int igUserId = task.getIgUser().getId();
+        TaskTypeEnum taskType = task.getTaskConfig().getTaskType();
+        int generation = ensureGeneration(task);
+        int updated = switch (taskType) {
+            case GET_FOLLOWERS -> igUserDao.publishFollowerGeneration(igUserId, generation);
+            case GET_MEDIA -> igUserDao.publishMediaGeneration(igUserId, generation);
+            default -> throw new ApiException(SysCode.TASK_TYPE_NOT_FOUND);
+        };
+        if (updated == 0) {
+            log.warn("任務:{} ,世代:{} 未發布，已有相同或更新的世代", task.getId(), generation);
+            return;
+        }
+        log.info("任務:{} ,已發布{}世代:{}", task.getId(), taskType, generation);
+        // 交易提交後才清除，回滾時讀取端仍使用舊世代
+        TransactionUtil.runAfterCommit(() -> purgeSuperseded(igUserId, taskType, generation));
+    }
+
+    // private
+
+    /**
+     * 提交舊世代清除工作；清除依提交順序執行，貼文的留言與按讚者參照貼文，需先刪除
+     */
+    private void purgeSuperseded(int igUserId, TaskTypeEnum taskType, int generation) {
+        String jobKey = ":user:" + igUserId + ":generation:" + generation;
+        if (taskType == TaskTypeEnum.GET_FOLLOWERS) {
+            purgeService.purge("followers" + jobKey, "followers", SUPERSEDED_FOLLOWERS, igUserId, generation);
+            return;
+        }
+        purgeService.purge("media_comment" + jobKey, "media_comment", OF_SUPERSEDED_MEDIA, igUserId, igUserId, generation);
+        purgeService.purge("media_liker" + jobKey, "media_liker", OF_SUPERSEDED_MEDIA, igUserId, igUserId, generation);
+        purgeService.purge("media" + jobKey, "media", SUPERSEDED_MEDIA, igUserId, generation);
+        // 舊世代貼文的留言刪除後，重建留言者彙總
+        purgeService.runAfterQueued(() -> commenterRollupService.rebuild(igUserId));
+    }
+}
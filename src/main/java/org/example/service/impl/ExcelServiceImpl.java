@@ -3,26 +3,30 @@ package org.example.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.example.bean.dto.CommentReportDto;
-import org.example.bean.dto.MediaCommentDetailDto;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.config.DataSourceRoute;
 import org.example.entity.IgUser;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
+import org.example.service.CommenterRollupService;
 import org.example.service.ExcelService;
 import org.example.service.MediaCommentService;
 import org.example.service.MediaService;
+import org.example.utils.ColumnWidthEstimator;
 import org.example.utils.ExcelUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.servlet.http.HttpServletResponse;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Eric.Lee
@@ -30,82 +34,122 @@ import java.util.Map;
  */
 @Service("excelService")
 @Slf4j
+@DataSourceRoute(value = DataSourceWorkloadEnum.REPORTING, readOnly = true)
 public class ExcelServiceImpl implements ExcelService {
+    private static final short INDEX_CELL_FONT_SIZE = 15;
     private final MediaCommentService mediaCommentService;
     private final MediaService mediaService;
+    private final CommenterRollupService commenterRollupService;
+    private final int rowWindow;
 
-    public ExcelServiceImpl(MediaCommentService mediaCommentService, MediaService mediaService) {
+    public ExcelServiceImpl(MediaCommentService mediaCommentService, MediaService mediaService, CommenterRollupService commenterRollupService,
+                            @Value("${excel.export.rowWindow:500}") int rowWindow) {
         this.mediaCommentService = mediaCommentService;
         this.mediaService = mediaService;
+        this.commenterRollupService = commenterRollupService;
+        this.rowWindow = rowWindow;
     }
 
     @Override
-    public void createExcelForIgUser(IgUser igUser, HttpServletResponse response) {
+    public void writeExcelForIgUser(IgUser igUser, OutputStream out) {
         Map<String, Long> hashTagMap = mediaService.analyzeHashtagsAndSort(igUser);
 
+        // 串流工作簿: 超出列窗口的列寫入壓縮暫存檔，明細列數不影響堆積用量
+        SXSSFWorkbook workbook = ExcelUtils.createStreamingWorkbook(rowWindow);
         try {
-            Workbook workbook = new XSSFWorkbook();
             // 調用私有方法來添加工作表等
             setSheetFirst(workbook, igUser, hashTagMap);
             setSheetSecond(workbook, igUser);
             setSheetThird(workbook, igUser);
             setSheetFourth(workbook);
 
-            String fileName = URLEncoder.encode(igUser.getUserName(), StandardCharsets.UTF_8) + ".xlsx";
-            response.setContentType("application/vnd.ms-excel");
-            response.setHeader("Content-Disposition", "attachment;filename=" + fileName);
-            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-            workbook.write(response.getOutputStream());
+            workbook.write(out);
             workbook.close();
         } catch (Exception e) {
             log.error("export excel error", e);
             throw new ApiException(SysCode.EXCEL_OUTPUT_FAILED);
+        } finally {
+            workbook.dispose();
         }
     }
 
     //private
 
-    private void setSheetFirst(Workbook workbook, IgUser igUser, Map<String, Long> hashTagMap) {
+    /**
+     * 單一工作表使用的表頭與單元格樣式，串流寫入時須於建立列之前準備好
+     */
+    private record SheetStyle(CellStyle header, CellStyle cell) {
+    }
+
+    private void setSheetFirst(SXSSFWorkbook workbook, IgUser igUser, Map<String, Long> hashTagMap) {
         Sheet sheet = workbook.createSheet("目錄Index");
-        // 填充數據到工作表
-        fillUserData(sheet, igUser, hashTagMap);
-        // 設置合併單元格和樣式
-        setCellStylesAndMergeCellsForCommentIndex(sheet);
+        // 寫入時同步估算欄寬
+        ColumnWidthEstimator widthEstimator = new ColumnWidthEstimator(2, INDEX_CELL_FONT_SIZE);
+        // 設置樣式後填充數據到工作表
+        fillUserData(sheet, igUser, hashTagMap, createStylesForCommentIndex(workbook), widthEstimator);
+        // 調整列寬
+        widthEstimator.applyTo(sheet);
     }
 
-    private void setSheetSecond(Workbook workbook, IgUser igUser) {
+    private void setSheetSecond(SXSSFWorkbook workbook, IgUser igUser) {
         Sheet sheet = workbook.createSheet("統計資料CountData");
-        List<CommentReportDto> commentIntegration = mediaCommentService.findCommentSummary(igUser);
-        // 填充數據到工作表
-        fillUserData(sheet, commentIntegration);
-        // 設單元格樣式
-        setCellStylesAndMergeCellsForCommentIntegration(sheet);
+        List<CommentReportDto> commentIntegration = commenterRollupService.findCommentSummary(igUser);
+        // 設置樣式後填充數據到工作表
+        fillUserData(sheet, commentIntegration, createStylesForCommentDetail(workbook));
+        // 調整列寬
+        ExcelUtils.setCustomColumnWidth(sheet, Map.of(
+                0, 40,
+                1, 60,
+                2, 60,
+                3, 60
+        ));
     }
 
-    private void setSheetThird(Workbook workbook, IgUser igUser) {
+    private void setSheetThird(SXSSFWorkbook workbook, IgUser igUser) {
         Sheet sheet = workbook.createSheet("明細資料DetailData");
-        List<MediaCommentDetailDto> commentDetail = mediaCommentService.findCommentDetail(igUser);
-        // 填充數據到工作表
-        fillDetailData(sheet, commentDetail);
-        // 設單元格樣式
-        setCellStylesForCommentDetail(sheet);
+        // 設置樣式後填充數據到工作表
+        fillDetailData(sheet, igUser, createStylesForCommentDetail(workbook));
+        // 調整列寬
+        ExcelUtils.setCustomColumnWidth(sheet, Map.of(
+                0, 40,
+                1, 30,
+                2, 40,
+                3, 40,
+                4, 30,
+                5, 16,
+                6, 16,
+                7, 30,
+                8, 20
+        ));
     }
 
-    private void setSheetFourth(Workbook workbook) {
+    private void setSheetFourth(SXSSFWorkbook workbook) {
         Sheet sheet = workbook.createSheet("私訊列表");
-        // 填充數據到工作表
-        fillPromoteTitle(sheet);
-        // 設單元格樣式
-        setCellStylesForPromoteTitle(sheet);
+        // 取得自訂顏色
+        XSSFColor customColor = ExcelUtils.getCustomColor((byte) 241, (byte) 169, (byte) 131);
+        // 填充表頭到工作表
+        String[] commentHeaders = {"帳號", "帳號全名", "英文訊息", "中文訊息", "日文訊息", "俄文訊息", "影片網址"};
+        ExcelUtils.createHeaderRow(sheet, commentHeaders, ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 15));
+        // 調整列寬
+        ExcelUtils.setCustomColumnWidth(sheet, Map.of(
+                0, 40,
+                1, 30,
+                2, 40,
+                3, 40,
+                4, 30,
+                5, 16,
+                6, 16
+        ));
     }
 
-    private void fillUserData(Sheet sheet, IgUser igUser, Map<String, Long> hashTagMap) {
+    private void fillUserData(Sheet sheet, IgUser igUser, Map<String, Long> hashTagMap, SheetStyle style, ColumnWidthEstimator widthEstimator) {
         // 創建表頭行
         Row headerRow = sheet.createRow(0);
 
         // 創建表頭單元格
         Cell headerCell = headerRow.createCell(0);
         headerCell.setCellValue("Easy Insta"); // 設定你的表頭內容
+        headerCell.setCellStyle(style.header());
 
         // 合併A0和B0
         sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 1));
@@ -125,153 +169,57 @@ public class ExcelServiceImpl implements ExcelService {
 
         // 創建並填充資料行
         for (int i = 0; i < data.length; i++) {
-            Row row = sheet.createRow(rowNum++);
-            Cell cell = row.createCell(0);
-            cell.setCellValue(headers[i]);
-            cell = row.createCell(1);
-            cell.setCellValue(data[i]);
+            List<Object> values = Arrays.asList(headers[i], data[i]);
+            ExcelUtils.createRowAndFillData(sheet, rowNum++, values, style.cell());
+            widthEstimator.accept(values);
         }
     }
 
-    private void fillUserData(Sheet sheet, List<CommentReportDto> commentIntegration) {
-        Row commentHeaderRow = sheet.createRow(0);
+    private void fillUserData(Sheet sheet, List<CommentReportDto> commentIntegration, SheetStyle style) {
         String[] commentHeaders = {"帳號", "帳號全名", "留言次數", "留言被按讚數"};
-        for (int i = 0; i < commentHeaders.length; i++) {
-            Cell headerCell = commentHeaderRow.createCell(i);
-            headerCell.setCellValue(commentHeaders[i]);
-        }
+        ExcelUtils.createHeaderRow(sheet, commentHeaders, style.header());
 
         // 填充評論整合數據
         int rowNum = 1;
         for (CommentReportDto comment : commentIntegration) {
-            Row row = sheet.createRow(rowNum++);
-            Cell cell = row.createCell(0);
-            cell.setCellValue(comment.getUserName());
-
-            cell = row.createCell(1);
-            cell.setCellValue(comment.getUserFullName());
-
-            cell = row.createCell(2);
-            cell.setCellValue(comment.getCommentCount());
-
-            cell = row.createCell(3);
-            cell.setCellValue(comment.getLikeCount());
+            ExcelUtils.createRowAndFillData(sheet, rowNum++, Arrays.asList(
+                    comment.getUserName(),
+                    comment.getUserFullName(),
+                    comment.getCommentCount(),
+                    comment.getLikeCount()
+            ), style.cell());
         }
     }
 
-    private void fillDetailData(Sheet sheet, List<MediaCommentDetailDto> commentDetail) {
-        Row commentHeaderRow = sheet.createRow(0);
+    private void fillDetailData(Sheet sheet, IgUser igUser, SheetStyle style) {
         String[] commentHeaders = {"留言貼文", "留言文章id", "留言帳號", "帳號全名", "留言內容", "公開帳號", "Meta驗證", "當下是否有發限動", "留言被按讚數"};
-        for (int i = 0; i < commentHeaders.length; i++) {
-            Cell headerCell = commentHeaderRow.createCell(i);
-            headerCell.setCellValue(commentHeaders[i]);
-        }
-
-        // 填充評論數據
-        int rowNum = 1;
-        for (MediaCommentDetailDto comment : commentDetail) {
-            List<Object> values = comment.toList();
-            ExcelUtils.createRowAndFillData(sheet, rowNum++, values);
-        }
-    }
+        ExcelUtils.createHeaderRow(sheet, commentHeaders, style.header());
 
-    private void fillPromoteTitle(Sheet sheet) {
-        Row commentHeaderRow = sheet.createRow(0);
-        String[] commentHeaders = {"帳號", "帳號全名", "英文訊息", "中文訊息", "日文訊息", "俄文訊息", "影片網址"};
-        for (int i = 0; i < commentHeaders.length; i++) {
-            Cell headerCell = commentHeaderRow.createCell(i);
-            headerCell.setCellValue(commentHeaders[i]);
-        }
+        // 評論數據由游標逐筆寫入，不先收集成列表
+        AtomicInteger rowNum = new AtomicInteger(1);
+        long count = mediaCommentService.streamCommentDetail(igUser,
+                comment -> ExcelUtils.createRowAndFillData(sheet, rowNum.getAndIncrement(), comment.toList(), style.cell()));
+        log.info("用戶:{} 留言明細已寫出{}筆", igUser.getUserName(), count);
     }
 
-
-    private void setCellStylesAndMergeCellsForCommentIndex(Sheet sheet) {
-        // 取得工作簿
-        Workbook workbook = sheet.getWorkbook();
+    private SheetStyle createStylesForCommentIndex(Workbook workbook) {
         // 取得自訂顏色
         XSSFColor customColor = ExcelUtils.getCustomColor((byte) 133, (byte) 223, (byte) 255);
 
         // 建立表頭樣式和儲存格樣式
-        CellStyle headerStyle = ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 24);
-        CellStyle cellStyle = ExcelUtils.createCellStyle(workbook, customColor, (short) 15, HorizontalAlignment.RIGHT);
-        // 應用程式樣式到工作表
-        ExcelUtils.applyStylesToSheet(sheet, headerStyle, cellStyle);
-        // 調整列寬
-        ExcelUtils.setAutoColumnWidth(sheet);
-        ExcelUtils.setAutoColumnWidthForChinese(sheet);
-    }
-
-    private void setCellStylesAndMergeCellsForCommentIntegration(Sheet sheet) {
-        // 取得工作簿
-        Workbook workbook = sheet.getWorkbook();
-        // 取得自訂顏色
-        XSSFColor customColor = ExcelUtils.getCustomColor((byte) 241, (byte) 169, (byte) 131);
-        XSSFColor whiteColor = ExcelUtils.getCustomColor((byte) 255, (byte) 255, (byte) 255);
-
-        // 建立表頭樣式和儲存格樣式
-        CellStyle headerStyle = ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 15);
-        CellStyle cellStyle = ExcelUtils.createCellStyle(workbook, whiteColor, (short) 13, HorizontalAlignment.LEFT);
-        // 應用程式樣式到工作表
-        ExcelUtils.applyStylesToSheet(sheet, headerStyle, cellStyle);
-
-        // 調整列寬
-        Map<Integer, Integer> columnWidths = Map.of(
-                0, 40,
-                1, 60,
-                2, 60,
-                3, 60
-        );
-        ExcelUtils.setCustomColumnWidth(sheet, columnWidths);
+        return new SheetStyle(
+                ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 24),
+                ExcelUtils.createCellStyle(workbook, customColor, INDEX_CELL_FONT_SIZE, HorizontalAlignment.RIGHT));
     }
 
-    private void setCellStylesForCommentDetail(Sheet sheet) {
-        // 取得工作簿
-        Workbook workbook = sheet.getWorkbook();
+    private SheetStyle createStylesForCommentDetail(Workbook workbook) {
         // 取得自訂顏色
         XSSFColor customColor = ExcelUtils.getCustomColor((byte) 241, (byte) 169, (byte) 131);
         XSSFColor whiteColor = ExcelUtils.getCustomColor((byte) 255, (byte) 255, (byte) 255);
 
         // 建立表頭樣式和儲存格樣式
-        CellStyle headerStyle = ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 15);
-        CellStyle cellStyle = ExcelUtils.createCellStyle(workbook, whiteColor, (short) 13, HorizontalAlignment.LEFT);
-        // 應用程式樣式到工作表
-        ExcelUtils.applyStylesToSheet(sheet, headerStyle, cellStyle);
-
-        // 調整列寬
-        Map<Integer, Integer> columnWidths = Map.of(
-                0, 40,
-                1, 30,
-                2, 40,
-                3, 40,
-                4, 30,
-                5, 16,
-                6, 16,
-                7, 30,
-                8, 20
-        );
-        ExcelUtils.setCustomColumnWidth(sheet, columnWidths);
-    }
-
-    private void setCellStylesForPromoteTitle(Sheet sheet) {
-        // 取得工作簿
-        Workbook workbook = sheet.getWorkbook();
-        // 取得自訂顏色
-        XSSFColor customColor = ExcelUtils.getCustomColor((byte) 241, (byte) 169, (byte) 131);
-        // 建立表頭樣式和儲存格樣式
-        CellStyle headerStyle = ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 15);
-        // 應用程式樣式到工作表
-        ExcelUtils.applyStylesToSheet(sheet, headerStyle, null);
-
-        // 調整列寬
-        Map<Integer, Integer> columnWidths = Map.of(
-                0, 40,
-                1, 30,
-                2, 40,
-                3, 40,
-                4, 30,
-                5, 16,
-                6, 16
-        );
-        ExcelUtils.setCustomColumnWidth(sheet, columnWidths);
+        return new SheetStyle(
+                ExcelUtils.createHeaderCellStyle(workbook, customColor, (short) 15),
+                ExcelUtils.createCellStyle(workbook, whiteColor, (short) 13, HorizontalAlignment.LEFT));
     }
 }
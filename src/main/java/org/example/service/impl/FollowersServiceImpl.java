@@ -25,13 +25,13 @@ public class FollowersServiceImpl implements FollowersService {
 
 
     @Override
-    public void batchInsertFollowers(List<Followers> followersList) {
-        followersDao.batchInsertOrUpdate(followersList);
+    public int batchInsertFollowers(List<Followers> followersList) {
+        return followersDao.batchInsertOrUpdate(followersList);
     }
 
     @Override
-    public int countFollowersByIgUserName(IgUser igUser) {
-        return followersDao.countByIgUser(igUser);
+    public int countFollowersByIgUserName(IgUser igUser, int generation) {
+        return followersDao.countByIgUserAndLastSeenGenerationGreaterThanEqual(igUser, generation);
     }
 
     @Override
@@ -49,11 +49,6 @@ public class FollowersServiceImpl implements FollowersService {
         return followersDao.findAll();
     }
 
-    @Override
-    public void deleteOldFollowersDataByIgUser(IgUser igUser) {
-        followersDao.deleteByIgUser(igUser);
-    }
-
     @Override
     public List<Followers> findByIgUser(IgUser igUser) {
         List<Followers> followersList = followersDao.findByIgUser(igUser);
@@ -0,0 +1,31 @@
+package org.example.service.impl;
+
+import org.example.dao.IgProfileDao;
+import org.example.entity.IgProfile;
+import org.example.service.IgProfileService;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Service("igProfileService")
+public class IgProfileServiceImpl implements IgProfileService {
+    private final IgProfileDao igProfileDao;
+
+    public IgProfileServiceImpl(IgProfileDao igProfileDao) {
+        this.igProfileDao = igProfileDao;
+    }
+
+    @Override
+    public int batchInsertProfiles(List<IgProfile> profileList) {
+        return igProfileDao.batchInsertOrUpdate(profileList);
+    }
+
+    @Override
+    public void updateProfileCounts(IgProfile profile) {
+        igProfileDao.updateCounts(profile.getPk(), profile.getPostCount(), profile.getFollowerCount(), profile.getFollowingCount());
+    }
+}
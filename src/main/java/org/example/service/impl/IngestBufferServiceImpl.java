@@ -0,0 +1,131 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.TaskQueue;
+import org.example.exception.SysCode;
+import org.example.exception.TaskExecutionException;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.IngestBufferService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 單一寫入執行緒 + 有界佇列，保證同一任務的分頁與游標依序寫入
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("ingestBufferService")
+public class IngestBufferServiceImpl implements IngestBufferService {
+    private final CrawlerMetrics crawlerMetrics;
+    private final ThreadPoolExecutor writer;
+    private final Map<BigInteger, IngestSession> sessions = new ConcurrentHashMap<>();
+
+    public IngestBufferServiceImpl(CrawlerMetrics crawlerMetrics, @Value("${ingest.writeBehind.queueCapacity:4}") int queueCapacity) {
+        this.crawlerMetrics = crawlerMetrics;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ingest-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                IngestBufferServiceImpl::blockUntilQueued);
+    }
+
+    @Override
+    public void submit(TaskQueue task, IntSupplier write) {
+        IngestSession session = sessions.computeIfAbsent(task.getId(), id -> new IngestSession());
+        session.throwIfFailed();
+        session.pending.removeIf(Future::isDone);
+        session.pending.add(writer.submit(() -> {
+            // 前一頁失敗時不再寫入後續分頁，避免游標越過未保存的資料
+            if (session.failure != null) return;
+            try {
+                session.skipped.addAndGet(write.getAsInt());
+            } catch (RuntimeException e) {
+                log.error("任務:{} ,分頁寫入失敗", task.getId(), e);
+                session.failure = e;
+            }
+        }));
+    }
+
+    @Override
+    public void flush(TaskQueue task) {
+        IngestSession session = sessions.remove(task.getId());
+        if (session == null) return;
+        for (Future<?> future : session.pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TaskExecutionException(SysCode.INGEST_WRITE_FAILED, e);
+            } catch (ExecutionException e) {
+                throw new TaskExecutionException(SysCode.INGEST_WRITE_FAILED, e.getCause());
+            }
+        }
+        recordSkipped(task, session.skipped.get());
+        session.throwIfFailed();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 關閉前讓已排入的寫入完成，保留已取得的分頁與游標
+        writer.shutdown();
+        if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("寫入緩衝關閉逾時，剩餘寫入:{}", writer.getQueue().size());
+        }
+    }
+
+    // private
+
+    /**
+     * 記錄任務本次執行因內容未變動而略過的寫入筆數，指標依任務類型區分
+     */
+    private void recordSkipped(TaskQueue task, long skipped) {
+        if (skipped <= 0) return;
+        crawlerMetrics.increment("ingest.skipped.taskType." + task.getTaskConfig().getTaskType(), skipped);
+        log.info("任務:{} ,本次執行內容未變動略過寫入{}筆", task.getId(), skipped);
+    }
+
+    /**
+     * 佇列已滿時阻塞提交者，直到寫入執行緒消化出空位
+     */
+    private static void blockUntilQueued(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("寫入緩衝已關閉");
+        }
+        try {
+            executor.getQueue().put(runnable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("等待寫入緩衝時被中斷", e);
+        }
+    }
+
+    /**
+     * 單一任務的寫入狀態，pending僅由爬取執行緒存取
+     */
+    private static class IngestSession {
+        private final List<Future<?>> pending = new ArrayList<>();
+        // 由寫入執行緒累加，flush 等待所有寫入完成後讀取
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile RuntimeException failure;
+
+        private void throwIfFailed() {
+            if (failure != null) {
+                throw new TaskExecutionException(SysCode.INGEST_WRITE_FAILED, failure);
+            }
+        }
+    }
+}
@@ -16,7 +16,6 @@ import com.github.instagram4j.instagram4j.requests.media.MediaGetLikersRequest;
 import com.github.instagram4j.instagram4j.responses.feed.FeedUserResponse;
 import com.github.instagram4j.instagram4j.responses.feed.FeedUsersResponse;
 import com.github.instagram4j.instagram4j.responses.media.MediaGetCommentsResponse;
-import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.example.bean.dto.CommentsAndMaxIdDTO;
 import org.example.bean.dto.FollowersAndMaxIdDTO;
@@ -28,10 +27,10 @@ import org.example.entity.*;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
 import org.example.exception.TaskExecutionException;
-import org.example.service.FollowersService;
+import org.example.service.CrawlCheckpointService;
+import org.example.service.IngestBufferService;
 import org.example.service.InstagramService;
-import org.example.service.MediaCommentService;
-import org.example.service.MediaLikerService;
+import org.example.service.SeenKeyFilterService;
 import org.example.utils.BrightDataProxy;
 import org.example.utils.CrawlingUtil;
 import org.example.utils.StringUtils;
@@ -46,24 +45,23 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service("instagramService")
 public class Instagram4jServiceImpl implements InstagramService {
     private final IgUserServiceImpl igUserService;
-    private final FollowersService followersService;
-    private final MediaServiceImpl mediaService;
     private final ConfigCache configCache;
-    private final MediaCommentService mediaCommentService;
-    private final MediaLikerService mediaLikerService;
+    private final CrawlCheckpointService crawlCheckpointService;
+    private final IngestBufferService ingestBufferService;
+    private final SeenKeyFilterService seenKeyFilterService;
 
-    public Instagram4jServiceImpl(IgUserServiceImpl igUserService, FollowersService followersService, MediaServiceImpl mediaService, ConfigCache configCache, MediaCommentService mediaCommentService, MediaLikerService mediaLikerService) {
+    public Instagram4jServiceImpl(IgUserServiceImpl igUserService, ConfigCache configCache, CrawlCheckpointService crawlCheckpointService, IngestBufferService ingestBufferService, SeenKeyFilterService seenKeyFilterService) {
         this.igUserService = igUserService;
-        this.followersService = followersService;
-        this.mediaService = mediaService;
         this.configCache = configCache;
-        this.mediaCommentService = mediaCommentService;
-        this.mediaLikerService = mediaLikerService;
+        this.crawlCheckpointService = crawlCheckpointService;
+        this.ingestBufferService = ingestBufferService;
+        this.seenKeyFilterService = seenKeyFilterService;
     }
 
     private IGClient client;
@@ -119,13 +117,16 @@ public class Instagram4jServiceImpl implements InstagramService {
     @Override
     public void searchFollowersAndSave(TaskQueue task, String maxId) {
         try {
-            // 取得追蹤者
-            FollowersAndMaxIdDTO followersObjFromIg = getFollowersByUserNameAndMaxId(client, task.getIgUser().getUserName(), maxId);
-            // 將 Profile 物件轉換為 Followers 實體
-            List<Followers> followersList = convertProfilesToFollowerEntities(task.getIgUser(), followersObjFromIg.getFollowers());
-            // 保存追蹤者
-            followersService.batchInsertFollowers(followersList);
-            task.setNextIdForSearch(followersObjFromIg.getMaxId());
+            // 取得追蹤者，每取得一頁即交由寫入緩衝保存並記錄游標
+            fetchThenFlush(task, () -> getFollowersByUserNameAndMaxId(client, task.getIgUser().getUserName(), maxId,
+                    page -> ingestBufferService.submit(task, () -> {
+                        // 將 Profile 物件轉換為 Followers 實體
+                        List<Followers> followersList = convertProfilesToFollowerEntities(task, page.getFollowers());
+                        // 保存追蹤者與游標
+                        int skipped = crawlCheckpointService.saveFollowersPage(task, followersList, page.getMaxId());
+                        task.setNextIdForSearch(page.getMaxId());
+                        return skipped;
+                    })));
         } catch (Exception e) {
             throw new TaskExecutionException(SysCode.IG_GET_FOLLOWERS_FAILED, e);
         }
@@ -134,13 +135,16 @@ public class Instagram4jServiceImpl implements InstagramService {
     @Override
     public void searchUserMediasAndSave(TaskQueue task, String maxId) {
         try {
-            // 取得對象貼文
-            PostsAndMaxIdDTO postsAndMaxIdDTO = getPostsByUserName(client, task.getIgUser().getUserName(), maxId);
-            // 將 TimelineMedia 物件轉換為 Media 實體
-            List<Media> mediasList = convertTimeLineMediaToMediaEntities(task.getIgUser(), postsAndMaxIdDTO.getMedias());
-            // 保存貼文
-            mediaService.batchInsertMedias(mediasList);
-            task.setNextIdForSearch(postsAndMaxIdDTO.getMaxId());
+            // 取得對象貼文，每取得一頁即交由寫入緩衝保存並記錄游標
+            fetchThenFlush(task, () -> getPostsByUserName(client, task.getIgUser().getUserName(), maxId,
+                    page -> ingestBufferService.submit(task, () -> {
+                        // 將 TimelineMedia 物件轉換為 Media 實體
+                        List<Media> mediasList = convertTimeLineMediaToMediaEntities(task, page.getMedias());
+                        // 保存貼文與游標
+                        int skipped = crawlCheckpointService.saveMediaPage(task, mediasList, page.getMaxId());
+                        task.setNextIdForSearch(page.getMaxId());
+                        return skipped;
+                    })));
         } catch (ApiException apiException) {
             throw apiException;
         } catch (CompletionException e) {
@@ -159,13 +163,18 @@ public class Instagram4jServiceImpl implements InstagramService {
     @Override
     public void searchMediaCommentsAndSave(TaskQueue task, String maxId) {
         try {
-            // 取得對象貼文
-            CommentsAndMaxIdDTO commentsAndMaxIdDTO = getCommentsByMediaPk(client, task, maxId);
-            // 將 Comment 物件轉換為 Media_comment 實體
-            List<MediaComment> mediasList = convertCommentToMediaCommentEntity(task, commentsAndMaxIdDTO.getComments());
-            // 保存
-            mediaCommentService.batchInsertMedias(mediasList);
-            task.getTaskQueueMediaId().setNextMediaId(commentsAndMaxIdDTO.getMaxId());
+            // 取得貼文留言，每取得一頁即交由寫入緩衝保存並記錄游標
+            fetchThenFlush(task, () -> getCommentsByMediaPk(client, task, maxId,
+                    page -> ingestBufferService.submit(task, () -> {
+                        // 將 Comment 物件轉換為 Media_comment 實體，略過本任務已保存過的留言
+                        List<MediaComment> mediasList = seenKeyFilterService.retainUnseen(task, "media_comment",
+                                convertCommentToMediaCommentEntity(task, page.getComments()), Instagram4jServiceImpl::commentKey);
+                        // 保存留言與游標，提交後才標記為已保存
+                        int skipped = crawlCheckpointService.saveCommentsPage(task, mediasList, page.getMaxId());
+                        seenKeyFilterService.markSeen(task, mediasList, Instagram4jServiceImpl::commentKey);
+                        task.getTaskQueueMediaId().setNextMediaId(page.getMaxId());
+                        return skipped;
+                    })));
         } catch (ApiException apiException) {
             throw apiException;
         } catch (CompletionException e) {
@@ -178,13 +187,18 @@ public class Instagram4jServiceImpl implements InstagramService {
     @Override
     public void searchMediaLikersAndSave(TaskQueue task, String maxId) {
         try {
-            // 取得對象貼文
-            LikerProfilesAndMaxIdDTO likerProfilesAndMaxIdDTO = getLikersByMediaPk(client, task, maxId);
-            // 將 Comment 物件轉換為 Media_comment 實體
-            List<MediaLiker> likerList = convertProfileToMediaLikerEntity(task, likerProfilesAndMaxIdDTO.getLikerProfiles());
-            // 保存
-            mediaLikerService.batchInsert(likerList);
-            task.getTaskQueueMediaId().setNextMediaId(likerProfilesAndMaxIdDTO.getMaxId());
+            // 取得貼文按讚者，每取得一頁即交由寫入緩衝保存並記錄游標
+            fetchThenFlush(task, () -> getLikersByMediaPk(client, task, maxId,
+                    page -> ingestBufferService.submit(task, () -> {
+                        // 將 Profile 物件轉換為 MediaLiker 實體，略過本任務已保存過的按讚者
+                        List<MediaLiker> likerList = seenKeyFilterService.retainUnseen(task, "media_liker",
+                                convertProfileToMediaLikerEntity(task, page.getLikerProfiles()), Instagram4jServiceImpl::likerKey);
+                        // 保存按讚者與游標，提交後才標記為已保存
+                        int skipped = crawlCheckpointService.saveLikersPage(task, likerList, page.getMaxId());
+                        seenKeyFilterService.markSeen(task, likerList, Instagram4jServiceImpl::likerKey);
+                        task.getTaskQueueMediaId().setNextMediaId(page.getMaxId());
+                        return skipped;
+                    })));
             log.info("Task = {}", task);
         } catch (ApiException apiException) {
             throw apiException;
@@ -218,38 +232,55 @@ public class Instagram4jServiceImpl implements InstagramService {
     /**
      * 將 Profile 物件轉換為 Followers 實體
      *
-     * @param igUser             IG用戶名
+     * @param taskQueue          任務(IG用戶及爬取世代)
      * @param followersObjFromIg IG追蹤者物件
      * @return Followers 實體列表
      */
-    private static List<Followers> convertProfilesToFollowerEntities(IgUser igUser, List<Profile> followersObjFromIg) {
+    private static List<Followers> convertProfilesToFollowerEntities(TaskQueue taskQueue, List<Profile> followersObjFromIg) {
         return followersObjFromIg.stream().map(profile -> Followers.builder()
-                        .igUser(igUser)
+                        .igUser(taskQueue.getIgUser())
+                        .firstSeenGeneration(taskQueue.getCrawlGeneration())
+                        .lastSeenGeneration(taskQueue.getCrawlGeneration())
                         .followerPk(profile.getPk())
-                        .followerUserName(profile.getUsername())
-                        .followerFullName(profile.getFull_name())
-                        .isPrivate(profile.is_private())
-                        .profilePicUrl(profile.getProfile_pic_url())
-                        .profilePicId(profile.getProfile_pic_id())
-                        .isVerified(profile.is_verified())
-                        .hasAnonymousProfilePicture(profile.isHas_anonymous_profile_picture())
-                        .latestReelMedia(profile.getLatest_reel_media())
+                        .profile(convertProfileToIgProfileEntity(profile))
                         .build())
                 .toList();
     }
 
+    /**
+     * 將 Profile 物件(含留言者 User)轉換為 IgProfile 實體
+     *
+     * @param profile IG個人資料物件
+     * @return IgProfile 實體
+     */
+    private static IgProfile convertProfileToIgProfileEntity(Profile profile) {
+        return IgProfile.builder()
+                .pk(profile.getPk())
+                .userName(profile.getUsername())
+                .fullName(profile.getFull_name())
+                .isPrivate(profile.is_private())
+                .isVerified(profile.is_verified())
+                .profilePicId(profile.getProfile_pic_id())
+                .profilePicUrl(profile.getProfile_pic_url())
+                .hasAnonymousProfilePicture(profile.isHas_anonymous_profile_picture())
+                .latestReelMedia(profile.getLatest_reel_media())
+                .build();
+    }
+
     /**
      * 將 TimelineMedia 物件轉換為 Media 實體
      *
-     * @param igUser IG用戶名
+     * @param taskQueue 任務(IG用戶及爬取世代)
      */
-    private static List<Media> convertTimeLineMediaToMediaEntities(IgUser igUser, List<TimelineMedia> timeLineMediaObjFromIg) {
+    private static List<Media> convertTimeLineMediaToMediaEntities(TaskQueue taskQueue, List<TimelineMedia> timeLineMediaObjFromIg) {
         return timeLineMediaObjFromIg.stream().map(timelineMedia -> {
             LocalDateTime takenAt = Instant.ofEpochSecond(timelineMedia.getTaken_at())
                     .atZone(ZoneId.systemDefault())
                     .toLocalDateTime();
             return Media.builder()
-                    .igUserId(igUser)
+                    .igUserId(taskQueue.getIgUser())
+                    .firstSeenGeneration(taskQueue.getCrawlGeneration())
+                    .lastSeenGeneration(taskQueue.getCrawlGeneration())
                     .mediaPk(timelineMedia.getPk())
                     .mediaId(timelineMedia.getId())
                     .playCount(timelineMedia.getPlay_count())
@@ -265,6 +296,20 @@ public class Instagram4jServiceImpl implements InstagramService {
         }).toList();
     }
 
+    /**
+     * 留言自然鍵(media_id, comment_pk)
+     */
+    private static String commentKey(MediaComment mediaComment) {
+        return mediaComment.getMedia().getId() + ":" + mediaComment.getCommentPk();
+    }
+
+    /**
+     * 按讚者自然鍵(media_id, liker_pk)
+     */
+    private static String likerKey(MediaLiker mediaLiker) {
+        return mediaLiker.getMedia().getId() + ":" + mediaLiker.getLikerPk();
+    }
+
     /**
      * 將 Comment 物件轉換為 MediaComment 實體
      *
@@ -273,17 +318,12 @@ public class Instagram4jServiceImpl implements InstagramService {
      */
     private static List<MediaComment> convertCommentToMediaCommentEntity(TaskQueue taskQueue, List<Comment> commentFromIg) {
         return commentFromIg.stream().map(comment -> MediaComment.builder()
+                        .igUser(taskQueue.getIgUser())
                         .media(taskQueue.getTaskQueueMediaId().getMedia())
                         .text(comment.getText())
                         .commenterUserId(comment.getUser().getPk())
-                        .commenterFullName(comment.getUser().getFull_name())
-                        .commenterUserName(comment.getUser().getUsername())
+                        .commenter(convertProfileToIgProfileEntity(comment.getUser()))
                         .commentPk(comment.getPk())
-                        .commenterIsPrivate(comment.getUser().is_private())
-                        .commenterIsVerified(comment.getUser().is_verified())
-                        .commenterProfilePicId(comment.getUser().getProfile_pic_id())
-                        .commenterProfilePicUrl(comment.getUser().getProfile_pic_url())
-                        .commenterLatestReelMedia(comment.getUser().getLatest_reel_media())
                         .contentType(comment.getContent_type())
                         .status(comment.getStatus())
                         .commentLikeCount(comment.getComment_like_count())
@@ -299,29 +339,23 @@ public class Instagram4jServiceImpl implements InstagramService {
      */
     private static List<MediaLiker> convertProfileToMediaLikerEntity(TaskQueue taskQueue, List<Profile> profiles) {
         return profiles.stream().map(profile -> MediaLiker.builder()
+                        .igUser(taskQueue.getIgUser())
                         .media(taskQueue.getTaskQueueMediaId().getMedia())
-                        .likerUserName(profile.getUsername())
-                        .likerFullName(profile.getFull_name())
                         .likerPk(profile.getPk())
-                        .likerIsPrivate(profile.is_private())
-                        .likerIsVerified(profile.is_verified())
-                        .likerProfilePicId(profile.getProfile_pic_id())
-                        .likerProfilePicUrl(profile.getProfile_pic_url())
-                        .likerLatestReelMedia(profile.getLatest_reel_media())
+                        .liker(convertProfileToIgProfileEntity(profile))
                         .build())
                 .toList();
     }
 
     /**
-     * 向ig爬取指定用户的所有追踪者。
+     * 向ig爬取指定用户的追踪者，每取得一頁即交由pageHandler處理
      *
-     * @param client   已登入的 IGClient 對象
-     * @param username 要取得追蹤者的用戶名
-     * @param maxId    用於分頁的最大 ID
-     * @return 一個包含所有追蹤者 Profile 物件的列表
+     * @param client      已登入的 IGClient 對象
+     * @param username    要取得追蹤者的用戶名
+     * @param maxId       用於分頁的最大 ID
+     * @param pageHandler 單頁處理(本頁追蹤者及下一頁maxId)
      */
-    private FollowersAndMaxIdDTO getFollowersByUserNameAndMaxId(IGClient client, String username, String maxId) {
-        List<Profile> followers = Lists.newArrayList();
+    private void getFollowersByUserNameAndMaxId(IGClient client, String username, String maxId, Consumer<FollowersAndMaxIdDTO> pageHandler) {
         AtomicReference<String> maxIdRef = new AtomicReference<>(maxId);
         // 計數器，用於追蹤請求到的資料數量
         int count = 0;
@@ -337,7 +371,12 @@ public class Instagram4jServiceImpl implements InstagramService {
                 // 每次循環使用最新的max Id建立請求
                 FeedUsersResponse response = fetchFollowers(client, userPkFromIg, maxIdRef.get());
                 // 處理請求結果
-                processFollowersResponse(followers, response, maxIdRef);
+                processFollowersResponse(response, maxIdRef);
+                // 保存本頁
+                pageHandler.accept(FollowersAndMaxIdDTO.builder()
+                        .followers(response.getUsers())
+                        .maxId(maxIdRef.get())
+                        .build());
                 // 更新計數器
                 count += response.getUsers().size();
                 log.info("目前查詢累計用戶數: " + count);
@@ -352,21 +391,17 @@ public class Instagram4jServiceImpl implements InstagramService {
                 throw completionException;
             }
         }
-        return FollowersAndMaxIdDTO.builder()
-                .followers(followers)
-                .maxId(maxIdRef.get())
-                .build();
     }
 
     /**
      * 獲取指定用戶的所有文章資訊
      *
-     * @param client   已登录的 IGClient 对象
-     * @param username 要获取文章的用户名
-     * @param maxId    用于分页的最大 ID
+     * @param client      已登录的 IGClient 对象
+     * @param username    要获取文章的用户名
+     * @param maxId       用于分页的最大 ID
+     * @param pageHandler 單頁處理(本頁文章及下一頁maxId)
      */
-    private PostsAndMaxIdDTO getPostsByUserName(IGClient client, String username, String maxId) {
-        List<TimelineMedia> medias = Lists.newArrayList();
+    private void getPostsByUserName(IGClient client, String username, String maxId, Consumer<PostsAndMaxIdDTO> pageHandler) {
         AtomicReference<String> maxIdRef = new AtomicReference<>(maxId);
         // 計數器，用於追蹤請求到的資料數量
         int count = 0;
@@ -382,7 +417,12 @@ public class Instagram4jServiceImpl implements InstagramService {
                 // 每次循環使用最新的max Id建立請求
                 FeedUserResponse response = fetchPosts(client, userPkFromIg, maxIdRef.get());
                 // 處理請求結果
-                processPostsResponse(medias, response, maxIdRef);
+                processPostsResponse(response, maxIdRef);
+                // 保存本頁
+                pageHandler.accept(PostsAndMaxIdDTO.builder()
+                        .medias(response.getItems())
+                        .maxId(maxIdRef.get())
+                        .build());
                 count += response.getItems().size();
                 log.info("目前累計文章數: " + count);
                 //請求間暫停
@@ -392,15 +432,18 @@ public class Instagram4jServiceImpl implements InstagramService {
         } catch (CompletionException completionException) {
             handleCompletionException(completionException);
         }
-        return PostsAndMaxIdDTO.builder()
-                .medias(medias)
-                .maxId(maxIdRef.get())
-                .build();
     }
 
-    private CommentsAndMaxIdDTO getCommentsByMediaPk(IGClient client, TaskQueue task, String maxId) {
+    /**
+     * 獲取子任務指定貼文的留言，每取得一頁即交由pageHandler處理
+     *
+     * @param client      已登录的 IGClient 对象
+     * @param task        任務
+     * @param maxId       用于分页的最大 ID
+     * @param pageHandler 單頁處理(本頁留言及下一頁maxId)
+     */
+    private void getCommentsByMediaPk(IGClient client, TaskQueue task, String maxId, Consumer<CommentsAndMaxIdDTO> pageHandler) {
         String mediaId = task.getTaskQueueMediaId().getMedia().getMediaId();
-        List<Comment> comments = Lists.newArrayList();
         AtomicReference<String> maxIdRef = new AtomicReference<>(maxId);
         // 計數器，用於追蹤請求到的資料數量
         int count = 0;
@@ -413,7 +456,12 @@ public class Instagram4jServiceImpl implements InstagramService {
                 // 每次循环使用最新的maxId创建请求
                 MediaGetCommentsResponse response = fetchComments(client, mediaId, maxIdRef.get());
                 // 處理請求結果
-                processCommentsResponse(comments, response, maxIdRef);
+                processCommentsResponse(response, maxIdRef);
+                // 保存本頁
+                pageHandler.accept(CommentsAndMaxIdDTO.builder()
+                        .comments(response.getComments())
+                        .maxId(maxIdRef.get())
+                        .build());
                 count += response.getComments().size();
                 log.info("目前累計數: " + count);
                 //請求間暫停
@@ -423,21 +471,23 @@ public class Instagram4jServiceImpl implements InstagramService {
         } catch (CompletionException completionException) {
             handleCompletionException(completionException);
         }
-        return CommentsAndMaxIdDTO.builder()
-                .comments(comments)
-                .maxId(maxIdRef.get())
-                .build();
     }
 
-
-    private LikerProfilesAndMaxIdDTO getLikersByMediaPk(IGClient client, TaskQueue task, String maxId) {
+    /**
+     * 獲取子任務指定貼文的按讚者，每取得一頁即交由pageHandler處理
+     *
+     * @param client      已登录的 IGClient 对象
+     * @param task        任務
+     * @param maxId       用于分页的最大 ID
+     * @param pageHandler 單頁處理(本頁按讚者及下一頁maxId)
+     */
+    private void getLikersByMediaPk(IGClient client, TaskQueue task, String maxId, Consumer<LikerProfilesAndMaxIdDTO> pageHandler) {
         String mediaId = task.getTaskQueueMediaId().getMedia().getMediaId();
-        List<Profile> profiles = Lists.newArrayList();
         AtomicReference<String> maxIdRef = new AtomicReference<>(maxId);
         // 計數器，用於追蹤請求到的資料數量
         int count = 0;
         boolean isFirstIteration = true;
-        int maxRequestTimes = Integer.parseInt(configCache.get(ConfigEnum.MAX_COMMENTS_PER_REQUEST.name()));
+        int maxRequestTimes = Integer.parseInt(configCache.get(ConfigEnum.MAX_LIKERS_PER_REQUEST.name()));
 
         try {
             while (shouldContinueFetching(count, maxIdRef.get(), isFirstIteration, maxRequestTimes)) {
@@ -445,7 +495,12 @@ public class Instagram4jServiceImpl implements InstagramService {
                 // 每次循环使用最新的maxId创建请求
                 FeedUsersResponse response = fetchLikers(client, mediaId, maxIdRef.get());
                 // 處理請求結果
-                processFollowersResponse(profiles, response, maxIdRef);
+                processFollowersResponse(response, maxIdRef);
+                // 保存本頁
+                pageHandler.accept(LikerProfilesAndMaxIdDTO.builder()
+                        .likerProfiles(response.getUsers())
+                        .maxId(maxIdRef.get())
+                        .build());
                 count += response.getUsers().size();
                 log.info("目前累計數: " + count);
                 //請求間暫停
@@ -455,10 +510,26 @@ public class Instagram4jServiceImpl implements InstagramService {
         } catch (CompletionException completionException) {
             handleCompletionException(completionException);
         }
-        return LikerProfilesAndMaxIdDTO.builder()
-                .likerProfiles(profiles)
-                .maxId(maxIdRef.get())
-                .build();
+    }
+
+    /**
+     * 執行爬取，結束時(含失敗)等待寫入緩衝完成，確保任務狀態判斷前分頁與游標皆已保存
+     *
+     * @param task  任務
+     * @param fetch 爬取迴圈
+     */
+    private void fetchThenFlush(TaskQueue task, Runnable fetch) {
+        try {
+            fetch.run();
+        } catch (RuntimeException e) {
+            try {
+                ingestBufferService.flush(task);
+            } catch (TaskExecutionException flushException) {
+                e.addSuppressed(flushException);
+            }
+            throw e;
+        }
+        ingestBufferService.flush(task);
     }
 
     private Long getUserIdByUsername(IGClient client, String username) {
@@ -481,21 +552,18 @@ public class Instagram4jServiceImpl implements InstagramService {
         return client.sendRequest(new MediaGetLikersRequest(mediaId, maxId)).join();
     }
 
-    private void processFollowersResponse(List<Profile> followers, FeedUsersResponse response, AtomicReference<String> maxIdRef) {
-        followers.addAll(response.getUsers());
+    private void processFollowersResponse(FeedUsersResponse response, AtomicReference<String> maxIdRef) {
         String nextMaxId = response.getNext_max_id();
         maxIdRef.set(nextMaxId);
     }
 
-    private void processPostsResponse(List<TimelineMedia> medias, FeedUserResponse response, AtomicReference<String> maxIdRef) {
-        medias.addAll(response.getItems());
+    private void processPostsResponse(FeedUserResponse response, AtomicReference<String> maxIdRef) {
         String nextMaxId = response.getNext_max_id();
         log.info("下一個maxId:{}", nextMaxId);
         maxIdRef.set(nextMaxId);
     }
 
-    private void processCommentsResponse(List<Comment> comments, MediaGetCommentsResponse response, AtomicReference<String> maxIdRef) {
-        comments.addAll(response.getComments());
+    private void processCommentsResponse(MediaGetCommentsResponse response, AtomicReference<String> maxIdRef) {
         String nextMaxId = response.getNext_min_id();
         log.info("下一個maxId:{}", nextMaxId);
         maxIdRef.set(nextMaxId);
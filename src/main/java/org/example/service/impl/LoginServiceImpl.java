@@ -1,6 +1,8 @@
 package org.example.service.impl;
 
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
 import org.example.bean.enumtype.LoginAccountStatusEnum;
+import org.example.config.DataSourceRoute;
 import org.example.dao.LoginAccountDao;
 import org.example.entity.LoginAccount;
 import org.example.exception.ApiException;
@@ -13,6 +15,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Service("loginService")
+@DataSourceRoute(DataSourceWorkloadEnum.CONTROL)
 public class LoginServiceImpl implements LoginService {
     private final LoginAccountDao loginAccountDao;
 
@@ -1,15 +1,22 @@
 package org.example.service.impl;
 
-import org.example.bean.dto.CommentReportDto;
 import org.example.bean.dto.MediaCommentDetailDto;
+import org.example.bean.dto.PurgeProgressDto;
+import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.dao.MediaCommentDao;
 import org.example.entity.IgUser;
 import org.example.entity.MediaComment;
+import org.example.entity.TaskQueue;
+import org.example.service.ArchiveService;
+import org.example.service.CommenterRollupService;
 import org.example.service.MediaCommentService;
+import org.example.service.PurgeService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author Eric.Lee
@@ -17,10 +24,20 @@ import java.util.Optional;
  */
 @Service("mediaCommentService")
 public class MediaCommentServiceImpl implements MediaCommentService {
+    private static final String TABLE = "media_comment";
+    // 分區鍵條件，只掃描該用戶所在分區
+    private static final String BY_IG_USER = "ig_user_id = ?";
+
     private final MediaCommentDao mediaCommentDao;
+    private final PurgeService purgeService;
+    private final ArchiveService archiveService;
+    private final CommenterRollupService commenterRollupService;
 
-    public MediaCommentServiceImpl(MediaCommentDao mediaCommentDao) {
+    public MediaCommentServiceImpl(MediaCommentDao mediaCommentDao, PurgeService purgeService, ArchiveService archiveService, CommenterRollupService commenterRollupService) {
         this.mediaCommentDao = mediaCommentDao;
+        this.purgeService = purgeService;
+        this.archiveService = archiveService;
+        this.commenterRollupService = commenterRollupService;
     }
 
     @Override
@@ -39,27 +56,32 @@ public class MediaCommentServiceImpl implements MediaCommentService {
     }
 
     @Override
-    public void deleteOldMediaCotentDataByIgUserId(List<Integer> mediaIds) {
-        mediaCommentDao.deleteAllByMediaIdIsIn(mediaIds);
-    }
-
-    @Override
-    public void batchInsertMedias(List<MediaComment> commentList) {
-        mediaCommentDao.batchInsertOrUpdate(commentList);
+    public boolean purgeOldMediaContentData(TaskQueue taskQueue) {
+        PurgeProgressDto progress = purgeService.purge(TABLE + ":task:" + taskQueue.getId(), TABLE, BY_IG_USER, taskQueue.getIgUser().getId());
+        if (!TaskStatusEnum.COMPLETED.equals(progress.getStatus())) return false;
+        // 以下於清除完成後執行一次，之後由任務的完成標記略過: 重新爬取將取代封存資料
+        archiveService.discard(taskQueue.getIgUser().getId(), TABLE);
+        // 舊留言已清空，彙總隨之清空，之後由每頁寫入增量更新
+        commenterRollupService.rebuild(taskQueue.getIgUser().getId());
+        return true;
     }
 
     @Override
-    public List<CommentReportDto> findCommentSummary(IgUser igUser) {
-        return mediaCommentDao.findCommentSummaryByIgUserId(igUser);
+    public int batchInsertMedias(List<MediaComment> commentList) {
+        return mediaCommentDao.batchInsertOrUpdate(commentList);
     }
 
     @Override
-    public List<MediaCommentDetailDto> findCommentDetail(IgUser igUser) {
-        return mediaCommentDao.findMediaCommentDetailsByIgUserId(igUser);
+    public long streamCommentDetail(IgUser igUser, Consumer<MediaCommentDetailDto> consumer) {
+        boolean archived = archiveService.isArchived(igUser.getId(), TABLE);
+        return mediaCommentDao.streamMediaCommentDetails(igUser.getId(), archived, consumer);
     }
 
     @Override
     public List<String> findDistinctUserNames() {
-        return mediaCommentDao.findDistinctUserNames();
+        // 封存後至熱表刪除完成前，同一用戶會同時出現在兩邊
+        return Stream.concat(mediaCommentDao.findDistinctUserNames().stream(), archiveService.findArchivedUserNames(TABLE).stream())
+                .distinct()
+                .toList();
     }
 }
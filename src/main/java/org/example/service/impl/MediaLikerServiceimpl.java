@@ -1,8 +1,13 @@
 package org.example.service.impl;
 
+import org.example.bean.dto.PurgeProgressDto;
+import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.dao.MediaLikerDao;
 import org.example.entity.MediaLiker;
+import org.example.entity.TaskQueue;
+import org.example.service.ArchiveService;
 import org.example.service.MediaLikerService;
+import org.example.service.PurgeService;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,10 +19,18 @@ import java.util.Optional;
  */
 @Service("mediaLikerService")
 public class MediaLikerServiceimpl implements MediaLikerService {
+    private static final String TABLE = "media_liker";
+    // 分區鍵條件，只掃描該用戶所在分區
+    private static final String BY_IG_USER = "ig_user_id = ?";
+
     private final MediaLikerDao mediaLikerDao;
+    private final PurgeService purgeService;
+    private final ArchiveService archiveService;
 
-    public MediaLikerServiceimpl(MediaLikerDao mediaLikerDao) {
+    public MediaLikerServiceimpl(MediaLikerDao mediaLikerDao, PurgeService purgeService, ArchiveService archiveService) {
         this.mediaLikerDao = mediaLikerDao;
+        this.purgeService = purgeService;
+        this.archiveService = archiveService;
     }
 
     @Override
@@ -36,12 +49,16 @@ public class MediaLikerServiceimpl implements MediaLikerService {
     }
 
     @Override
-    public void deleteOldMediaLikerByIgUserId(List<Integer> mediaIds) {
-        mediaLikerDao.deleteAllByMediaIdIsIn(mediaIds);
+    public boolean purgeOldMediaLikerData(TaskQueue taskQueue) {
+        PurgeProgressDto progress = purgeService.purge(TABLE + ":task:" + taskQueue.getId(), TABLE, BY_IG_USER, taskQueue.getIgUser().getId());
+        if (!TaskStatusEnum.COMPLETED.equals(progress.getStatus())) return false;
+        // 清除完成後執行一次，之後由任務的完成標記略過: 重新爬取將取代封存資料
+        archiveService.discard(taskQueue.getIgUser().getId(), TABLE);
+        return true;
     }
 
     @Override
-    public void batchInsert(List<MediaLiker> likerList) {
-        mediaLikerDao.batchInsertOrUpdate(likerList);
+    public int batchInsert(List<MediaLiker> likerList) {
+        return mediaLikerDao.batchInsertOrUpdate(likerList);
     }
 }
@@ -1,5 +1,7 @@
 package org.example.service.impl;
 
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.config.DataSourceRoute;
 import org.example.dao.MediaDao;
 import org.example.entity.IgUser;
 import org.example.entity.Media;
@@ -48,21 +50,17 @@ public class MediaServiceImpl implements MediaService {
     }
 
     @Override
-    public int countMediaByIgUser(IgUser igUser) {
-        return mediaDao.countByIgUserId(igUser);
+    public int countMediaByIgUser(IgUser igUser, int generation) {
+        return mediaDao.countByIgUserIdAndLastSeenGenerationGreaterThanEqual(igUser, generation);
     }
 
     @Override
-    public boolean existsEarlyMediaBeforeCutoff(IgUser igUser, LocalDateTime cutoffDate) {
-        return mediaDao.existsEarlyMediaBeforeCutoff(igUser, cutoffDate);
-    }
-
-    @Override
-    public void deleteOldMediaDataByIgUserId(Integer igUserId) {
-        mediaDao.deleteByIgUserId(igUserId);
+    public boolean existsEarlyMediaBeforeCutoff(IgUser igUser, int generation, LocalDateTime cutoffDate) {
+        return mediaDao.existsEarlyMediaBeforeCutoff(igUser, generation, cutoffDate);
     }
 
     @Override
+    @DataSourceRoute(value = DataSourceWorkloadEnum.REPORTING, readOnly = true)
     public List<Media> listMediaByIgUserIdAndDateRange(IgUser igUser, LocalDateTime time) {
         // 如果 time 為 null，則預設為兩週前
         if (time == null) time = LocalDateTime.now().minusWeeks(2);
@@ -0,0 +1,266 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.PurgeProgressDto;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.config.WorkloadRoutingDataSource;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.PurgeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主鍵範圍分批刪除：每批 DELETE ... WHERE id >= ? AND id < ? AND (條件) 以自動提交執行，鎖只持有一批的時間
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("purgeService")
+public class PurgeServiceImpl implements PurgeService {
+    // 保留最近的工作進度筆數
+    private static final int MAX_RETAINED_JOBS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerMetrics crawlerMetrics;
+    private final int minRangeIds;
+    private final int maxRangeIds;
+    private final long targetChunkMillis;
+    private final long pauseMillis;
+    private final String replicaLagQuery;
+    private final long maxReplicaLagSeconds;
+    private final ThreadPoolExecutor purger = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "purger");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+    private final Map<String, PurgeJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PurgeJob> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+
+    public PurgeServiceImpl(JdbcTemplate jdbcTemplate, CrawlerMetrics crawlerMetrics,
+                            @Value("${purge.minRangeIds:500}") int minRangeIds,
+                            @Value("${purge.maxRangeIds:20000}") int maxRangeIds,
+                            @Value("${purge.targetChunkMillis:200}") long targetChunkMillis,
+                            @Value("${purge.pauseMillis:50}") long pauseMillis,
+                            @Value("${purge.replicaLagQuery:}") String replicaLagQuery,
+                            @Value("${purge.maxReplicaLagSeconds:5}") long maxReplicaLagSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerMetrics = crawlerMetrics;
+        this.minRangeIds = minRangeIds;
+        this.maxRangeIds = maxRangeIds;
+        this.targetChunkMillis = targetChunkMillis;
+        this.pauseMillis = pauseMillis;
+        this.replicaLagQuery = replicaLagQuery;
+        this.maxReplicaLagSeconds = maxReplicaLagSeconds;
+    }
+
+    @Override
+    public PurgeProgressDto purge(String jobKey, String table, String condition, Object... args) {
+        synchronized (jobs) {
+            PurgeJob existing = jobs.get(jobKey);
+            if (existing != null && existing.status != TaskStatusEnum.FAILED) {
+                return existing.snapshot();
+            }
+            PurgeJob job = new PurgeJob(jobKey, table, condition, args, minRangeIds);
+            jobs.put(jobKey, job);
+            // 清除執行緒不經服務代理，自行指定連線池
+            purger.execute(() -> WorkloadRoutingDataSource.runWith(DataSourceWorkloadEnum.INGEST, () -> run(job)));
+            log.info("清除工作:{} 已提交, 表:{}, 待執行:{}", jobKey, table, purger.getQueue().size());
+            return job.snapshot();
+        }
+    }
+
+    @Override
+    public void runAfterQueued(Runnable action) {
+        purger.execute(() -> WorkloadRoutingDataSource.runWith(DataSourceWorkloadEnum.INGEST, () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("清除後續工作執行失敗", e);
+            }
+        }));
+    }
+
+    @Override
+    public Optional<PurgeProgressDto> findProgress(String jobKey) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobKey)).map(PurgeJob::snapshot);
+        }
+    }
+
+    @Override
+    public List<PurgeProgressDto> listProgress() {
+        synchronized (jobs) {
+            return jobs.values().stream().map(PurgeJob::snapshot).toList();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 已刪除的批次皆已提交，未完成的工作由下次提交重新執行
+        purger.shutdownNow();
+    }
+
+    // private
+
+    private void run(PurgeJob job) {
+        job.status = TaskStatusEnum.IN_PROGRESS;
+        job.startTime = LocalDateTime.now();
+        try {
+            Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                    "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM " + job.table + " WHERE " + job.condition, job.args);
+            job.minId = toLong(bounds.get("min_id"));
+            job.maxId = toLong(bounds.get("max_id"));
+            if (job.minId != null) {
+                deleteByRanges(job);
+            }
+            job.status = TaskStatusEnum.COMPLETED;
+            log.info("清除工作:{} 完成, 刪除{}筆, {}批, 節流{}ms", job.jobKey, job.deletedRows, job.chunks, job.throttledMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        } catch (RuntimeException e) {
+            log.error("清除工作:{} 失敗, 已刪除{}筆", job.jobKey, job.deletedRows, e);
+            job.fail(e);
+        } finally {
+            job.endTime = LocalDateTime.now();
+        }
+    }
+
+    private void deleteByRanges(PurgeJob job) throws InterruptedException {
+        String sql = "DELETE FROM " + job.table + " WHERE id >= ? AND id < ? AND (" + job.condition + ")";
+        job.nextId = job.minId;
+        while (job.nextId <= job.maxId) {
+            awaitReplica(job);
+            long to = Math.min(job.nextId + job.rangeIds, job.maxId + 1);
+            Object[] args = new Object[job.args.length + 2];
+            args[0] = job.nextId;
+            args[1] = to;
+            System.arraycopy(job.args, 0, args, 2, job.args.length);
+
+            long start = System.nanoTime();
+            int deleted = jdbcTemplate.update(sql, args);
+            long elapsedNanos = System.nanoTime() - start;
+            crawlerMetrics.record("purge." + job.table, deleted, elapsedNanos);
+
+            job.deletedRows += deleted;
+            job.chunks++;
+            job.nextId = to;
+            throttle(job, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+
+    /**
+     * 超過目標耗時時範圍減半並暫停同等時間(讓出一半的資料庫時間)；未超過時範圍加倍並短暫停
+     */
+    private void throttle(PurgeJob job, long elapsedMillis) throws InterruptedException {
+        long pause;
+        if (elapsedMillis > targetChunkMillis) {
+            job.rangeIds = Math.max(minRangeIds, job.rangeIds / 2);
+            pause = Math.max(pauseMillis, elapsedMillis);
+        } else {
+            job.rangeIds = Math.min(maxRangeIds, job.rangeIds * 2);
+            pause = pauseMillis;
+        }
+        job.throttledMillis += pause;
+        TimeUnit.MILLISECONDS.sleep(pause);
+    }
+
+    /**
+     * 設定 purge.replicaLagQuery(回傳延遲秒數)時，延遲超過上限則等待複寫追上再繼續
+     */
+    private void awaitReplica(PurgeJob job) throws InterruptedException {
+        if (replicaLagQuery == null || replicaLagQuery.isBlank()) return;
+        Long lagSeconds;
+        while ((lagSeconds = jdbcTemplate.queryForObject(replicaLagQuery, Long.class)) != null && lagSeconds > maxReplicaLagSeconds) {
+            log.info("清除工作:{} 複寫延遲{}秒，暫停刪除", job.jobKey, lagSeconds);
+            long pause = TimeUnit.SECONDS.toMillis(lagSeconds - maxReplicaLagSeconds);
+            job.throttledMillis += pause;
+            TimeUnit.MILLISECONDS.sleep(pause);
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    /**
+     * 工作狀態由清除執行緒寫入、查詢執行緒讀取
+     */
+    private static final class PurgeJob {
+        private final String jobKey;
+        private final String table;
+        private final String condition;
+        private final Object[] args;
+        private final LocalDateTime submitTime = LocalDateTime.now();
+        private volatile TaskStatusEnum status = TaskStatusEnum.PENDING;
+        private volatile Long minId;
+        private volatile Long maxId;
+        private volatile Long nextId;
+        private volatile int rangeIds;
+        private volatile long deletedRows;
+        private volatile long chunks;
+        private volatile long throttledMillis;
+        private volatile LocalDateTime startTime;
+        private volatile LocalDateTime endTime;
+        private volatile String errorMessage;
+
+        private PurgeJob(String jobKey, String table, String condition, Object[] args, int rangeIds) {
+            this.jobKey = jobKey;
+            this.table = table;
+            this.condition = condition;
+            this.args = args;
+            this.rangeIds = rangeIds;
+        }
+
+        private void fail(Exception e) {
+            errorMessage = e.getMessage();
+            status = TaskStatusEnum.FAILED;
+        }
+
+        private PurgeProgressDto snapshot() {
+            Long min = minId;
+            Long max = maxId;
+            Long next = nextId;
+            Double percent = null;
+            if (status == TaskStatusEnum.COMPLETED) {
+                percent = 100.0;
+            } else if (min != null && next != null) {
+                percent = Math.min(100.0, (next - min) * 100.0 / (max - min + 1));
+            }
+            return PurgeProgressDto.builder()
+                    .jobKey(jobKey)
+                    .table(table)
+                    .status(status)
+                    .minId(min)
+                    .maxId(max)
+                    .nextId(next)
+                    .percent(percent)
+                    .deletedRows(deletedRows)
+                    .chunks(chunks)
+                    .throttledMillis(throttledMillis)
+                    .rangeIds(rangeIds)
+                    .submitTime(submitTime)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .errorMessage(errorMessage)
+                    .build();
+        }
+    }
+}
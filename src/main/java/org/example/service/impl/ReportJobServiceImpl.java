@@ -0,0 +1,494 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.ReportBatchDto;
+import org.example.bean.dto.ReportJobDto;
+import org.example.bean.enumtype.ReadConsistencyEnum;
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.config.ReplicaRoutingDataSource;
+import org.example.entity.IgUser;
+import org.example.exception.ApiException;
+import org.example.exception.SysCode;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.*;
+import org.example.utils.ContentHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 報表於固定大小的背景執行緒池產生，先寫入暫存檔再以原子搬移改名為快取檔，讀取端不會取得寫到一半的檔案
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("reportJobService")
+public class ReportJobServiceImpl implements ReportJobService {
+    // 報表版面變動時遞增，使舊格式的快取失效
+    private static final int REPORT_FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".xlsx";
+    // 保留最近的工作狀態筆數
+    private static final int MAX_RETAINED_JOBS = 200;
+    private static final int MAX_RETAINED_BATCHES = 50;
+    private static final String MANIFEST_ENTRY = "manifest.csv";
+
+    private final ExcelService excelService;
+    private final IgUserService igUserService;
+    private final TaskQueueService taskQueueService;
+    private final CommenterRollupService commenterRollupService;
+    private final CrawlerMetrics crawlerMetrics;
+    private final Path cacheDir;
+    private final boolean prerenderEnabled;
+    private final int maxBatchTargets;
+    private final long exportWaitMillis;
+    private final ThreadPoolExecutor renderer;
+    private final Map<String, ReportJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReportJob> eldest) {
+            return size() > MAX_RETAINED_JOBS;
+        }
+    };
+    // 產生中的工作，依快取檔名去重
+    private final Map<String, ReportJob> rendering = new HashMap<>();
+    private final Map<String, ReportBatch> batches = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReportBatch> eldest) {
+            return size() > MAX_RETAINED_BATCHES;
+        }
+    };
+
+    public ReportJobServiceImpl(ExcelService excelService, IgUserService igUserService, TaskQueueService taskQueueService,
+                                CommenterRollupService commenterRollupService, CrawlerMetrics crawlerMetrics,
+                                @Value("${report.cache.dir:${java.io.tmpdir}/ig-report-cache}") String cacheDir,
+                                @Value("${report.renderThreads:2}") int renderThreads,
+                                @Value("${report.prerender.enabled:false}") boolean prerenderEnabled,
+                                @Value("${report.batch.maxTargets:50}") int maxBatchTargets,
+                                @Value("${report.exportWaitMillis:600000}") long exportWaitMillis) {
+        this.excelService = excelService;
+        this.igUserService = igUserService;
+        this.taskQueueService = taskQueueService;
+        this.commenterRollupService = commenterRollupService;
+        this.crawlerMetrics = crawlerMetrics;
+        this.cacheDir = Path.of(cacheDir);
+        this.prerenderEnabled = prerenderEnabled;
+        this.maxBatchTargets = maxBatchTargets;
+        this.exportWaitMillis = exportWaitMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderer = new ThreadPoolExecutor(renderThreads, renderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-renderer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            Files.createDirectories(this.cacheDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立報表快取目錄:" + cacheDir, e);
+        }
+        crawlerMetrics.registerGauge("report.render.queued", () -> renderer.getQueue().size());
+    }
+
+    @Override
+    public ReportJobDto submit(IgUser igUser) {
+        String fingerprint = fingerprint(igUser);
+        String fileName = igUser.getId() + "-" + fingerprint + FILE_SUFFIX;
+        Path file = cacheDir.resolve(fileName);
+        synchronized (jobs) {
+            ReportJob inFlight = rendering.get(fileName);
+            if (inFlight != null) {
+                return inFlight.snapshot();
+            }
+            ReportJob job = new ReportJob(igUser.getUserName(), fingerprint, file);
+            if (Files.exists(file)) {
+                job.complete(true);
+                jobs.put(job.jobId, job);
+                crawlerMetrics.increment("report.cache.hit", 1);
+                return job.snapshot();
+            }
+            jobs.put(job.jobId, job);
+            rendering.put(fileName, job);
+            crawlerMetrics.increment("report.cache.miss", 1);
+            renderer.execute(() -> render(job, igUser.getId()));
+            log.info("報表工作:{} 已提交, 用戶:{}, 指紋:{}, 待執行:{}", job.jobId, job.igUserName, fingerprint, renderer.getQueue().size());
+            return job.snapshot();
+        }
+    }
+
+    @Override
+    public ReportJobDto awaitJob(String jobId, long waitMillis) {
+        ReportJob job = findJob(jobId);
+        if (waitMillis > 0) {
+            try {
+                job.done.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 逾時回傳目前狀態，由呼叫端再次查詢
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // done 只會正常完成，失敗原因記錄於工作狀態
+            }
+        }
+        return job.snapshot();
+    }
+
+    @Override
+    public void writeResult(String jobId, HttpServletResponse response) {
+        ReportJob job = findJob(jobId);
+        if (job.status != TaskStatusEnum.COMPLETED || !Files.exists(job.file)) {
+            throw new ApiException(SysCode.REPORT_NOT_READY);
+        }
+        try {
+            String fileName = URLEncoder.encode(job.igUserName, StandardCharsets.UTF_8) + FILE_SUFFIX;
+            response.setContentType("application/vnd.ms-excel");
+            response.setHeader("Content-Disposition", "attachment;filename=" + fileName);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setContentLengthLong(Files.size(job.file));
+            Files.copy(job.file, response.getOutputStream());
+        } catch (IOException e) {
+            log.error("export excel error", e);
+            throw new ApiException(SysCode.EXCEL_OUTPUT_FAILED);
+        }
+    }
+
+    @Override
+    public void prerender(IgUser igUser) {
+        if (!prerenderEnabled) return;
+        try {
+            // 任務持有的用戶實體可能早於世代發布，重新查詢
+            IgUser latest = igUserService.findUserByIgUserName(igUser.getUserName())
+                    .orElseThrow(() -> new ApiException(SysCode.IG_USER_NOT_FOUND_IN_DB));
+            ReportJobDto job = submit(latest);
+            log.info("用戶:{} 預先產生報表, 工作:{}, 已快取:{}", igUser.getUserName(), job.getJobId(), job.isCached());
+        } catch (Exception e) {
+            // 預先產生失敗不影響任務，下載時再產生
+            log.warn("用戶:{} 預先產生報表失敗", igUser.getUserName(), e);
+        }
+    }
+
+    @Override
+    public ReportBatchDto submitBatch(List<String> igUserNames) {
+        List<String> names = igUserNames.stream().filter(Objects::nonNull).map(String::trim)
+                .filter(name -> !name.isEmpty()).distinct().toList();
+        if (names.size() > maxBatchTargets) {
+            throw new ApiException(SysCode.REPORT_BATCH_TOO_LARGE);
+        }
+        List<BatchTarget> targets = new ArrayList<>(names.size());
+        for (String name : names) {
+            try {
+                IgUser igUser = igUserService.findUserByIgUserName(name)
+                        .orElseThrow(() -> new ApiException(SysCode.IG_USER_NOT_FOUND));
+                ReportJobDto submitted = submit(igUser);
+                targets.add(new BatchTarget(name, findJob(submitted.getJobId()), null));
+            } catch (Exception e) {
+                // 單一對象提交失敗只記錄於該對象
+                log.warn("批次匯出用戶:{} 提交失敗:{}", name, e.getMessage());
+                targets.add(new BatchTarget(name, null, e.getMessage()));
+            }
+        }
+        ReportBatch batch = new ReportBatch(targets);
+        synchronized (batches) {
+            batches.put(batch.batchId, batch);
+        }
+        log.info("批次匯出:{} 已提交, 對象數:{}", batch.batchId, targets.size());
+        return batch.snapshot();
+    }
+
+    @Override
+    public ReportBatchDto findBatch(String batchId) {
+        return getBatch(batchId).snapshot();
+    }
+
+    @Override
+    public void writeBatchZip(String batchId, OutputStream out) {
+        ReportBatch batch = getBatch(batchId);
+        // 依完成順序寫出，先完成的對象不需等待較慢的對象
+        BlockingQueue<BatchTarget> finished = new LinkedBlockingQueue<>();
+        for (BatchTarget target : batch.targets) {
+            if (target.job == null) {
+                finished.add(target);
+            } else {
+                target.job.done.thenRun(() -> finished.add(target));
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(exportWaitMillis);
+        Set<BatchTarget> processed = new LinkedHashSet<>();
+        // 已完成但報表檔無法開啟(已被較新版本取代刪除)的對象及原因，於清單中標為失敗
+        Map<BatchTarget, String> unreadable = new HashMap<>();
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            // xlsx 本身已壓縮，只求最快
+            zip.setLevel(Deflater.BEST_SPEED);
+            while (processed.size() < batch.targets.size()) {
+                BatchTarget target = finished.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (target == null) {
+                    log.warn("批次匯出:{} 等待逾時, 未完成:{}", batchId, batch.targets.size() - processed.size());
+                    break;
+                }
+                processed.add(target);
+                if (target.job != null && target.job.status == TaskStatusEnum.COMPLETED) {
+                    // 先開啟檔案再建立項目，開啟失敗只略過此對象，不中斷整個壓縮檔
+                    InputStream in;
+                    try {
+                        in = Files.newInputStream(target.job.file);
+                    } catch (IOException e) {
+                        log.warn("批次匯出:{} 用戶:{} 報表檔無法開啟，略過: {}", batchId, target.igUserName, e.getMessage());
+                        unreadable.put(target, "報表檔無法開啟: " + e.getMessage());
+                        continue;
+                    }
+                    try (in) {
+                        zip.putNextEntry(new ZipEntry(target.igUserName + FILE_SUFFIX));
+                        in.transferTo(zip);
+                        zip.closeEntry();
+                    }
+                }
+            }
+            writeManifest(zip, batch, processed, unreadable);
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(SysCode.EXCEL_OUTPUT_FAILED);
+        } catch (IOException e) {
+            log.warn("批次匯出:{} 輸出中斷:{}", batchId, e.getMessage());
+            throw new ApiException(SysCode.EXCEL_OUTPUT_FAILED);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 未完成的暫存檔不會被改名為快取檔，下次提交時重新產生
+        renderer.shutdownNow();
+    }
+
+    //private
+
+    /**
+     * 資料版本指紋，報表內容相關的資料任一變動即改變
+     *
+     * @param igUser 對象用戶(需為剛查詢的實體，含已發布世代)
+     * @return 16進位指紋
+     */
+    private String fingerprint(IgUser igUser) {
+        long hash = ContentHashUtil.of(REPORT_FORMAT_VERSION,
+                igUser.getUserName(), igUser.getFullName(), igUser.getMediaCount(), igUser.getFollowerCount(),
+                igUser.getMediaGeneration(),
+                taskQueueService.findLatestCompletedTime(igUser, TaskTypeEnum.GET_MEDIA_COMMENT).orElse(null),
+                commenterRollupService.sumCommentCount(igUser));
+        return String.format("%016x", hash);
+    }
+
+    private ReportJob findJob(String jobId) {
+        synchronized (jobs) {
+            ReportJob job = jobs.get(jobId);
+            if (job == null) {
+                throw new ApiException(SysCode.REPORT_JOB_NOT_FOUND);
+            }
+            return job;
+        }
+    }
+
+    private ReportBatch getBatch(String batchId) {
+        synchronized (batches) {
+            ReportBatch batch = batches.get(batchId);
+            if (batch == null) {
+                throw new ApiException(SysCode.REPORT_BATCH_NOT_FOUND);
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * 各對象結果清單，依寫出順序列出，逾時未完成者列於最後
+     */
+    private void writeManifest(ZipOutputStream zip, ReportBatch batch, Set<BatchTarget> processed, Map<BatchTarget, String> unreadable) throws IOException {
+        zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+        Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        writer.write("igUserName,status,cached,fileBytes,errorMessage\r\n");
+        List<BatchTarget> ordered = new ArrayList<>(processed);
+        batch.targets.stream().filter(target -> !processed.contains(target)).forEach(ordered::add);
+        for (BatchTarget target : ordered) {
+            ReportJobDto job = target.snapshot();
+            String status = processed.contains(target) ? job.getStatus().name() : "TIMEOUT";
+            String errorMessage = job.getErrorMessage();
+            if (unreadable.containsKey(target)) {
+                status = TaskStatusEnum.FAILED.name();
+                errorMessage = unreadable.get(target);
+            }
+            writer.write(String.join(",", csv(target.igUserName), status, String.valueOf(job.isCached()),
+                    job.getFileBytes() == null ? "" : job.getFileBytes().toString(), csv(errorMessage)));
+            writer.write("\r\n");
+        }
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private void render(ReportJob job, int igUserId) {
+        job.startTime = LocalDateTime.now();
+        job.status = TaskStatusEnum.IN_PROGRESS;
+        long start = System.nanoTime();
+        Path tempFile = null;
+        // 快取鍵(指紋)讀自主庫，產生報表也須讀主庫，避免落後的副本內容以新指紋快取
+        ReplicaRoutingDataSource.bindConsistency(ReadConsistencyEnum.STRONG);
+        try {
+            IgUser igUser = igUserService.findUserByIgUserName(job.igUserName)
+                    .orElseThrow(() -> new ApiException(SysCode.IG_USER_NOT_FOUND_IN_DB));
+            tempFile = Files.createTempFile(cacheDir, igUserId + "-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                excelService.writeExcelForIgUser(igUser, out);
+            }
+            Files.move(tempFile, job.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evictOlderVersions(igUserId, job.file);
+            job.complete(false);
+            crawlerMetrics.record("report.render", 1, System.nanoTime() - start);
+            log.info("報表工作:{} 完成, 用戶:{}, 大小:{}bytes", job.jobId, job.igUserName, job.fileBytes);
+        } catch (Exception e) {
+            job.fail(e);
+            crawlerMetrics.increment("report.render.failed", 1);
+            log.error("報表工作:{} 失敗, 用戶:{}", job.jobId, job.igUserName, e);
+            deleteQuietly(tempFile);
+        } finally {
+            ReplicaRoutingDataSource.clearConsistency();
+            synchronized (jobs) {
+                rendering.remove(job.file.getFileName().toString());
+            }
+            job.done.complete(null);
+        }
+    }
+
+    /**
+     * 刪除同一用戶舊指紋的快取檔，每位用戶只保留最新版本
+     */
+    private void evictOlderVersions(int igUserId, Path latest) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, igUserId + "-*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.equals(latest)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清除用戶:{} 的舊報表快取失敗", igUserId, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("刪除報表檔案失敗:{}", file, e);
+        }
+    }
+
+    /**
+     * 批次中的單一對象，無法提交時 job 為 null 並記錄原因
+     */
+    private record BatchTarget(String igUserName, ReportJob job, String errorMessage) {
+        private ReportJobDto snapshot() {
+            if (job != null) {
+                return job.snapshot();
+            }
+            return ReportJobDto.builder().igUserName(igUserName).status(TaskStatusEnum.FAILED).errorMessage(errorMessage).build();
+        }
+    }
+
+    private static final class ReportBatch {
+        private final String batchId = UUID.randomUUID().toString();
+        private final LocalDateTime submitTime = LocalDateTime.now();
+        private final List<BatchTarget> targets;
+
+        private ReportBatch(List<BatchTarget> targets) {
+            this.targets = targets;
+        }
+
+        private ReportBatchDto snapshot() {
+            List<ReportJobDto> jobs = targets.stream().map(BatchTarget::snapshot).toList();
+            return ReportBatchDto.builder()
+                    .batchId(batchId)
+                    .submitTime(submitTime)
+                    .completed((int) jobs.stream().filter(job -> job.getStatus() == TaskStatusEnum.COMPLETED).count())
+                    .failed((int) jobs.stream().filter(job -> job.getStatus() == TaskStatusEnum.FAILED).count())
+                    .targets(jobs)
+                    .build();
+        }
+    }
+
+    private static final class ReportJob {
+        private final String jobId = UUID.randomUUID().toString();
+        private final String igUserName;
+        private final String fingerprint;
+        private final Path file;
+        private final LocalDateTime submitTime = LocalDateTime.now();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile TaskStatusEnum status = TaskStatusEnum.PENDING;
+        private volatile boolean cached;
+        private volatile Long fileBytes;
+        private volatile LocalDateTime startTime;
+        private volatile LocalDateTime endTime;
+        private volatile String errorMessage;
+
+        private ReportJob(String igUserName, String fingerprint, Path file) {
+            this.igUserName = igUserName;
+            this.fingerprint = fingerprint;
+            this.file = file;
+        }
+
+        private void complete(boolean fromCache) {
+            try {
+                fileBytes = Files.size(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            cached = fromCache;
+            endTime = LocalDateTime.now();
+            status = TaskStatusEnum.COMPLETED;
+            if (fromCache) {
+                done.complete(null);
+            }
+        }
+
+        private void fail(Exception e) {
+            errorMessage = e.getMessage();
+            endTime = LocalDateTime.now();
+            status = TaskStatusEnum.FAILED;
+        }
+
+        private ReportJobDto snapshot() {
+            return ReportJobDto.builder()
+                    .jobId(jobId)
+                    .igUserName(igUserName)
+                    .fingerprint(fingerprint)
+                    .status(status)
+                    .cached(cached)
+                    .fileBytes(fileBytes)
+                    .submitTime(submitTime)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .errorMessage(errorMessage)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.TaskQueue;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.SeenKeyFilterService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 每個任務一個 BloomFilter，依最後使用時間過期釋放
+ * Bloom filter 沒有偽陰性；偽陽性(機率 ingest.seenFilter.fpp)會使極少數未保存的資料被略過
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("seenKeyFilterService")
+public class SeenKeyFilterServiceImpl implements SeenKeyFilterService {
+    private final CrawlerMetrics crawlerMetrics;
+    private final int expectedKeys;
+    private final double fpp;
+    private final Cache<BigInteger, BloomFilter<CharSequence>> filters;
+
+    public SeenKeyFilterServiceImpl(CrawlerMetrics crawlerMetrics,
+                                    @Value("${ingest.seenFilter.expectedKeys:1000000}") int expectedKeys,
+                                    @Value("${ingest.seenFilter.fpp:0.000001}") double fpp,
+                                    @Value("${ingest.seenFilter.expireHours:12}") long expireHours) {
+        this.crawlerMetrics = crawlerMetrics;
+        this.expectedKeys = expectedKeys;
+        this.fpp = fpp;
+        this.filters = CacheBuilder.newBuilder()
+                .expireAfterAccess(Duration.ofHours(expireHours))
+                .build();
+    }
+
+    @Override
+    public <T> List<T> retainUnseen(TaskQueue task, String name, List<T> rows, Function<T, String> keyOf) {
+        if (rows.isEmpty()) return rows;
+        BloomFilter<CharSequence> filter = filterOf(task);
+        Set<String> keysInBatch = new HashSet<>();
+        List<T> unseen = new ArrayList<>(rows.size());
+        synchronized (filter) {
+            for (T row : rows) {
+                String key = keyOf.apply(row);
+                if (!filter.mightContain(key) && keysInBatch.add(key)) {
+                    unseen.add(row);
+                }
+            }
+        }
+        int dropped = rows.size() - unseen.size();
+        if (dropped > 0) {
+            crawlerMetrics.increment("ingest.seenFilter.dropped." + name, dropped);
+            log.info("任務:{} ,{} 已保存過略過{}筆", task.getId(), name, dropped);
+        }
+        return unseen;
+    }
+
+    @Override
+    public <T> void markSeen(TaskQueue task, List<T> rows, Function<T, String> keyOf) {
+        if (rows.isEmpty()) return;
+        BloomFilter<CharSequence> filter = filterOf(task);
+        synchronized (filter) {
+            rows.forEach(row -> filter.put(keyOf.apply(row)));
+        }
+    }
+
+    // private
+
+    private BloomFilter<CharSequence> filterOf(TaskQueue task) {
+        return filters.asMap().computeIfAbsent(task.getId(),
+                id -> BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedKeys, fpp));
+    }
+}
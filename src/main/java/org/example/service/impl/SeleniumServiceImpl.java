@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.bean.enumtype.LanguageEnum;
 import org.example.bean.enumtype.TaskTypeEnum;
 import org.example.entity.Followers;
+import org.example.entity.IgProfile;
 import org.example.entity.TaskQueue;
 import org.example.entity.TaskSendPromoteMessage;
 import org.example.exception.ApiException;
@@ -40,7 +41,7 @@ public class SeleniumServiceImpl implements SeleniumService {
     @Override
     public void crawlFollowerDetailByCssStyle(Followers follower, WebDriver driver) {
         try {
-            searchForAccount(driver, follower.getFollowerUserName());
+            searchForAccount(driver, follower.getProfile().getUserName());
             List<WebElement> elementsSearchByStyle = captureDataByStyle(driver, follower);
             convertData(elementsSearchByStyle, follower);
             log.info("follower = {}", follower);
@@ -243,18 +244,19 @@ public class SeleniumServiceImpl implements SeleniumService {
 
 
     /**
-     * 將元素轉換為對象，並設置到實體中
+     * 將元素轉換為對象，並設置到追蹤者的個人資料中
      */
     private void convertData(List<WebElement> elementsSearchByStyle, Followers follower) {
+        IgProfile profile = follower.getProfile();
         for (int i = 0; i < elementsSearchByStyle.size(); i++) {
             String text = elementsSearchByStyle.get(i).getText();
             log.info("找到元素: " + text);
             if (POST_STRING.contains(text)) {
-                follower.setPostCount(Integer.parseInt(elementsSearchByStyle.get(i - 1).getText()));
+                profile.setPostCount(Integer.parseInt(elementsSearchByStyle.get(i - 1).getText()));
             } else if (FOLLOWING_STRING.contains(text)) {
-                follower.setFollowingCount(Integer.parseInt(elementsSearchByStyle.get(i - 1).getText()));
+                profile.setFollowingCount(Integer.parseInt(elementsSearchByStyle.get(i - 1).getText()));
             } else if (FOLLOWER_STRING.contains(text)) {
-                follower.setFollowerCount(Integer.parseInt(elementsSearchByStyle.get(i - 1).getText()));
+                profile.setFollowerCount(Integer.parseInt(elementsSearchByStyle.get(i - 1).getText()));
             }
         }
     }
@@ -278,7 +280,7 @@ public class SeleniumServiceImpl implements SeleniumService {
 
     private List<WebElement> captureDataByStyle(WebDriver driver, Followers follower) {
         // 使用者名稱元素定位
-        WebElement userNameElement = driver.findElement(By.xpath("//span[text()='" + follower.getFollowerUserName() + "']"));
+        WebElement userNameElement = driver.findElement(By.xpath("//span[text()='" + follower.getProfile().getUserName() + "']"));
         //滑鼠懸停
         Actions action = new Actions(driver);
         action.moveToElement(userNameElement).perform();
@@ -9,6 +9,7 @@ import org.example.service.TaskConfigService;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,4 +45,9 @@ public class TaskConfigServiceImpl implements TaskConfigService {
         return taskConfigDao.findByTaskType(taskType)
                 .orElseThrow(() -> new ApiException(SysCode.TASK_CONFIG_NOT_FOUND));
     }
+
+    @Override
+    public List<TaskConfig> findAllDefined() {
+        return taskConfigDao.findByTaskTypeInOrderById(EnumSet.allOf(TaskTypeEnum.class));
+    }
 }
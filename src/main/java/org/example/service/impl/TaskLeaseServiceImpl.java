@@ -0,0 +1,131 @@
+package org.example.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.config.DataSourceRoute;
+import org.example.config.WorkloadRoutingDataSource;
+import org.example.dao.TaskQueueDao;
+import org.example.entity.TaskQueue;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.TaskLeaseService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 租約到期時間記錄於 task_queue.lease_expires_at，只經由此服務的條件式UPDATE寫入，
+ * 續約不改版本號，不與任務狀態的樂觀鎖互相干擾
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("taskLeaseService")
+@DataSourceRoute(DataSourceWorkloadEnum.CONTROL)
+public class TaskLeaseServiceImpl implements TaskLeaseService {
+    private final TaskQueueDao taskQueueDao;
+    private final CrawlerMetrics crawlerMetrics;
+    private final long leaseMillis;
+    private final AtomicInteger held = new AtomicInteger();
+    private final ScheduledThreadPoolExecutor heartbeat = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "task-lease-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TaskLeaseServiceImpl(TaskQueueDao taskQueueDao, CrawlerMetrics crawlerMetrics,
+                                @Value("${taskQueue.lease.durationMillis:300000}") long leaseMillis) {
+        this.taskQueueDao = taskQueueDao;
+        this.crawlerMetrics = crawlerMetrics;
+        this.leaseMillis = leaseMillis;
+        this.heartbeat.setRemoveOnCancelPolicy(true);
+        crawlerMetrics.registerGauge("task.lease.held", held::get);
+    }
+
+    @Override
+    @Transactional
+    public void grant(TaskQueue task) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMillis));
+        taskQueueDao.grantLease(task.getId(), expiresAt);
+        task.setLeaseExpiresAt(expiresAt);
+    }
+
+    @Override
+    public TaskLease hold(TaskQueue task) {
+        // 每個租約期間續約三次，單次續約失敗(如資料庫短暫不可用)仍在租約期內
+        long intervalMillis = Math.max(1, leaseMillis / 3);
+        Heartbeat lease = new Heartbeat(task.getId());
+        lease.future = heartbeat.scheduleWithFixedDelay(lease, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        held.incrementAndGet();
+        return lease;
+    }
+
+    @Override
+    @Transactional
+    public int recoverExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BigInteger> expired = taskQueueDao.findExpiredLeaseIds(now);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        int recovered = taskQueueDao.releaseExpiredLeases(expired, now);
+        crawlerMetrics.increment("task.lease.recovered", recovered);
+        log.warn("租約過期的執行中任務已改回PAUSED: {} 筆, 任務:{}", recovered, expired);
+        return recovered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    //private
+
+    private final class Heartbeat implements TaskLease, Runnable {
+        private final BigInteger taskId;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean closed;
+
+        private Heartbeat(BigInteger taskId) {
+            this.taskId = taskId;
+        }
+
+        @Override
+        public void run() {
+            try {
+                LocalDateTime expiresAt = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMillis));
+                // 心跳執行緒不經服務代理，自行指定連線池
+                int renewed = WorkloadRoutingDataSource.callWith(DataSourceWorkloadEnum.CONTROL, () -> taskQueueDao.renewLease(taskId, expiresAt));
+                if (renewed == 0) {
+                    // 任務已不在執行中(已被回收或狀態已變更)，不再續約
+                    crawlerMetrics.increment("task.lease.lost", 1);
+                    log.warn("任務:{} 租約續約失敗，任務已不在執行中", taskId);
+                    close();
+                    return;
+                }
+                crawlerMetrics.increment("task.lease.renewed", 1);
+            } catch (Exception e) {
+                log.error("任務:{} 租約續約發生錯誤", taskId, e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            future.cancel(false);
+            held.decrementAndGet();
+        }
+    }
+}
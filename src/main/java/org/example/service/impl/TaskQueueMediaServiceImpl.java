@@ -51,4 +51,15 @@ public class TaskQueueMediaServiceImpl implements TaskQueueMediaService {
     public void deleteByTaskQueue(TaskQueue taskQueue) {
         taskQueueMediaDao.deleteByTaskQueue(taskQueue);
     }
+
+    @Override
+    public void updateNextMediaId(TaskQueueMedia taskQueueMedia, String nextMediaId) {
+        taskQueueMediaDao.updateNextMediaId(taskQueueMedia.getId(), nextMediaId);
+    }
+
+    @Override
+    public void updateStatus(TaskQueueMedia taskQueueMedia, TaskStatusEnum status) {
+        taskQueueMediaDao.updateStatus(taskQueueMedia.getId(), status);
+        taskQueueMedia.setStatus(status);
+    }
 }
@@ -1,19 +1,27 @@
 package org.example.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.TaskLaneDto;
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
 import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.config.DataSourceRoute;
 import org.example.dao.TaskQueueDao;
 import org.example.entity.*;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
 import org.example.service.*;
+import org.example.task.TaskDispatcher;
+import org.example.utils.TransactionUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,6 +30,7 @@ import java.util.Optional;
  */
 @Service("taskQueueService")
 @Slf4j
+@DataSourceRoute(DataSourceWorkloadEnum.CONTROL)
 public class TaskQueueServiceImpl implements TaskQueueService {
 
 
@@ -31,14 +40,20 @@ public class TaskQueueServiceImpl implements TaskQueueService {
     private final MediaService mediaService;
     private final TaskQueueMediaService taskQueueMediaService;
     private final TaskQueueFollowerDetailService taskQueueFollowerDetailService;
+    private final CrawlGenerationService crawlGenerationService;
+    private final TaskDispatcher taskDispatcher;
+    private final TaskLeaseService taskLeaseService;
 
-    public TaskQueueServiceImpl(TaskQueueDao taskQueueDao, TaskConfigService taskConfigService, FollowersService followersService, MediaService mediaService, TaskQueueMediaService taskQueueMediaService, TaskQueueFollowerDetailService taskQueueFollowerDetailService) {
+    public TaskQueueServiceImpl(TaskQueueDao taskQueueDao, TaskConfigService taskConfigService, FollowersService followersService, MediaService mediaService, TaskQueueMediaService taskQueueMediaService, TaskQueueFollowerDetailService taskQueueFollowerDetailService, CrawlGenerationService crawlGenerationService, TaskDispatcher taskDispatcher, TaskLeaseService taskLeaseService) {
         this.taskQueueDao = taskQueueDao;
         this.taskConfigService = taskConfigService;
         this.followersService = followersService;
         this.mediaService = mediaService;
         this.taskQueueMediaService = taskQueueMediaService;
         this.taskQueueFollowerDetailService = taskQueueFollowerDetailService;
+        this.crawlGenerationService = crawlGenerationService;
+        this.taskDispatcher = taskDispatcher;
+        this.taskLeaseService = taskLeaseService;
     }
 
     @Override
@@ -49,9 +64,12 @@ public class TaskQueueServiceImpl implements TaskQueueService {
 
     @Override
     @Transactional
-    public TaskQueue createTaskQueueAndDeleteOldData(IgUser igUser, TaskTypeEnum taskType) {
-        deleteOldDataByTaskTypeAndIgUser(taskType, igUser);
-        return saveTaskQueueAndTaskQueueDetail(igUser, taskType);
+    public TaskQueue createTaskQueue(IgUser igUser, TaskTypeEnum taskType) {
+        TaskQueue taskQueue = saveTaskQueueAndTaskQueueDetail(igUser, taskType);
+        //提交後才通知派發，派發通道才讀得到新任務
+        boolean needLogin = taskQueue.getTaskConfig().isNeedLoginIg();
+        TransactionUtil.runAfterCommit(() -> taskDispatcher.signal(needLogin, 0));
+        return taskQueue;
     }
 
     @Override
@@ -60,30 +78,50 @@ public class TaskQueueServiceImpl implements TaskQueueService {
     }
 
     @Override
-    public Optional<TaskQueue> findFirstTaskQueueByStatusAndNeedLogin(TaskStatusEnum status, boolean needLoginIg) {
-        return taskQueueDao.findFirstByStatusAndTaskConfig_NeedLoginIgOrderBySubmitTimeDesc(status, needLoginIg);
+    @Transactional
+    public Optional<TaskQueue> claimNextTask(TaskConfig taskConfig, List<TaskStatusEnum> statusPriority, int afterIgUserId) {
+        //依狀態優先順序逐一查詢，每次只鎖定一列；列鎖持有到提交，狀態更新隨提交一起寫入
+        for (TaskStatusEnum status : statusPriority) {
+            //先找上次對象之後的對象，到底後繞回最小的對象
+            Optional<TaskQueue> locked = taskQueueDao.lockNextInLane(taskConfig.getId(), status.name(), afterIgUserId)
+                    .or(() -> taskQueueDao.lockFirstInLane(taskConfig.getId(), status.name()));
+            if (locked.isPresent()) {
+                TaskQueue task = locked.get();
+                task.setStatus(TaskStatusEnum.IN_PROGRESS);
+                taskLeaseService.grant(task);
+                return Optional.of(taskQueueDao.save(task));
+            }
+        }
+        return Optional.empty();
     }
 
     @Override
-    public List<TaskQueue> findTasksByStatus(TaskStatusEnum status) {
-        return taskQueueDao.findTaskQueuesByStatus(status);
+    public Map<Long, TaskLaneDto> countByLane(Collection<TaskStatusEnum> queuedStatuses) {
+        List<String> statuses = queuedStatuses.stream().map(Enum::name).toList();
+        Map<Long, TaskLaneDto> lanes = new HashMap<>();
+        for (Object[] row : taskQueueDao.countByLane(statuses)) {
+            long taskConfigId = ((Number) row[0]).longValue();
+            lanes.put(taskConfigId, TaskLaneDto.builder()
+                    .taskConfigId(taskConfigId)
+                    .queued(((Number) row[1]).longValue())
+                    .running(((Number) row[2]).longValue())
+                    .oldestWaitSeconds(row[3] == null ? null : ((Number) row[3]).longValue())
+                    .build());
+        }
+        return lanes;
     }
 
-    @Transactional
     @Override
-    public TaskQueue updateTaskStatus(BigInteger taskId, TaskStatusEnum newStatus) {
-        Optional<TaskQueue> taskQueueOptional = taskQueueDao.findById(taskId);
-        if (taskQueueOptional.isPresent()) {
-            TaskQueue taskQueue = taskQueueOptional.get();
-            taskQueue.setStatus(newStatus);
-            return taskQueueDao.save(taskQueue);
-        }
-        throw new ApiException(SysCode.TASK_STATUS_UPDATE_FAILED);
+    public List<TaskQueue> findTasksByStatus(TaskStatusEnum status) {
+        return taskQueueDao.findTaskQueuesByStatus(status);
     }
 
     @Override
     public Optional<TaskQueue> save(TaskQueue target) {
-        return Optional.of(taskQueueDao.save(target));
+        TaskQueue saved = taskQueueDao.save(target);
+        //脫離狀態的實體經merge後不會更新版本號，同步回傳入的實體，之後的狀態轉換才比對得到
+        target.setVersion(saved.getVersion());
+        return Optional.of(saved);
     }
 
     @Override
@@ -102,8 +140,74 @@ public class TaskQueueServiceImpl implements TaskQueueService {
         return taskQueueDao.saveAll(tasks);
     }
 
+    @Override
+    @Transactional
+    public boolean transition(TaskQueue task, TaskStatusEnum from, TaskStatusEnum to) {
+        return transition(task, from, to, null);
+    }
+
+    @Override
+    @Transactional
+    public boolean transition(TaskQueue task, TaskStatusEnum from, TaskStatusEnum to, String errorMessage) {
+        checkTransition(from, to);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = taskQueueDao.compareAndSetStatus(task.getId(), from.name(), task.getVersion(), to.name(), to.isTerminal(), errorMessage, now);
+        if (updated == 0) {
+            log.warn("任務:{} ,狀態轉換 {} -> {} 失敗，狀態或版本號(version:{})已被變更", task.getId(), from, to, task.getVersion());
+            return false;
+        }
+        task.setStatus(to);
+        task.setVersion(task.getVersion() + 1);
+        task.setModifyTime(now);
+        if (to.isTerminal()) {
+            task.setEndTime(now);
+        }
+        if (errorMessage != null) {
+            task.setErrorMessage(errorMessage);
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public int transitionAll(TaskStatusEnum from, TaskStatusEnum to) {
+        checkTransition(from, to);
+        return taskQueueDao.updateAllStatus(from.name(), to.name(), LocalDateTime.now());
+    }
+
+    @Override
+    public void updateNextIdForSearch(BigInteger taskId, String nextId) {
+        taskQueueDao.updateNextIdForSearch(taskId, nextId);
+    }
+
+    @Override
+    @Transactional
+    public void updateTaskQueueMedia(BigInteger taskId, TaskQueueMedia taskQueueMedia) {
+        taskQueueDao.updateTaskQueueMedia(taskId, taskQueueMedia);
+    }
+
+    @Override
+    @Transactional
+    public void markContentPurged(BigInteger taskId) {
+        taskQueueDao.markContentPurged(taskId, LocalDateTime.now());
+    }
+
+    @Override
+    public Optional<LocalDateTime> findLatestCompletedTime(IgUser igUser, TaskTypeEnum taskType) {
+        return Optional.ofNullable(taskQueueDao.findLatestEndTime(igUser, taskType, TaskStatusEnum.COMPLETED));
+    }
+
     //private
 
+    /**
+     * 檢查狀態轉換表是否允許此轉換
+     */
+    private void checkTransition(TaskStatusEnum from, TaskStatusEnum to) {
+        if (!from.canTransitionTo(to)) {
+            throw new ApiException(SysCode.TASK_STATUS_TRANSITION_NOT_ALLOWED, from + " -> " + to);
+        }
+    }
+
     /**
      * 創建並保存任務
      *
@@ -118,6 +222,7 @@ public class TaskQueueServiceImpl implements TaskQueueService {
                 .taskConfig(taskConfig)
                 .status(taskConfig.mapInitStatusToTaskStatus(taskConfig.getInitStatus()))
                 .submitTime(LocalDateTime.now())
+                .crawlGeneration(crawlGenerationOf(taskType, igUser))
                 .build();
         Optional<TaskQueue> taskQueue = save(newTask);
         if (taskQueue.isEmpty()) {
@@ -130,22 +235,19 @@ public class TaskQueueServiceImpl implements TaskQueueService {
     }
 
     /**
-     * 根據任務類型和IG用戶刪除舊數據
+     * 根據任務類型決定爬取世代，舊資料保留至新世代發布後再於背景清除
      *
      * @param taskType 任務類型
      * @param igUser   IG用戶
+     * @return 世代，非世代化任務為null
      */
-    private void deleteOldDataByTaskTypeAndIgUser(TaskTypeEnum taskType, IgUser igUser) {
+    private Integer crawlGenerationOf(TaskTypeEnum taskType, IgUser igUser) {
         switch (taskType) {
-            case GET_FOLLOWERS:
-                followersService.deleteOldFollowersDataByIgUser(igUser);
-                break;
-            case GET_MEDIA:
-                mediaService.deleteOldMediaDataByIgUserId(igUser.getId());
-                break;
+            case GET_FOLLOWERS, GET_MEDIA:
+                return crawlGenerationService.nextGeneration(igUser, taskType);
             case GET_MEDIA_COMMENT, GET_MEDIA_LIKER, GET_FOLLOWERS_DETAIL, SEND_PROMOTE_MESSAGE,
                  SEND_PROMOTE_MESSAGE_BY_POST_SHARE:
-                break;
+                return null;
             default:
                 throw new ApiException(SysCode.TASK_TYPE_NOT_FOUND);
         }
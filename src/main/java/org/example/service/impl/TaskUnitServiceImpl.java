@@ -0,0 +1,34 @@
+package org.example.service.impl;
+
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.config.DataSourceRoute;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.TaskUnitService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Service("taskUnitService")
+@DataSourceRoute(DataSourceWorkloadEnum.CONTROL)
+public class TaskUnitServiceImpl implements TaskUnitService {
+    private final CrawlerMetrics crawlerMetrics;
+
+    public TaskUnitServiceImpl(CrawlerMetrics crawlerMetrics) {
+        this.crawlerMetrics = crawlerMetrics;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void runInTransaction(String unit, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            crawlerMetrics.record("task.unit." + unit, 1, System.nanoTime() - start);
+        }
+    }
+}
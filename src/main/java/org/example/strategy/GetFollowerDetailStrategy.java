@@ -11,7 +11,6 @@ import org.example.service.*;
 import org.example.utils.CrawlingUtil;
 import org.openqa.selenium.WebDriver;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,22 +21,21 @@ import java.util.List;
 @Slf4j
 @Service("getFollowerDetailStrategy")
 public class GetFollowerDetailStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
     private final TaskQueueFollowerDetailService taskQueueFollowerDetailService;
     private final SeleniumHelperService seleniumHelperService;
     private final SeleniumService seleniumService;
+    private final IgProfileService igProfileService;
 
 
-    protected GetFollowerDetailStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, SeleniumService seleniumService, TaskQueueFollowerDetailService taskQueueFollowerDetailService, SeleniumHelperService seleniumHelperService) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
+    protected GetFollowerDetailStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, SeleniumService seleniumService, TaskQueueFollowerDetailService taskQueueFollowerDetailService, SeleniumHelperService seleniumHelperService, TaskUnitService taskUnitService, IgProfileService igProfileService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.taskQueueFollowerDetailService = taskQueueFollowerDetailService;
         this.seleniumHelperService = seleniumHelperService;
         this.seleniumService = seleniumService;
+        this.igProfileService = igProfileService;
     }
 
     @Override
-    @Transactional
     public void executeTask(TaskQueue taskQueue, LoginAccount loginAccount) {
         WebDriver driver = seleniumService.getDriver();
         seleniumHelperService.waitForSeleniumReady(taskQueue, driver);
@@ -66,14 +64,29 @@ public class GetFollowerDetailStrategy extends TaskStrategyBase implements TaskS
             try {
                 seleniumService.crawlFollowerDetailByCssStyle(taskQueueFollowersDetail.getFollower(), driver);
                 taskQueueFollowersDetail.setStatus(TaskStatusEnum.COMPLETED);
+                saveFollowerDetail(taskQueueFollowersDetail);
                 log.info("粉絲明細:{} ,執行完成", taskQueueFollowersDetail);
                 CrawlingUtil.pauseBetweenRequests(3, 5);
             } catch (ApiException e) {
                 log.error("任務:{} ,執行失敗", taskQueueFollowersDetail, e);
                 taskQueueFollowersDetail.setStatus(TaskStatusEnum.FAILED);
+                saveFollowerDetail(taskQueueFollowersDetail);
             }
         });
-        taskQueueFollowerDetailService.saveAll(taskQueuePage);
+    }
+
+    /**
+     * 每位粉絲爬取完即以短交易寫回個人資料數量與明細狀態，不跨越頁面爬取與等待
+     *
+     * @param taskQueueFollowersDetail 粉絲明細
+     */
+    private void saveFollowerDetail(TaskQueueFollowersDetail taskQueueFollowersDetail) {
+        taskUnitService.runInTransaction("followerDetail", () -> {
+            if (taskQueueFollowersDetail.getStatus() == TaskStatusEnum.COMPLETED) {
+                igProfileService.updateProfileCounts(taskQueueFollowersDetail.getFollower().getProfile());
+            }
+            taskQueueFollowerDetailService.save(taskQueueFollowersDetail);
+        });
     }
 
     /**
@@ -82,15 +95,11 @@ public class GetFollowerDetailStrategy extends TaskStrategyBase implements TaskS
      * @param task 任務
      */
     private void finalizeTask(TaskQueue task) {
-        List<TaskQueueFollowersDetail> taskQueuePage =
-                taskQueueFollowerDetailService.findByTaskQueueAndStatusByPage(TaskStatusEnum.PENDING, task, 0, 1).getContent();
-        if (!taskQueuePage.isEmpty()) {
-            task.pauseTask();
-        } else {
-            task.completeTask();
-        }
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
+        finalizeInTransaction(task, () -> {
+            List<TaskQueueFollowersDetail> taskQueuePage =
+                    taskQueueFollowerDetailService.findByTaskQueueAndStatusByPage(TaskStatusEnum.PENDING, task, 0, 1).getContent();
+            return finishTask(task, taskQueuePage.isEmpty() ? TaskStatusEnum.COMPLETED : TaskStatusEnum.PAUSED);
+        });
     }
 
 }
@@ -1,12 +1,12 @@
 package org.example.strategy;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.entity.LoginAccount;
 import org.example.entity.TaskQueue;
 import org.example.service.*;
 import org.example.utils.CrawlingUtil;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Eric.Lee
@@ -15,17 +15,16 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service("getFollowerStrategy")
 public class GetFollowerStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
     private final FollowersService followersService;
+    private final CrawlGenerationService crawlGenerationService;
 
-    protected GetFollowerStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, FollowersService followersService, TaskQueueMediaService taskQueueMediaService) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
+    protected GetFollowerStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, FollowersService followersService, TaskQueueMediaService taskQueueMediaService, CrawlGenerationService crawlGenerationService, TaskUnitService taskUnitService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.followersService = followersService;
+        this.crawlGenerationService = crawlGenerationService;
     }
 
     @Override
-    @Transactional
     public void executeTask(TaskQueue taskQueue, LoginAccount loginAccount) {
         //登入、檢查結果並更新登入帳號狀態
         loginAndUpdateAccountStatus(loginAccount);
@@ -44,6 +43,7 @@ public class GetFollowerStrategy extends TaskStrategyBase implements TaskStrateg
      * @param task 任務
      */
     private void performTaskWithAccount(TaskQueue task) {
+        crawlGenerationService.ensureGeneration(task);
         instagramService.searchFollowersAndSave(task, task.getNextIdForSearch());
     }
 
@@ -53,25 +53,26 @@ public class GetFollowerStrategy extends TaskStrategyBase implements TaskStrateg
      * @param task 任務
      */
     private void finalizeTask(TaskQueue task) {
-        updateTaskStatusBasedOnCondition(task);
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
+        finalizeInTransaction(task, () -> updateTaskStatusBasedOnCondition(task));
     }
 
     /**
      * 根據條件更新任務狀態
      *
      * @param task 任務
+     * @return 是否轉換成功
      */
     @Override
-    protected void updateTaskStatusBasedOnCondition(TaskQueue task) {
+    protected boolean updateTaskStatusBasedOnCondition(TaskQueue task) {
         if (task.getNextIdForSearch() == null && checkFollowerAmount(task)) {
-            task.completeTask();
-        } else if (task.getNextIdForSearch() != null) {
-            task.pauseTask();
-        } else {
-            task.pendingTask();
+            if (!finishTask(task, TaskStatusEnum.COMPLETED)) {
+                return false;
+            }
+            // 與任務完成同一交易切換讀取端世代
+            crawlGenerationService.publish(task);
+            return true;
         }
+        return finishTask(task, task.getNextIdForSearch() != null ? TaskStatusEnum.PAUSED : TaskStatusEnum.PENDING);
     }
 
     /**
@@ -81,7 +82,7 @@ public class GetFollowerStrategy extends TaskStrategyBase implements TaskStrateg
      * @return 是否已達到結束任務的標準
      */
     private boolean checkFollowerAmount(TaskQueue task) {
-        int crawlerAmount = followersService.countFollowersByIgUserName(task.getIgUser());
+        int crawlerAmount = followersService.countFollowersByIgUserName(task.getIgUser(), task.getCrawlGeneration());
         int dbAmount = task.getIgUser().getFollowerCount();
         log.info("任務:{} ,取追蹤者數量:{},資料庫追蹤者數量:{}", task, dbAmount, crawlerAmount);
         return CrawlingUtil.isCrawlingCloseToRealFollowerCount(crawlerAmount, dbAmount, 0.9);
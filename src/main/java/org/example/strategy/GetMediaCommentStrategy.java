@@ -3,17 +3,13 @@ package org.example.strategy;
 import lombok.extern.slf4j.Slf4j;
 import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.entity.LoginAccount;
-import org.example.entity.Media;
 import org.example.entity.TaskQueue;
 import org.example.entity.TaskQueueMedia;
 import org.example.exception.SysCode;
 import org.example.exception.TaskExecutionException;
 import org.example.service.*;
-import org.example.utils.CrawlingUtil;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 
 /**
  * @author Eric.Lee
@@ -22,24 +18,24 @@ import java.util.List;
 @Slf4j
 @Service("getMediaCommentStrategy")
 public class GetMediaCommentStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
-    private final MediaService mediaService;
     private final MediaCommentService mediaCommentService;
+    private final ReportJobService reportJobService;
 
-    protected GetMediaCommentStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, MediaService mediaService, MediaCommentService mediaCommentService, TaskQueueMediaService taskQueueMediaService) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
-        this.mediaService = mediaService;
+    protected GetMediaCommentStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, MediaCommentService mediaCommentService, TaskQueueMediaService taskQueueMediaService, TaskUnitService taskUnitService, ReportJobService reportJobService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.mediaCommentService = mediaCommentService;
+        this.reportJobService = reportJobService;
     }
 
     @Override
-    @Transactional
     public void executeTask(TaskQueue taskQueue, LoginAccount loginAccount) {
+        //初次執行時於背景分批刪除舊的媒體留言資料，刪除完畢前任務維持待辦
+        if (!purgeOldMediaContentData(taskQueue)) {
+            deferUntilPurged(taskQueue);
+            return;
+        }
         //登入、檢查結果並更新登入帳號狀態
         loginAndUpdateAccountStatus(loginAccount);
-        //刪除舊的媒體留言資料
-        deleteOldMediaContentData(taskQueue);
         //新增或更新taskQueue對於taskQueueMedia的指向
         getTaskQueueMediaAndSetInTaskQueue(taskQueue);
         //執行爬蟲任務
@@ -64,18 +60,27 @@ public class GetMediaCommentStrategy extends TaskStrategyBase implements TaskStr
     }
 
     /**
-     * 刪除舊的媒體留言資料
+     * 舊的媒體留言資料清除完成前(未有持久化的完成標記)提交清除工作
      *
      * @param taskQueue 任務
+     * @return 是否已可開始爬取
      */
-    private void deleteOldMediaContentData(TaskQueue taskQueue) {
-        List<Integer> mediaIds = mediaService.listMediaByIgUserIdAndDateRange(taskQueue.getIgUser(), CrawlingUtil.getEarlyDateTime())
-                .stream().map(Media::getId).toList();
-        log.info("任務:{} ,貼文ID:{}", taskQueue, mediaIds);
-        //初次進行時刪除舊的媒體留言資料
-        if (TaskStatusEnum.PENDING.equals(taskQueue.getStatus())) {
-            mediaCommentService.deleteOldMediaCotentDataByIgUserId(mediaIds);
-        }
+    private boolean purgeOldMediaContentData(TaskQueue taskQueue) {
+        if (taskQueue.getContentPurgedAt() != null) return true;
+        if (!mediaCommentService.purgeOldMediaContentData(taskQueue)) return false;
+        // 清除工作只存在記憶體，完成標記需持久化，程序重啟或任務被回收後才不會重新刪除已寫入的資料
+        taskQueueService.markContentPurged(taskQueue.getId());
+        return true;
+    }
+
+    /**
+     * 舊資料清除中，任務改回待辦，待下次排程再確認
+     *
+     * @param taskQueue 任務
+     */
+    private void deferUntilPurged(TaskQueue taskQueue) {
+        taskQueueService.transition(taskQueue, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.PENDING);
+        log.info("任務:{} ,舊的媒體留言資料清除中，待下次排程繼續", taskQueue.getId());
     }
 
     /**
@@ -93,27 +98,24 @@ public class GetMediaCommentStrategy extends TaskStrategyBase implements TaskStr
      * @param task 任務
      */
     private void finalizeTask(TaskQueue task) {
-        updateTaskStatusBasedOnCondition(task);
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
+        //任務已被其他流程變更時捨棄本次結果，不產生報表
+        if (!finalizeInTransaction(task, () -> updateTaskStatusBasedOnCondition(task))) {
+            return;
+        }
+        //全部貼文留言爬取完畢，完成狀態已提交，依設定預先產生報表
+        if (task.getStatus() == TaskStatusEnum.COMPLETED) {
+            reportJobService.prerender(task.getIgUser());
+        }
     }
 
+    /**
+     * 根據條件更新任務狀態，全部貼文完成時保留子任務
+     *
+     * @param task 任務
+     * @return 是否轉換成功
+     */
     @Override
-    protected void updateTaskStatusBasedOnCondition(TaskQueue task) {
-        //若TaskQueueMedia.nextMediaId不為null，代表仍需繼續查詢，僅暫停任務
-        if (task.getTaskQueueMediaId().getNextMediaId() != null) {
-            task.pauseTask();
-            return;
-        }
-        //若TaskQueueMedia.nextMediaId為null，代表該貼文已查詢完畢，更新子任務狀態為已完成
-        task.getTaskQueueMediaId().setStatus(TaskStatusEnum.COMPLETED);
-        //若TaskQueueMedia.nextMediaId為null，代表已查詢完畢，更新下一筆子任務指針，並暫停任務等待繼續
-        getTaskQueueMediaWhichIsPausedOrPending(task).ifPresentOrElse(taskQueueMedia -> {
-            task.updateTaskQueueMedia(taskQueueMedia);
-            task.pauseTask();
-        }, () -> {
-            task.setTaskQueueMediaId(null);
-            task.completeTask();
-        });
+    protected boolean updateTaskStatusBasedOnCondition(TaskQueue task) {
+        return advanceTaskQueueMedia(task, false);
     }
 }
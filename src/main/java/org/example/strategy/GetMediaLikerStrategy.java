@@ -3,17 +3,13 @@ package org.example.strategy;
 import lombok.extern.slf4j.Slf4j;
 import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.entity.LoginAccount;
-import org.example.entity.Media;
 import org.example.entity.TaskQueue;
 import org.example.entity.TaskQueueMedia;
 import org.example.exception.SysCode;
 import org.example.exception.TaskExecutionException;
 import org.example.service.*;
-import org.example.utils.CrawlingUtil;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 
 /**
  * @author Eric.Lee
@@ -22,24 +18,22 @@ import java.util.List;
 @Slf4j
 @Service("getMediaLikerStrategy")
 public class GetMediaLikerStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
-    private final MediaService mediaService;
     private final MediaLikerService mediaLikerService;
 
-    protected GetMediaLikerStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, MediaService mediaService, MediaLikerService mediaLikerService, TaskQueueMediaService taskQueueMediaService) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
-        this.mediaService = mediaService;
+    protected GetMediaLikerStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, MediaLikerService mediaLikerService, TaskQueueMediaService taskQueueMediaService, TaskUnitService taskUnitService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.mediaLikerService = mediaLikerService;
     }
 
     @Override
-    @Transactional
     public void executeTask(TaskQueue taskQueue, LoginAccount loginAccount) {
+        //初次執行時於背景分批刪除舊的媒體按讚資料，刪除完畢前任務維持待辦
+        if (!purgeOldMediaContentData(taskQueue)) {
+            deferUntilPurged(taskQueue);
+            return;
+        }
         //登入、檢查結果並更新登入帳號狀態
         loginAndUpdateAccountStatus(loginAccount);
-        //刪除舊的媒體留言資料
-        deleteOldMediaContentData(taskQueue);
         //新增或更新taskQueue對於taskQueueMedia的指向
         getTaskQueueMediaAndSetInTaskQueue(taskQueue);
         //執行爬蟲任務
@@ -64,18 +58,27 @@ public class GetMediaLikerStrategy extends TaskStrategyBase implements TaskStrat
     }
 
     /**
-     * 刪除舊的媒體按讚資料
+     * 舊的媒體按讚資料清除完成前(未有持久化的完成標記)提交清除工作
      *
      * @param taskQueue 任務
+     * @return 是否已可開始爬取
      */
-    private void deleteOldMediaContentData(TaskQueue taskQueue) {
-        if (!TaskStatusEnum.PENDING.equals(taskQueue.getStatus())) return;
+    private boolean purgeOldMediaContentData(TaskQueue taskQueue) {
+        if (taskQueue.getContentPurgedAt() != null) return true;
+        if (!mediaLikerService.purgeOldMediaLikerData(taskQueue)) return false;
+        // 清除工作只存在記憶體，完成標記需持久化，程序重啟或任務被回收後才不會重新刪除已寫入的資料
+        taskQueueService.markContentPurged(taskQueue.getId());
+        return true;
+    }
 
-        //初次進行時刪除舊的媒體留言資料
-        List<Integer> mediaIds = mediaService.listMediaByIgUserIdAndDateRange(taskQueue.getIgUser(), CrawlingUtil.getEarlyDateTime())
-                .stream().map(Media::getId).toList();
-        log.info("任務:{} ,貼文ID:{}", taskQueue, mediaIds);
-        mediaLikerService.deleteOldMediaLikerByIgUserId(mediaIds);
+    /**
+     * 舊資料清除中，任務改回待辦，待下次排程再確認
+     *
+     * @param taskQueue 任務
+     */
+    private void deferUntilPurged(TaskQueue taskQueue) {
+        taskQueueService.transition(taskQueue, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.PENDING);
+        log.info("任務:{} ,舊的媒體按讚資料清除中，待下次排程繼續", taskQueue.getId());
     }
 
     /**
@@ -84,7 +87,7 @@ public class GetMediaLikerStrategy extends TaskStrategyBase implements TaskStrat
      * @param task 任務
      */
     private void performTaskWithAccount(TaskQueue task) {
-        instagramService.searchMediaLikersAndSave(task, task.getNextIdForSearch());
+        instagramService.searchMediaLikersAndSave(task, task.getTaskQueueMediaId().getNextMediaId());
     }
 
     /**
@@ -93,9 +96,7 @@ public class GetMediaLikerStrategy extends TaskStrategyBase implements TaskStrat
      * @param task 任務
      */
     private void finalizeTask(TaskQueue task) {
-        updateTaskStatusBasedOnCondition(task);
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
+        finalizeInTransaction(task, () -> updateTaskStatusBasedOnCondition(task));
     }
 
 }
@@ -1,12 +1,12 @@
 package org.example.strategy;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.entity.LoginAccount;
 import org.example.entity.TaskQueue;
 import org.example.service.*;
 import org.example.utils.CrawlingUtil;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -17,17 +17,16 @@ import java.time.LocalDateTime;
 @Slf4j
 @Service("getMediaStrategy")
 public class GetMediaStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
     private final MediaService mediaService;
+    private final CrawlGenerationService crawlGenerationService;
 
-    protected GetMediaStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, MediaService mediaService, TaskQueueMediaService taskQueueMediaService) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
+    protected GetMediaStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, MediaService mediaService, TaskQueueMediaService taskQueueMediaService, CrawlGenerationService crawlGenerationService, TaskUnitService taskUnitService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.mediaService = mediaService;
+        this.crawlGenerationService = crawlGenerationService;
     }
 
     @Override
-    @Transactional
     public void executeTask(TaskQueue taskQueue, LoginAccount loginAccount) {
         //登入、檢查結果並更新登入帳號狀態
         loginAndUpdateAccountStatus(loginAccount);
@@ -46,6 +45,7 @@ public class GetMediaStrategy extends TaskStrategyBase implements TaskStrategy {
      * @param task 任務
      */
     private void performTaskWithAccount(TaskQueue task) {
+        crawlGenerationService.ensureGeneration(task);
         instagramService.searchUserMediasAndSave(task, task.getNextIdForSearch());
     }
 
@@ -55,25 +55,26 @@ public class GetMediaStrategy extends TaskStrategyBase implements TaskStrategy {
      * @param task 任務
      */
     private void finalizeTask(TaskQueue task) {
-        updateTaskStatusBasedOnCondition(task);
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
+        finalizeInTransaction(task, () -> updateTaskStatusBasedOnCondition(task));
     }
 
     /**
      * 根據條件更新任務狀態
      *
      * @param task 任務
+     * @return 是否轉換成功
      */
     @Override
-    protected void updateTaskStatusBasedOnCondition(TaskQueue task) {
+    protected boolean updateTaskStatusBasedOnCondition(TaskQueue task) {
         if (checkMedia(task)) {
-            task.completeTask();
-        } else if (task.getNextIdForSearch() != null) {
-            task.pauseTask();
-        } else {
-            task.pendingTask();
+            if (!finishTask(task, TaskStatusEnum.COMPLETED)) {
+                return false;
+            }
+            // 與任務完成同一交易切換讀取端世代
+            crawlGenerationService.publish(task);
+            return true;
         }
+        return finishTask(task, task.getNextIdForSearch() != null ? TaskStatusEnum.PAUSED : TaskStatusEnum.PENDING);
     }
 
     /**
@@ -83,14 +84,14 @@ public class GetMediaStrategy extends TaskStrategyBase implements TaskStrategy {
      * @return 是否已達到結束任務的標準
      */
     private boolean checkMedia(TaskQueue task) {
-        int crawlerAmount = mediaService.countMediaByIgUser(task.getIgUser());
+        int crawlerAmount = mediaService.countMediaByIgUser(task.getIgUser(), task.getCrawlGeneration());
         int dbAmount = task.getIgUser().getMediaCount();
         log.info("任務:{} ,取得貼文數量:{},資料庫貼文數量:{}", task, dbAmount, crawlerAmount);
 
         // 計算當前日期-1年
         LocalDateTime cutoffDate = LocalDateTime.now().minusYears(1);
         // 檢查是否存在最早的貼文日期大於當前日期-1年
-        boolean existsEarlyMedia = mediaService.existsEarlyMediaBeforeCutoff(task.getIgUser(), cutoffDate);
+        boolean existsEarlyMedia = mediaService.existsEarlyMediaBeforeCutoff(task.getIgUser(), task.getCrawlGeneration(), cutoffDate);
         boolean isCrawlingCloseToRealFollowerCount = CrawlingUtil.isCrawlingCloseToRealFollowerCount(crawlerAmount, dbAmount, 1.0);
         log.info("任務:{} ,是否已爬到最早的貼文日期，大於當前日期-1年 existsEarlyMedia:{}", task, existsEarlyMedia);
         log.info("是否已達到設定貼文比例 = {}", isCrawlingCloseToRealFollowerCount);
@@ -29,14 +29,12 @@ import java.util.List;
 @Slf4j
 @Service("sendPromotionMessageByPostShareStrategy")
 public class SendPromotionMessageByPostShareStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
     private final TaskSendPromoteMessageService taskSendPromoteMessageService;
     private final SeleniumService seleniumService;
     private final ConfigCache configCache;
 
-    protected SendPromotionMessageByPostShareStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, SeleniumService seleniumService, TaskSendPromoteMessageService taskSendPromoteMessageService, ConfigCache configCache) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
+    protected SendPromotionMessageByPostShareStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, SeleniumService seleniumService, TaskSendPromoteMessageService taskSendPromoteMessageService, ConfigCache configCache, TaskUnitService taskUnitService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.taskSendPromoteMessageService = taskSendPromoteMessageService;
         this.seleniumService = seleniumService;
         this.configCache = configCache;
@@ -102,13 +100,10 @@ public class SendPromotionMessageByPostShareStrategy extends TaskStrategyBase im
      */
     private void finalizeTask(TaskQueue task) {
         List<TaskSendPromoteMessage> promoteList = taskSendPromoteMessageService.findByTaskQueueAndStatus(task, TaskStatusEnum.PENDING, Pageable.unpaged());
-        if (!promoteList.isEmpty()) {
-            task.pauseDailyTask();
-        } else {
-            task.completeDailyTask();
+        //與訊息發送結果同一交易；任務已被其他流程變更時僅捨棄狀態轉換，已發送的訊息結果照常提交
+        if (finishTask(task, promoteList.isEmpty() ? TaskStatusEnum.DAILY_COMPLETED : TaskStatusEnum.DAILY_PAUSED)) {
+            log.info("任務已儲存:{}", task);
         }
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
     }
 
     public void bringToFrontChrome() {
@@ -25,14 +25,12 @@ import java.util.List;
 @Slf4j
 @Service("sendPromotionMessageStrategy")
 public class SendPromotionMessageStrategy extends TaskStrategyBase implements TaskStrategy {
-    private final TaskQueueService taskQueueService;
     private final TaskSendPromoteMessageService taskSendPromoteMessageService;
     private final SeleniumHelperService seleniumHelperService;
     private final SeleniumService seleniumService;
 
-    protected SendPromotionMessageStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, SeleniumService seleniumService, TaskSendPromoteMessageService taskSendPromoteMessageService, SeleniumHelperService seleniumHelperService) {
-        super(instagramService, loginService, taskQueueMediaService);
-        this.taskQueueService = taskQueueService;
+    protected SendPromotionMessageStrategy(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, SeleniumService seleniumService, TaskSendPromoteMessageService taskSendPromoteMessageService, SeleniumHelperService seleniumHelperService, TaskUnitService taskUnitService) {
+        super(instagramService, loginService, taskQueueService, taskQueueMediaService, taskUnitService);
         this.taskSendPromoteMessageService = taskSendPromoteMessageService;
         this.seleniumHelperService = seleniumHelperService;
         this.seleniumService = seleniumService;
@@ -83,12 +81,9 @@ public class SendPromotionMessageStrategy extends TaskStrategyBase implements Ta
      */
     private void finalizeTask(TaskQueue task) {
         List<TaskSendPromoteMessage> promoteList = taskSendPromoteMessageService.findByTaskQueueAndStatus(task, TaskStatusEnum.PENDING, Pageable.unpaged());
-        if (!promoteList.isEmpty()) {
-            task.pauseTask();
-        } else {
-            task.completeTask();
+        //與訊息發送結果同一交易；任務已被其他流程變更時僅捨棄狀態轉換，已發送的訊息結果照常提交
+        if (finishTask(task, promoteList.isEmpty() ? TaskStatusEnum.COMPLETED : TaskStatusEnum.PAUSED)) {
+            log.info("任務已儲存:{}", task);
         }
-        taskQueueService.save(task);
-        log.info("任務已儲存:{}", task);
     }
 }
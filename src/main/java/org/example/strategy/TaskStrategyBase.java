@@ -10,11 +10,22 @@ import org.example.exception.TaskExecutionException;
 import org.example.service.InstagramService;
 import org.example.service.LoginService;
 import org.example.service.TaskQueueMediaService;
+import org.example.service.TaskQueueService;
+import org.example.service.TaskUnitService;
+import org.example.utils.TransactionUtil;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 
 /**
+ * 任務策略共用邏輯
+ * <p>
+ * executeTask 不包覆交易，登入、IG請求與請求間的等待期間不持有資料庫連線；
+ * 領取任務、每頁資料與游標、結束判斷各自是獨立的短交易(領取見 CheckTaskQueue，每頁見 CrawlCheckpointService)，
+ * 結束判斷請透過 {@link #finalizeInTransaction} 執行，狀態一律以 {@link #finishTask} 由進行中轉換，不儲存任務實體。
+ *
  * @author Eric.Lee
  * Date: 2024/2/27
  */
@@ -24,13 +35,17 @@ public abstract class TaskStrategyBase implements TaskStrategy {
 
     protected final InstagramService instagramService;
     protected final LoginService loginService;
+    protected final TaskQueueService taskQueueService;
     protected final TaskQueueMediaService taskQueueMediaService;
+    protected final TaskUnitService taskUnitService;
 
 
-    protected TaskStrategyBase(InstagramService instagramService, LoginService loginService, TaskQueueMediaService taskQueueMediaService) {
+    protected TaskStrategyBase(InstagramService instagramService, LoginService loginService, TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, TaskUnitService taskUnitService) {
         this.instagramService = instagramService;
         this.loginService = loginService;
+        this.taskQueueService = taskQueueService;
         this.taskQueueMediaService = taskQueueMediaService;
+        this.taskUnitService = taskUnitService;
     }
 
     protected void loginAndUpdateAccountStatus(LoginAccount loginAccount) {
@@ -64,28 +79,86 @@ public abstract class TaskStrategyBase implements TaskStrategy {
                 .or(() -> taskQueueMediaService.findByTaskQueueAndStatus(taskQueue, TaskStatusEnum.PENDING));
     }
 
+    /**
+     * 於獨立的短交易中執行結束判斷
+     *
+     * @param task      任務
+     * @param finalizer 結束判斷，回傳狀態是否轉換成功
+     * @return 是否轉換成功，false代表本次執行結果已捨棄
+     */
+    protected boolean finalizeInTransaction(TaskQueue task, BooleanSupplier finalizer) {
+        AtomicBoolean finished = new AtomicBoolean();
+        taskUnitService.runInTransaction("finalize", () -> finished.set(finalizer.getAsBoolean()));
+        if (finished.get()) {
+            log.info("任務已儲存:{}", task);
+        }
+        return finished.get();
+    }
+
+    /**
+     * 結束本次執行，任務由進行中轉換為 to(比對領取時的版本號)
+     *
+     * @param task 任務
+     * @param to   新狀態
+     * @return 是否轉換成功，false代表任務已被其他流程變更(租約失效後被回收)，本次執行結果應捨棄；
+     * 任務維持進行中，由 TaskExecutionService 視為租約失效處理
+     */
+    protected boolean finishTask(TaskQueue task, TaskStatusEnum to) {
+        return taskQueueService.transition(task, TaskStatusEnum.IN_PROGRESS, to);
+    }
+
     /**
      * 根據條件更新任務狀態
      *
      * @param task 任務
+     * @return 是否轉換成功
      */
+    protected boolean updateTaskStatusBasedOnCondition(TaskQueue task) {
+        return advanceTaskQueueMedia(task, true);
+    }
 
-    protected void updateTaskStatusBasedOnCondition(TaskQueue task) {
+    /**
+     * 依媒體子任務進度轉換任務狀態並更新子任務指針，於呼叫端的交易內寫入
+     *
+     * @param task              任務
+     * @param deleteOnCompleted 全部子任務完成時是否刪除子任務
+     * @return 是否轉換成功，失敗時標記交易回滾
+     */
+    protected boolean advanceTaskQueueMedia(TaskQueue task, boolean deleteOnCompleted) {
+        TaskQueueMedia current = task.getTaskQueueMediaId();
         //若TaskQueueMedia.nextMediaId不為null，代表仍需繼續查詢，僅暫停任務
-        if (task.getTaskQueueMediaId().getNextMediaId() != null) {
-            task.pauseTask();
-            return;
+        if (current.getNextMediaId() != null) {
+            return finishOnTaskQueueMedia(task, current, TaskStatusEnum.PAUSED);
         }
-        //若TaskQueueMedia.nextMediaId為null，代表該貼文已查詢完畢，更新子任務狀態為已完成
-        task.getTaskQueueMediaId().setStatus(TaskStatusEnum.COMPLETED);
-        //若TaskQueueMedia.nextMediaId為null，代表已查詢完畢，更新下一筆子任務指針，並暫停任務等待繼續
-        getTaskQueueMediaWhichIsPausedOrPending(task).ifPresentOrElse(taskQueueMedia -> {
-            task.updateTaskQueueMedia(taskQueueMedia);
-            task.pauseTask();
-        }, () -> {
-            //若無下一筆子任務，代表已查詢完畢，更新任務狀態為已完成，並刪除所有子任務
+        //若TaskQueueMedia.nextMediaId為null，代表該貼文已查詢完畢，更新子任務狀態為已完成(先寫入，查詢下一筆子任務時不會再取到同一筆)
+        taskQueueMediaService.updateStatus(current, TaskStatusEnum.COMPLETED);
+        //更新下一筆子任務指針，並暫停任務等待繼續
+        Optional<TaskQueueMedia> next = getTaskQueueMediaWhichIsPausedOrPending(task);
+        if (next.isPresent()) {
+            return finishOnTaskQueueMedia(task, next.get(), TaskStatusEnum.PAUSED);
+        }
+        //若無下一筆子任務，代表已查詢完畢，更新任務狀態為已完成，先解除指向再刪除子任務
+        if (!finishOnTaskQueueMedia(task, null, TaskStatusEnum.COMPLETED)) {
+            return false;
+        }
+        if (deleteOnCompleted) {
             taskQueueMediaService.deleteByTaskQueue(task);
-            task.completeTask();
-        });
+        }
+        return true;
+    }
+
+    //private
+
+    /**
+     * 轉換任務狀態並記錄子任務指針；轉換失敗時已寫入的子任務狀態一併回滾
+     */
+    private boolean finishOnTaskQueueMedia(TaskQueue task, TaskQueueMedia taskQueueMedia, TaskStatusEnum to) {
+        if (!finishTask(task, to)) {
+            TransactionUtil.markRollbackOnly();
+            return false;
+        }
+        taskQueueService.updateTaskQueueMedia(task.getId(), taskQueueMedia);
+        task.updateTaskQueueMedia(taskQueueMedia);
+        return true;
     }
 }
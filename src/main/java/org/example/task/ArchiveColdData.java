@@ -0,0 +1,42 @@
+package org.example.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.service.ArchiveService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service
+public class ArchiveColdData {
+
+    @Value("${archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    private final ArchiveService archiveService;
+
+    public ArchiveColdData(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    /**
+     * 每日離峰時段將閒置用戶的留言/按讚資料移至冷表
+     */
+    @Scheduled(cron = "${archive.cron:0 30 3 * * ?}", zone = "Asia/Taipei")
+    public void archiveInactiveTargets() {
+        if (!archiveEnabled) return;
+        log.info("開始封存閒置用戶資料");
+        archiveService.listArchivableTables().forEach(table -> archiveService.findInactiveTargets(table).forEach(igUserId -> {
+            try {
+                archiveService.archive(igUserId, table);
+            } catch (Exception e) {
+                log.error("用戶:{} ,{} 封存失敗", igUserId, table, e);
+            }
+        }));
+        log.info("閒置用戶資料封存結束");
+    }
+}
@@ -21,9 +21,11 @@ public class CheckLoginAccount {
     private int accountColdtime;
 
     private final LoginService loginService;
+    private final TaskDispatcher taskDispatcher;
 
-    public CheckLoginAccount(LoginService loginService) {
+    public CheckLoginAccount(LoginService loginService, TaskDispatcher taskDispatcher) {
         this.loginService = loginService;
+        this.taskDispatcher = taskDispatcher;
     }
 
     // 每小時和半小時執行一次，例如 01:00, 01:30, 02:00, 02:30...
@@ -37,5 +39,9 @@ public class CheckLoginAccount {
                 LoginAccountStatusEnum.NORMAL,
                 LoginAccountStatusEnum.EXHAUSTED);
         log.info("已更新 {} 個登入帳號狀態為 NORMAL", updatedCount);
+        if (updatedCount > 0) {
+            //有帳號恢復可用，通知需登入任務的派發通道
+            taskDispatcher.signal(true, 0);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package org.example.task;
+
+import org.example.config.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 定期更新讀取副本的複寫延遲，未啟用讀取副本時不執行
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Service
+public class CheckReplicaLag {
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    public CheckReplicaLag(ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lagCheckMillis:5000}")
+    public void refreshReplicaLag() {
+        replicaRoutingDataSource.ifAvailable(ReplicaRoutingDataSource::refreshLag);
+    }
+}
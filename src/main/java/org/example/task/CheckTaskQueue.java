@@ -7,13 +7,16 @@ import org.example.entity.TaskQueue;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
 import org.example.service.LoginService;
+import org.example.service.TaskLeaseService;
 import org.example.service.TaskQueueService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * @author Eric.Lee
@@ -25,11 +28,26 @@ public class CheckTaskQueue extends BaseQueue {
     private final TaskQueueService taskQueueService;
     private final LoginService loginService;
     private final TaskExecutionService taskExecutionService;
+    private final TaskDispatcher taskDispatcher;
+    private final TaskLeaseService taskLeaseService;
+    private final TaskLaneScheduler taskLaneScheduler;
 
-    public CheckTaskQueue(TaskQueueService taskQueueService, LoginService loginService, TaskExecutionService taskExecutionService) {
+    public CheckTaskQueue(TaskQueueService taskQueueService, LoginService loginService, TaskExecutionService taskExecutionService, TaskDispatcher taskDispatcher, TaskLeaseService taskLeaseService, TaskLaneScheduler taskLaneScheduler) {
         this.taskQueueService = taskQueueService;
         this.loginService = loginService;
         this.taskExecutionService = taskExecutionService;
+        this.taskDispatcher = taskDispatcher;
+        this.taskLeaseService = taskLeaseService;
+        this.taskLaneScheduler = taskLaneScheduler;
+    }
+
+    /**
+     * 應用啟動完成後註冊派發通道，之後由狀態變化通知派發
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDispatcher() {
+        taskDispatcher.register(true, this::checkLoginTasks);
+        taskDispatcher.register(false, this::checkNonLoginTasks);
     }
 
     /**
@@ -38,26 +56,43 @@ public class CheckTaskQueue extends BaseQueue {
     @Scheduled(cron = "0 0 0,12 * * ?", zone = "Asia/Taipei")
     public void modifyDailyTaskStatus() {
         log.info("將所有DAILY_PAUSED的任務狀態修改為DAILY_PENDING");
-        List<TaskQueue> tasks = taskQueueService.findTasksByStatus(TaskStatusEnum.DAILY_PAUSED);
-        tasks.forEach(task -> task.setStatus(TaskStatusEnum.DAILY_PENDING));
-        taskQueueService.saveAll(tasks);
+        int updated = taskQueueService.transitionAll(TaskStatusEnum.DAILY_PAUSED, TaskStatusEnum.DAILY_PENDING);
+        log.info("已重置 {} 個每日任務", updated);
+        taskDispatcher.signalAll();
+    }
+
+    /**
+     * 保底輪詢，補上遺漏的通知(如帳號冷卻結束、其他程序寫入的任務)
+     */
+    @Scheduled(fixedDelayString = "${taskQueue.safetyNetDelay:300000}", initialDelayString = "${taskQueue.safetyNetDelay:300000}")
+    public void safetyNet() {
+        taskDispatcher.signalAll();
+    }
+
+    /**
+     * 回收租約過期的執行中任務(程序中止時留下的IN_PROGRESS)，改回PAUSED後通知派發
+     */
+    @Scheduled(fixedDelayString = "${taskQueue.lease.reapDelay:60000}", initialDelayString = "${taskQueue.lease.reapDelay:60000}")
+    public void recoverExpiredLeases() {
+        if (taskLeaseService.recoverExpired() > 0) {
+            taskDispatcher.signalAll();
+        }
     }
 
-    @Scheduled(fixedDelayString = "${taskQueue.checkDelay:10000}")
-    public void checkLoginTasks() {
+    public boolean checkLoginTasks() {
         log.info("開始檢查任務佇列");
-        if (!checkTaskEnabled()) return;
-        checkAndExecuteTasks(true, Arrays.asList(TaskStatusEnum.PAUSED, TaskStatusEnum.PENDING));
+        if (!checkTaskEnabled()) return false;
+        boolean executed = checkAndExecuteTasks(true, Arrays.asList(TaskStatusEnum.PAUSED, TaskStatusEnum.PENDING));
         log.info("登入需求任務佇列檢查結束");
+        return executed;
     }
 
-    @Scheduled(fixedDelayString = "${taskQueue.checkDelay:10000}")
-    public void checkNonLoginTasks() {
+    public boolean checkNonLoginTasks() {
         log.info("開始檢查任務佇列");
-        if (!checkTaskEnabled()) return;
-        checkAndExecuteTasks(false, Arrays.asList(TaskStatusEnum.DAILY_PENDING, TaskStatusEnum.PAUSED, TaskStatusEnum.PENDING));
+        if (!checkTaskEnabled()) return false;
+        boolean executed = checkAndExecuteTasks(false, Arrays.asList(TaskStatusEnum.DAILY_PENDING, TaskStatusEnum.PAUSED, TaskStatusEnum.PENDING));
         log.info("非登入需求任務佇列檢查結束");
-
+        return executed;
     }
 
 
@@ -66,21 +101,29 @@ public class CheckTaskQueue extends BaseQueue {
     /**
      * 檢查並執行任務
      *
-     * @param needLogin 是否需要登入
+     * @param needLogin  是否需要登入
+     * @param statusList 可領取的任務狀態(依優先順序)
+     * @return 是否有執行任務
      */
-    private void checkAndExecuteTasks(boolean needLogin, List<TaskStatusEnum> statusList) {
-        if (needLogin && isInProgressTaskExists(needLogin)) return;
+    private boolean checkAndExecuteTasks(boolean needLogin, List<TaskStatusEnum> statusList) {
+        if (needLogin && isInProgressTaskExists(needLogin)) return false;
 
         try {
             LoginAccount loginAccount = needLogin ? loginService.getLoginAccount() : null;
-            TaskQueue task = getTask(statusList, needLogin);
-            updateAndExecuteTask(task, loginAccount);
+            TaskQueue task = taskLaneScheduler.claimNext(needLogin, statusList)
+                    .orElseThrow(() -> new ApiException(SysCode.NO_TASKS_TO_PERFORM));
+            taskExecutionService.executeTask(task, loginAccount);
+            return true;
         } catch (ApiException e) {
             log.info("任務序列發生預期事件 {}", e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            //任務已被其他流程變更(如租約過期被回收)，僅影響此任務，不暫停任務排程
+            log.warn("任務序列的任務已被其他流程變更, 略過此任務", e);
         } catch (Exception e) {
             log.error("任務序列發生特殊錯誤事件, 暫停任務排程, 請手動處理錯誤", e);
             stopBaseQueue();
         }
+        return false;
     }
 
     /**
@@ -92,34 +135,9 @@ public class CheckTaskQueue extends BaseQueue {
         List<TaskStatusEnum> statuses = List.of(TaskStatusEnum.IN_PROGRESS);
         boolean exists = taskQueueService.checkTasksByStatusAndNeedLogin(statuses, needLogin);
         if (exists) {
-            log.info("有需要登入(NEED LOGIN IG)的任務正在執行中(IN_PROGRESS)，不執行新任務");
+            log.info("有需要登入(NEED LOGIN IG)的任務正在執行中(IN_PROGRESS)，不執行新任務(程序中止留下的任務於租約過期後回收)");
         }
         return exists;
     }
 
-    /**
-     * 根據任務狀態列表statusList查詢須執行的任務是否存在
-     *
-     * @param statusList 任務狀態列表
-     */
-    private TaskQueue getTask(List<TaskStatusEnum> statusList, boolean needLogin) {
-        return statusList.stream()
-                .map(status -> taskQueueService.findFirstTaskQueueByStatusAndNeedLogin(status, needLogin))
-                .flatMap(Optional::stream)
-                .findFirst()
-                .orElseThrow(() -> new ApiException(SysCode.NO_TASKS_TO_PERFORM));
-    }
-
-    /**
-     * 先更新任務狀態，再執行任務
-     *
-     * @param taskQueue 任務
-     */
-    private void updateAndExecuteTask(TaskQueue taskQueue, LoginAccount loginAccount) {
-        // 更新任務狀態為IN_PROGRESS
-        TaskQueue latestTaskQueue = taskQueueService.updateTaskStatus(taskQueue.getId(), TaskStatusEnum.IN_PROGRESS);
-        // 執行任務
-        taskExecutionService.executeTask(latestTaskQueue, loginAccount);
-    }
-
 }
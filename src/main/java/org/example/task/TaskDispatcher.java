@@ -0,0 +1,170 @@
+package org.example.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.entity.TaskQueue;
+import org.example.metrics.CrawlerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 事件驅動的任務派發
+ * 需登入與不需登入的任務各有一條派發通道(單一執行緒)，平時閒置不查詢資料庫；
+ * 新任務建立、任務結束、每日任務重置等狀態變化時發出通知，通道隨即查詢並執行下一個任務。
+ * 任務暫停(分頁爬取中)時延遲 taskQueue.checkDelay 後才再派發，維持原本輪詢間隔對爬取速度的節制
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("taskDispatcher")
+public class TaskDispatcher {
+    private final CrawlerMetrics crawlerMetrics;
+    private final long resumeDelayMillis;
+    private final Map<Boolean, Lane> lanes = new ConcurrentHashMap<>();
+
+    public TaskDispatcher(CrawlerMetrics crawlerMetrics,
+                          @Value("${taskQueue.checkDelay:10000}") long resumeDelayMillis) {
+        this.crawlerMetrics = crawlerMetrics;
+        this.resumeDelayMillis = resumeDelayMillis;
+    }
+
+    /**
+     * 註冊並啟動派發通道，啟動後立即派發一次
+     *
+     * @param needLogin    是否為需登入任務的通道
+     * @param dispatchOnce 查詢並執行一個任務，回傳是否有執行任務
+     */
+    public void register(boolean needLogin, BooleanSupplier dispatchOnce) {
+        Lane lane = new Lane(needLogin ? "login" : "nonLogin", dispatchOnce, crawlerMetrics);
+        Lane previous = lanes.put(needLogin, lane);
+        if (previous != null) {
+            previous.stop();
+        }
+        lane.start();
+        lane.signal(0);
+    }
+
+    /**
+     * 通知通道派發
+     *
+     * @param needLogin   是否為需登入任務的通道
+     * @param delayMillis 延遲時間(毫秒)，已有更早的派發時不延後
+     */
+    public void signal(boolean needLogin, long delayMillis) {
+        Lane lane = lanes.get(needLogin);
+        if (lane != null) {
+            lane.signal(delayMillis);
+        }
+    }
+
+    /**
+     * 通知所有通道立即派發
+     */
+    public void signalAll() {
+        lanes.values().forEach(lane -> lane.signal(0));
+    }
+
+    /**
+     * 任務執行結束後通知所屬通道：已完成或失敗時立即派發下一個任務，其餘(暫停、待續)延遲後再派發
+     *
+     * @param task 任務
+     */
+    public void onTaskFinished(TaskQueue task) {
+        TaskStatusEnum status = task.getStatus();
+        long delay = status == TaskStatusEnum.COMPLETED || status == TaskStatusEnum.FAILED ? 0 : resumeDelayMillis;
+        signal(task.getTaskConfig().isNeedLoginIg(), delay);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(Lane::stop);
+    }
+
+    //private
+
+    private static final class Lane implements Runnable {
+        private final String name;
+        private final BooleanSupplier dispatchOnce;
+        private final CrawlerMetrics crawlerMetrics;
+        private final Thread thread;
+        private boolean pending;
+        private long wakeAtNanos;
+        private volatile boolean stopped;
+
+        private Lane(String name, BooleanSupplier dispatchOnce, CrawlerMetrics crawlerMetrics) {
+            this.name = name;
+            this.dispatchOnce = dispatchOnce;
+            this.crawlerMetrics = crawlerMetrics;
+            this.thread = new Thread(this, "task-dispatch-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void stop() {
+            stopped = true;
+            thread.interrupt();
+        }
+
+        private synchronized void signal(long delayMillis) {
+            long target = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+            if (!pending || target - wakeAtNanos < 0) {
+                pending = true;
+                wakeAtNanos = target;
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!stopped) {
+                long lagNanos;
+                try {
+                    lagNanos = awaitWake();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    boolean executed = dispatchOnce.getAsBoolean();
+                    crawlerMetrics.increment("task.dispatch." + name + (executed ? ".executed" : ".idle"), 1);
+                } catch (Exception e) {
+                    // 派發內已處理任務相關錯誤，此處僅防止通道執行緒結束
+                    log.error("任務派發通道:{} 發生錯誤", name, e);
+                }
+                crawlerMetrics.record("task.dispatch." + name + ".lag", 1, lagNanos);
+                crawlerMetrics.record("task.dispatch." + name, 1, System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * 等待至有派發通知且已到派發時間
+         *
+         * @return 實際派發時間與預定時間的差距(奈秒)
+         */
+        private synchronized long awaitWake() throws InterruptedException {
+            while (true) {
+                if (!pending) {
+                    wait();
+                    continue;
+                }
+                long remaining = wakeAtNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    pending = false;
+                    return -remaining;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+    }
+}
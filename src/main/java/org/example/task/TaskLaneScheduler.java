@@ -0,0 +1,191 @@
+package org.example.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bean.dto.TaskLaneDto;
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.entity.TaskConfig;
+import org.example.entity.TaskQueue;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.TaskConfigService;
+import org.example.service.TaskQueueService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 任務類型通道排程
+ * 每個任務類型(task_config)為一條通道，需登入與不需登入的通道各自以加權的 deficit round robin 輪流領取：
+ * 輪到的通道取得 weight 個額度，每領取一個任務扣一，額度用完或通道已無可領取任務時換下一條通道；
+ * 通道內的對象用戶依 ig_user_id 輪替，通道執行中的任務數達 task_config.max_concurrency 時本輪略過
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@Slf4j
+@Service("taskLaneScheduler")
+public class TaskLaneScheduler {
+    // 可由排程領取(可轉換為IN_PROGRESS)的狀態，用於通道統計
+    private static final Set<TaskStatusEnum> CLAIMABLE_STATUSES = Arrays.stream(TaskStatusEnum.values())
+            .filter(status -> status.canTransitionTo(TaskStatusEnum.IN_PROGRESS))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final TaskConfigService taskConfigService;
+    private final TaskQueueService taskQueueService;
+    private final CrawlerMetrics crawlerMetrics;
+    private final Round loginRound = new Round();
+    private final Round nonLoginRound = new Round();
+
+    public TaskLaneScheduler(TaskConfigService taskConfigService, TaskQueueService taskQueueService, CrawlerMetrics crawlerMetrics) {
+        this.taskConfigService = taskConfigService;
+        this.taskQueueService = taskQueueService;
+        this.crawlerMetrics = crawlerMetrics;
+    }
+
+    /**
+     * 依通道輪替領取下一個任務
+     *
+     * @param needLogin      是否為需登入的通道
+     * @param statusPriority 可領取的任務狀態(依優先順序)
+     * @return 已領取的任務，所有通道皆無可領取任務時為空
+     */
+    public Optional<TaskQueue> claimNext(boolean needLogin, List<TaskStatusEnum> statusPriority) {
+        List<TaskConfig> configs = taskConfigService.findAllDefined().stream()
+                .filter(config -> config.isNeedLoginIg() == needLogin)
+                .toList();
+        if (configs.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Long, TaskLaneDto> counts = taskQueueService.countByLane(statusPriority);
+        Round round = needLogin ? loginRound : nonLoginRound;
+        synchronized (round) {
+            // 每條通道最多造訪兩次：第一次可能只是用完上一輪剩下的額度
+            for (int visits = 0; visits < configs.size() * 2; visits++) {
+                TaskConfig config = configs.get(round.index % configs.size());
+                LaneState lane = round.lane(config.getTaskType());
+                if (!isEligible(config, counts.get(config.getId()))) {
+                    lane.resetDeficit();
+                    round.advance();
+                    continue;
+                }
+                if (!lane.credited) {
+                    lane.deficit += Math.max(1, config.getWeight());
+                    lane.credited = true;
+                }
+                Optional<TaskQueue> task = taskQueueService.claimNextTask(config, statusPriority, lane.lastIgUserId);
+                if (task.isEmpty()) {
+                    // 統計後已被其他程序領走，不保留額度
+                    lane.resetDeficit();
+                    round.advance();
+                    continue;
+                }
+                lane.deficit--;
+                lane.claimed++;
+                lane.lastIgUserId = task.get().getIgUser().getId();
+                if (lane.deficit <= 0) {
+                    lane.resetDeficit();
+                    round.advance();
+                }
+                recordClaim(config.getTaskType(), task.get());
+                return task;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 各通道的設定、待領取數、執行中數、等待時間與輪替狀態
+     *
+     * @return 通道狀態(依任務設定ID排序)
+     */
+    public List<TaskLaneDto> snapshot() {
+        Map<Long, TaskLaneDto> counts = taskQueueService.countByLane(CLAIMABLE_STATUSES);
+        List<TaskLaneDto> lanes = new ArrayList<>();
+        for (TaskConfig config : taskConfigService.findAllDefined()) {
+            TaskLaneDto count = counts.get(config.getId());
+            Round round = config.isNeedLoginIg() ? loginRound : nonLoginRound;
+            synchronized (round) {
+                LaneState lane = round.lane(config.getTaskType());
+                lanes.add(TaskLaneDto.builder()
+                        .taskConfigId(config.getId())
+                        .taskType(config.getTaskType())
+                        .needLoginIg(config.isNeedLoginIg())
+                        .weight(config.getWeight())
+                        .maxConcurrency(config.getMaxConcurrency())
+                        .queued(count == null ? 0 : count.getQueued())
+                        .running(count == null ? 0 : count.getRunning())
+                        .oldestWaitSeconds(count == null ? null : count.getOldestWaitSeconds())
+                        .deficit(lane.deficit)
+                        .lastIgUserId(lane.lastIgUserId)
+                        .claimed(lane.claimed)
+                        .build());
+            }
+        }
+        return lanes;
+    }
+
+    //private
+
+    /**
+     * 通道有待領取任務，且執行中的任務數未達上限
+     */
+    private boolean isEligible(TaskConfig config, TaskLaneDto count) {
+        if (count == null || count.getQueued() == 0) {
+            return false;
+        }
+        if (count.getRunning() >= Math.max(1, config.getMaxConcurrency())) {
+            log.info("通道:{} 執行中任務數:{} 已達上限:{}，本輪略過", config.getTaskType(), count.getRunning(), config.getMaxConcurrency());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 記錄通道領取數及任務自暫停/提交後等待領取的時間
+     */
+    private void recordClaim(TaskTypeEnum taskType, TaskQueue task) {
+        LocalDateTime waitingSince = task.getModifyTime() != null ? task.getModifyTime() : task.getSubmitTime();
+        crawlerMetrics.increment("task.lane." + taskType + ".claimed", 1);
+        if (waitingSince != null) {
+            long waitNanos = Math.max(0, Duration.between(waitingSince, LocalDateTime.now()).toNanos());
+            crawlerMetrics.record("task.lane." + taskType + ".wait", 1, waitNanos);
+        }
+    }
+
+    /**
+     * 需登入或不需登入通道的輪替狀態，由所屬的派發通道執行緒更新
+     */
+    private static final class Round {
+        private final Map<TaskTypeEnum, LaneState> lanes = new EnumMap<>(TaskTypeEnum.class);
+        private int index;
+
+        private LaneState lane(TaskTypeEnum taskType) {
+            return lanes.computeIfAbsent(taskType, type -> new LaneState());
+        }
+
+        private void advance() {
+            index = index == Integer.MAX_VALUE ? 0 : index + 1;
+        }
+    }
+
+    private static final class LaneState {
+        private int deficit;
+        private boolean credited;
+        private int lastIgUserId;
+        private long claimed;
+
+        private void resetDeficit() {
+            deficit = 0;
+            credited = false;
+        }
+    }
+}
@@ -4,17 +4,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.bean.enumtype.TaskStatusEnum;
 import org.example.entity.LoginAccount;
 import org.example.entity.TaskQueue;
+import org.example.entity.TaskQueueMedia;
 import org.example.exception.ApiException;
 import org.example.exception.SysCode;
 import org.example.exception.TaskExecutionException;
+import org.example.metrics.CrawlerMetrics;
 import org.example.service.LoginService;
+import org.example.service.TaskLeaseService;
+import org.example.service.TaskQueueMediaService;
 import org.example.service.TaskQueueService;
 import org.example.strategy.TaskExecutionStrategyFactory;
 import org.example.strategy.TaskStrategy;
 import org.example.task.BaseQueue;
+import org.example.task.TaskDispatcher;
 import org.example.task.TaskExecutionService;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * @author Eric.Lee
  * Date:2024/2/19
@@ -24,25 +32,42 @@ import org.springframework.stereotype.Service;
 public class TaskExecutionServiceImpl extends BaseQueue implements TaskExecutionService {
 
     private final TaskQueueService taskQueueService;
+    private final TaskQueueMediaService taskQueueMediaService;
     private final LoginService loginService;
     // 注入策略工廠
     private final TaskExecutionStrategyFactory strategyFactory;
+    private final TaskDispatcher taskDispatcher;
+    private final TaskLeaseService taskLeaseService;
+    private final CrawlerMetrics crawlerMetrics;
 
-    public TaskExecutionServiceImpl(TaskQueueService taskQueueService, TaskExecutionStrategyFactory strategyFactory, LoginService loginService) {
+    public TaskExecutionServiceImpl(TaskQueueService taskQueueService, TaskQueueMediaService taskQueueMediaService, TaskExecutionStrategyFactory strategyFactory, LoginService loginService, TaskDispatcher taskDispatcher, TaskLeaseService taskLeaseService, CrawlerMetrics crawlerMetrics) {
         this.taskQueueService = taskQueueService;
+        this.taskQueueMediaService = taskQueueMediaService;
         this.strategyFactory = strategyFactory;
         this.loginService = loginService;
+        this.taskDispatcher = taskDispatcher;
+        this.taskLeaseService = taskLeaseService;
+        this.crawlerMetrics = crawlerMetrics;
     }
 
     public void executeTask(TaskQueue task, LoginAccount loginAccount) {
         TaskStrategy strategy = getStrategy(task);
-        try {
+        //執行期間續約，結束(含例外)後先停止續約再處理任務狀態
+        try (TaskLeaseService.TaskLease ignored = taskLeaseService.hold(task)) {
             strategy.executeTask(task, loginAccount);
-
+            //策略結束時狀態轉換失敗(比對版本號不符)，任務維持進行中
+            if (task.getStatus() == TaskStatusEnum.IN_PROGRESS) {
+                handleLeaseLost(task, null);
+            }
+        } catch (OptimisticLockingFailureException e) {
+            handleLeaseLost(task, e);
         } catch (ApiException apiException) {
             handleApiException(apiException, task, loginAccount);
         } catch (TaskExecutionException e) {
             handleTaskFailure(task, loginAccount, e);
+        } finally {
+            //依任務結束時的狀態通知派發下一個任務
+            taskDispatcher.onTaskFinished(task);
         }
     }
 
@@ -60,22 +85,30 @@ public class TaskExecutionServiceImpl extends BaseQueue implements TaskExecution
             log.error("SOCKET_TIMEOUT，任務:{},帳號:{} ,更新帳號為EXHAUSTED 錯誤詳情: {}", task, loginAccount, apiException.getMessage(), apiException);
             handleSocketTimeOut(task, loginAccount, apiException);
         } else if (apiException.getCode() == SysCode.TASK_QUEUE_FOLLOWER_DETAIL_NOT_FOUNT) {
-            task.completeTask();
-            taskQueueService.save(task);
+            taskQueueService.transition(task, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.COMPLETED);
         } else {
             throw apiException;
         }
     }
 
+    /**
+     * 處理租約失效：任務已被回收(改回PAUSED，版本號已遞增)或狀態已被其他流程變更，
+     * 本次執行結果已捨棄，不更新任務狀態也不暫停任務排程，任務待下次領取時從已提交的游標繼續
+     */
+    private void handleLeaseLost(TaskQueue task, OptimisticLockingFailureException e) {
+        crawlerMetrics.increment("task.finalize.leaseLost", 1);
+        log.warn("任務:{} ,結束時租約已失效(任務已被回收或狀態已變更)，捨棄本次執行結果", task.getId(), e);
+    }
+
     /**
      * 處理連線失敗
      */
     private void handleSocketTimeOut(TaskQueue task, LoginAccount loginAccount, ApiException e) {
         log.error("任務失敗，任務:{},帳號:{} ,更新帳號為EXHAUSTED 錯誤詳情: {}", task, loginAccount, e.getMessage(), e);
         //更新任務狀態
-        task.pauseTask();
-        log.info("任務暫停，任務:{}", task);
-        taskQueueService.save(task);
+        if (taskQueueService.transition(task, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.PAUSED)) {
+            log.info("任務暫停，任務:{}", task);
+        }
         //更新登入帳號狀態
         loginAccount.loginAccountExhausted();
         loginService.save(loginAccount);
@@ -86,11 +119,15 @@ public class TaskExecutionServiceImpl extends BaseQueue implements TaskExecution
      */
     private void handleChallengeRequired(TaskQueue task, LoginAccount loginAccount, ApiException e) {
         log.error("任務失敗，任務:{},帳號:{} ,更新帳號為DEVIANT 錯誤詳情: {}", task, loginAccount, e.getMessage(), e);
-        //更新任務狀態
-        task.pauseTask();
-        task.getTaskQueueMediaId().setStatus(TaskStatusEnum.PAUSED);
-        log.info("任務暫停，任務:{}", task);
-        taskQueueService.save(task);
+        //更新任務狀態，媒體子任務一併暫停
+        if (taskQueueService.transition(task, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.PAUSED)) {
+            log.info("任務暫停，任務:{}", task);
+        }
+        TaskQueueMedia taskQueueMedia = task.getTaskQueueMediaId();
+        if (taskQueueMedia != null) {
+            taskQueueMedia.setStatus(TaskStatusEnum.PAUSED);
+            taskQueueMediaService.saveAll(List.of(taskQueueMedia));
+        }
         //更新登入帳號狀態
         loginAccount.loginAccountDeviant(e.getMessage());
         loginService.save(loginAccount);
@@ -104,8 +141,7 @@ public class TaskExecutionServiceImpl extends BaseQueue implements TaskExecution
         //停止任務檢核排程
         stopBaseQueue();
         //更新任務狀態
-        task.failTask(e.getMessage());
-        taskQueueService.save(task);
+        taskQueueService.transition(task, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.FAILED, e.getMessage());
         //更新登入帳號狀態
         loginAccount.loginAccountDeviant(e.getMessage());
         loginService.save(loginAccount);
@@ -119,8 +155,7 @@ public class TaskExecutionServiceImpl extends BaseQueue implements TaskExecution
         TaskStrategy strategy = strategyFactory.getStrategy(task.getTaskConfig().getTaskType());
 
         if (strategy == null) {
-            task.failTask(SysCode.TASK_TYPE_NOT_FOUND_IN_STRATEGY_FACTORY.getMessage());
-            taskQueueService.save(task);
+            taskQueueService.transition(task, TaskStatusEnum.IN_PROGRESS, TaskStatusEnum.FAILED, SysCode.TASK_TYPE_NOT_FOUND_IN_STRATEGY_FACTORY.getMessage());
             throw new ApiException(SysCode.TASK_TYPE_NOT_FOUND_IN_STRATEGY_FACTORY);
         }
 
@@ -0,0 +1,100 @@
+package org.example.utils;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.List;
+
+/**
+ * 欄寬估算: 寫入列時同步記錄每欄最大顯示寬度，寫完後一次設定欄寬。
+ * 不讀回工作表也不經 AWT 字型量測，串流工作表已寫出的列不影響結果。
+ * 顯示寬度以字元計，CJK 與全形字元算兩格。
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public final class ColumnWidthEstimator {
+    // POI 預設字型 Calibri 11pt，寬度單位為該字型 1/256 個字元
+    private static final double DEFAULT_FONT_POINTS = 11d;
+    private static final int MAX_WIDTH = 255 * 256;
+    // 左右留白(字元數)
+    private static final int PADDING = 2;
+
+    private final int[] maxWidths;
+    private final double fontScale;
+
+    /**
+     * @param columnCount 欄數
+     * @param fontPoints  內容字型大小，用於等比放大寬度
+     */
+    public ColumnWidthEstimator(int columnCount, short fontPoints) {
+        this.maxWidths = new int[columnCount];
+        this.fontScale = fontPoints / DEFAULT_FONT_POINTS;
+    }
+
+    /**
+     * 記錄一列的值，與 ExcelUtils.createRowAndFillData 傳入的值相同
+     *
+     * @param values 各欄的值
+     */
+    public void accept(List<Object> values) {
+        int size = Math.min(values.size(), maxWidths.length);
+        for (int i = 0; i < size; i++) {
+            accept(i, values.get(i));
+        }
+    }
+
+    /**
+     * 記錄單一儲存格的值
+     *
+     * @param column 欄索引
+     * @param value  值
+     */
+    public void accept(int column, Object value) {
+        int width = displayWidth(ExcelUtils.displayText(value));
+        if (width > maxWidths[column]) {
+            maxWidths[column] = width;
+        }
+    }
+
+    /**
+     * 依記錄的最大寬度設定欄寬
+     *
+     * @param sheet 工作表
+     */
+    public void applyTo(Sheet sheet) {
+        for (int i = 0; i < maxWidths.length; i++) {
+            long width = Math.round((maxWidths[i] + PADDING) * fontScale * 256);
+            sheet.setColumnWidth(i, (int) Math.min(MAX_WIDTH, width));
+        }
+    }
+
+    //private
+
+    /**
+     * 計算字串顯示寬度，CJK 與全形字元算兩格
+     *
+     * @param text 字串
+     * @return 顯示寬度(字元數)
+     */
+    private static int displayWidth(String text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            width += isWide(codePoint) ? 2 : 1;
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    private static boolean isWide(int codePoint) {
+        return (codePoint >= 0x1100 && codePoint <= 0x115F)    // 韓文字母
+                || (codePoint >= 0x2E80 && codePoint <= 0xA4CF) // CJK 部首、標點、假名、漢字
+                || (codePoint >= 0xAC00 && codePoint <= 0xD7A3) // 韓文音節
+                || (codePoint >= 0xF900 && codePoint <= 0xFAFF) // CJK 相容漢字
+                || (codePoint >= 0xFE30 && codePoint <= 0xFE4F) // CJK 相容標點
+                || (codePoint >= 0xFF00 && codePoint <= 0xFF60) // 全形 ASCII
+                || (codePoint >= 0xFFE0 && codePoint <= 0xFFE6) // 全形符號
+                || (codePoint >= 0x1F300 && codePoint <= 0x1FAFF) // emoji
+                || (codePoint >= 0x20000 && codePoint <= 0x3FFFD); // CJK 擴充區
+    }
+}
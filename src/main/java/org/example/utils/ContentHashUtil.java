@@ -0,0 +1,40 @@
+package org.example.utils;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public final class ContentHashUtil {
+    // 欄位間分隔與null標記，避免 ("ab", "c") 與 ("a", "bc")、null 與 "" 得到相同雜湊
+    private static final byte FIELD_SEPARATOR = 0x1F;
+    private static final byte NULL_MARKER = 0x00;
+
+    private ContentHashUtil() {
+        // 拋出異常是為了防止透過反射呼叫私有建構函數
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 計算欄位內容的64位元雜湊(FarmHash fingerprint，跨JVM穩定)，用於判斷資料是否變動
+     *
+     * @param fields 可變動欄位，依固定順序傳入
+     * @return 64位元雜湊
+     */
+    public static long of(Object... fields) {
+        Hasher hasher = Hashing.farmHashFingerprint64().newHasher();
+        for (Object field : fields) {
+            if (field == null) {
+                hasher.putByte(NULL_MARKER);
+            } else {
+                hasher.putString(field.toString(), StandardCharsets.UTF_8);
+            }
+            hasher.putByte(FIELD_SEPARATOR);
+        }
+        return hasher.hash().asLong();
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.utils;
 
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +18,17 @@ public final class ExcelUtils {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
 
+    /**
+     * 建立串流工作簿，記憶體中只保留最近 rowWindow 列，其餘列寫入壓縮暫存檔。
+     * 已寫出的列無法再讀取或修改，樣式須在建立列時一併設定，使用完畢需呼叫 dispose() 刪除暫存檔。
+     *
+     * @param rowWindow 記憶體中保留的列數
+     * @return 串流工作簿
+     */
+    public static SXSSFWorkbook createStreamingWorkbook(int rowWindow) {
+        return new SXSSFWorkbook(new XSSFWorkbook(), rowWindow, true);
+    }
+
     /**
      * 建立並返回表頭的樣式。
      *
@@ -58,30 +71,6 @@ public final class ExcelUtils {
         return cellStyle;
     }
 
-    public static void setAutoColumnWidth(Sheet sheet) {
-        for (int i = 0; i < sheet.getLastRowNum(); i++) {
-            Row row = sheet.getRow(i);
-            for (int j = 0; j < row.getLastCellNum(); j++) {
-                sheet.autoSizeColumn(j);
-            }
-        }
-    }
-
-    public static void setAutoColumnWidthForChinese(Sheet sheet) {
-        int columnCount = sheet.getRow(0).getLastCellNum();
-        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-            sheet.autoSizeColumn(columnIndex);
-        }
-
-        // 然後，基於自動調整的結果，為包含中文的欄位增加額外寬度
-        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-            int currentWidth = sheet.getColumnWidth(columnIndex);
-            int extraWidth = currentWidth / 4;
-            int newWidth = Math.min(255 * 256, currentWidth + extraWidth);
-            sheet.setColumnWidth(columnIndex, newWidth);
-        }
-    }
-
     /**
      * 設定固定的自訂列寬。
      *
@@ -96,25 +85,6 @@ public final class ExcelUtils {
         }
     }
 
-    /**
-     * 應用樣式到工作表的所有儲存格。
-     *
-     * @param sheet       工作表
-     * @param headerStyle 表頭樣式
-     * @param cellStyle   單元格樣式
-     */
-    public static void applyStylesToSheet(Sheet sheet, CellStyle headerStyle, CellStyle cellStyle) {
-        for (Row row : sheet) {
-            for (Cell cell : row) {
-                if (row.getRowNum() == 0) {
-                    cell.setCellStyle(headerStyle);
-                } else {
-                    cell.setCellStyle(cellStyle);
-                }
-            }
-        }
-    }
-
     /**
      * 設定單元格的邊框。
      *
@@ -148,12 +118,59 @@ public final class ExcelUtils {
      * @param values   要填入的值的列表
      */
     public static void createRowAndFillData(Sheet sheet, int rowIndex, List<Object> values) {
+        createRowAndFillData(sheet, rowIndex, values, null);
+    }
+
+    /**
+     * 建立行並填充數據，同時套用樣式。
+     *
+     * @param sheet    工作表
+     * @param rowIndex 行索引（從0 開始）
+     * @param values   要填入的值的列表
+     * @param style    單元格樣式，null 則不設定
+     */
+    public static void createRowAndFillData(Sheet sheet, int rowIndex, List<Object> values, CellStyle style) {
         Row row = sheet.createRow(rowIndex);
         for (int i = 0; i < values.size(); i++) {
-            setValueInCell(row.createCell(i), values.get(i));
+            Cell cell = row.createCell(i);
+            setValueInCell(cell, values.get(i));
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        }
+    }
+
+    /**
+     * 建立表頭行。
+     *
+     * @param sheet   工作表
+     * @param headers 表頭文字
+     * @param style   表頭樣式
+     */
+    public static void createHeaderRow(Sheet sheet, String[] headers, CellStyle style) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell headerCell = headerRow.createCell(i);
+            headerCell.setCellValue(headers[i]);
+            headerCell.setCellStyle(style);
         }
     }
 
+    /**
+     * 取得值寫入單元格後顯示的文字，與 createRowAndFillData 的轉換一致。
+     *
+     * @param value 值
+     * @return 顯示文字
+     */
+    public static String displayText(Object value) {
+        if (value instanceof Boolean bool) {
+            return Boolean.TRUE.equals(bool) ? "是" : "否";
+        } else if (value == null) {
+            return "N/A";
+        }
+        return value.toString();
+    }
+
     //private
 
     /**
@@ -163,16 +180,10 @@ public final class ExcelUtils {
      * @param value 值
      */
     private static void setValueInCell(Cell cell, Object value) {
-        if (value instanceof String string) {
-            cell.setCellValue(string);
-        } else if (value instanceof Boolean bool) {
-            cell.setCellValue(Boolean.TRUE.equals(bool) ? "是" : "否");
-        } else if (value instanceof Number number) {
+        if (value instanceof Number number) {
             cell.setCellValue(number.doubleValue());
-        } else if (value == null) {
-            cell.setCellValue("N/A");
         } else {
-            cell.setCellValue(value.toString());
+            cell.setCellValue(displayText(value));
         }
     }
 }
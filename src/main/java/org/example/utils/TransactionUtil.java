@@ -0,0 +1,43 @@
+package org.example.utils;
+
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+public final class TransactionUtil {
+    private TransactionUtil() {
+        // 拋出異常是為了防止透過反射呼叫私有建構函數
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 於目前交易提交後執行；交易回滾則不執行，無交易時立即執行
+     *
+     * @param action 動作
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 將目前交易標記為僅回滾，交易內已執行的寫入於結束時捨棄；無交易時不做任何事
+     */
+    public static void markRollbackOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+}
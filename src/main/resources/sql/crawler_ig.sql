@@ -8,6 +8,35 @@ USE `crawler_ig`;
 SET NAMES utf8mb4;
 SET FOREIGN_KEY_CHECKS = 0;
 
+-- ----------------------------
+-- Table structure for cold_archive
+-- ----------------------------
+DROP TABLE IF EXISTS `cold_archive`;
+CREATE TABLE `cold_archive`  (
+  `ig_user_id` int NOT NULL COMMENT '用戶',
+  `table_name` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '已封存的熱表',
+  `archived_rows` bigint NOT NULL DEFAULT 0 COMMENT '封存筆數',
+  `archived_time` datetime NOT NULL COMMENT '封存時間',
+  PRIMARY KEY (`ig_user_id`, `table_name`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Table structure for commenter_rollup
+-- ----------------------------
+DROP TABLE IF EXISTS `commenter_rollup`;
+CREATE TABLE `commenter_rollup`  (
+  `id` int NOT NULL AUTO_INCREMENT COMMENT 'pk',
+  `ig_user_id` int NOT NULL COMMENT '對象用戶',
+  `commenter_pk` bigint NOT NULL COMMENT '留言者pk, 對應 ig_profile.pk',
+  `comment_count` bigint NOT NULL DEFAULT 0 COMMENT '留言數(已發布世代的貼文)',
+  `like_sum` bigint NOT NULL DEFAULT 0 COMMENT '留言獲讚數合計',
+  `first_seen` datetime NULL DEFAULT NULL COMMENT '首次彙總時間',
+  `last_seen` datetime NULL DEFAULT NULL COMMENT '最近一次數量變動時間',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `idx_commenter_rollup_unique`(`ig_user_id` ASC, `commenter_pk` ASC) USING BTREE,
+  INDEX `idx_commenter_rollup_count`(`ig_user_id` ASC, `comment_count` ASC) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+
 -- ----------------------------
 -- Table structure for config
 -- ----------------------------
@@ -41,24 +70,37 @@ DROP TABLE IF EXISTS `followers`;
 CREATE TABLE `followers`  (
   `id` int NOT NULL AUTO_INCREMENT COMMENT '主鍵',
   `ig_user_id` int NULL DEFAULT NULL COMMENT 'fk',
-  `follower_pk` bigint NOT NULL COMMENT '追蹤者的pk in ig',
-  `follower_user_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '追蹤者帳號',
-  `follower_full_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '追蹤者自定義名稱',
-  `is_private` tinyint(1) NULL DEFAULT NULL COMMENT '是否為公開帳號',
-  `profile_pic_url` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '照片地址',
-  `profile_pic_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '照片id',
+  `follower_pk` bigint NOT NULL COMMENT '追蹤者的pk in ig, 對應 ig_profile.pk',
+  `first_seen_generation` int NOT NULL DEFAULT 0 COMMENT '首次出現的爬取世代',
+  `last_seen_generation` int NOT NULL DEFAULT 0 COMMENT '最後出現的爬取世代',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `idx_followers_ig_user_follower_pk`(`ig_user_id` ASC, `follower_pk` ASC) USING BTREE,
+  INDEX `fk_followers_ig_user_id`(`ig_user_id` ASC) USING BTREE,
+  INDEX `idx_followers_ig_user_generation`(`ig_user_id` ASC, `last_seen_generation` ASC) USING BTREE,
+  CONSTRAINT `fk_followers_ig_user_id` FOREIGN KEY (`ig_user_id`) REFERENCES `ig_user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
+) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+
+
+-- ----------------------------
+-- Table structure for ig_profile
+-- ----------------------------
+DROP TABLE IF EXISTS `ig_profile`;
+CREATE TABLE `ig_profile`  (
+  `pk` bigint NOT NULL COMMENT 'ig帳號pk',
+  `user_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '帳號',
+  `full_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '自定義名稱',
+  `is_private` tinyint(1) NULL DEFAULT NULL COMMENT '是否為私人帳號',
   `is_verified` tinyint(1) NULL DEFAULT NULL COMMENT '是否以驗證 1=true=已meta驗證',
+  `profile_pic_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '照片id',
+  `profile_pic_url` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '照片地址',
   `has_anonymous_profile_picture` tinyint(1) NULL DEFAULT NULL COMMENT '是否為匿名投向 1=true=空白頭像',
   `latest_reel_media` bigint NULL DEFAULT NULL COMMENT '最後發布的media Id(目前活躍限動)',
   `post_count` int NULL DEFAULT NULL COMMENT '發文數',
   `follower_count` int NULL DEFAULT NULL COMMENT '追隨者數量',
   `following_count` int NULL DEFAULT NULL COMMENT '追蹤數量',
-  PRIMARY KEY (`id`) USING BTREE,
-  UNIQUE INDEX `idx_ig_user_name_follower_pk`(`follower_pk` ASC) USING BTREE,
-  INDEX `fk_followers_ig_user_id`(`ig_user_id` ASC) USING BTREE,
-  CONSTRAINT `fk_followers_ig_user_id` FOREIGN KEY (`ig_user_id`) REFERENCES `ig_user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
-) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
-
+  `content_hash` bigint NULL DEFAULT NULL COMMENT '可變動欄位的64位元雜湊，未變動時略過寫入',
+  PRIMARY KEY (`pk`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
 -- Table structure for ig_user
@@ -72,6 +114,10 @@ CREATE TABLE `ig_user`  (
   `media_count` int NULL DEFAULT NULL COMMENT '貼文數量',
   `follower_count` int NULL DEFAULT NULL COMMENT '追蹤者數量',
   `following_count` int NULL DEFAULT NULL COMMENT '追蹤他人數量',
+  `follower_generation` int NOT NULL DEFAULT 0 COMMENT '已發布的追蹤者世代',
+  `media_generation` int NOT NULL DEFAULT 0 COMMENT '已發布的貼文世代',
+  `next_follower_generation` int NOT NULL DEFAULT 0 COMMENT '最後配置的追蹤者世代',
+  `next_media_generation` int NOT NULL DEFAULT 0 COMMENT '最後配置的貼文世代',
   PRIMARY KEY (`id`, `ig_pk`) USING BTREE,
   INDEX `id`(`id` ASC) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
@@ -129,9 +175,12 @@ CREATE TABLE `media`  (
   `number_of_qualities` int NULL DEFAULT NULL,
   `taken_at` datetime NULL DEFAULT NULL,
   `text` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '內文',
+  `first_seen_generation` int NOT NULL DEFAULT 0 COMMENT '首次出現的爬取世代',
+  `last_seen_generation` int NOT NULL DEFAULT 0 COMMENT '最後出現的爬取世代',
   PRIMARY KEY (`id`) USING BTREE,
   UNIQUE INDEX `media_id`(`media_id` ASC) USING BTREE,
   INDEX `fk_media_ig_user_id`(`ig_user_id` ASC) USING BTREE,
+  INDEX `idx_media_ig_user_generation`(`ig_user_id` ASC, `last_seen_generation` ASC) USING BTREE,
   CONSTRAINT `fk_media_ig_user_id` FOREIGN KEY (`ig_user_id`) REFERENCES `ig_user` (`id`) ON DELETE CASCADE ON UPDATE CASCADE
 ) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
@@ -141,24 +190,41 @@ CREATE TABLE `media`  (
 DROP TABLE IF EXISTS `media_comment`;
 CREATE TABLE `media_comment`  (
   `id` int NOT NULL AUTO_INCREMENT COMMENT 'pk',
+  `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶, 分區鍵',
   `media_id` int NULL DEFAULT NULL COMMENT 'fk',
   `text` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '留言內容',
-  `commenter_full_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '留言者全名',
-  `commenter_user_id` bigint NULL DEFAULT NULL,
-  `commenter_user_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `commenter_user_id` bigint NULL DEFAULT NULL COMMENT '留言者pk, 對應 ig_profile.pk',
   `comment_pk` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
-  `commenter_is_private` tinyint(1) NULL DEFAULT NULL COMMENT '是否為公開帳號',
-  `commenter_is_verified` tinyint(1) NULL DEFAULT NULL COMMENT '是否為meta驗證帳號',
-  `commenter_profile_pic_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
-  `commenter_profile_pic_url` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL,
-  `commenter_latest_reel_media` bigint NULL DEFAULT NULL,
   `content_type` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
   `status` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
   `comment_like_count` int NULL DEFAULT NULL,
+  `content_hash` bigint NULL DEFAULT NULL COMMENT '可變動欄位的64位元雜湊，未變動時略過寫入',
+  PRIMARY KEY (`id`, `ig_user_id`) USING BTREE,
+  UNIQUE INDEX `idx_media_comment_unique`(`ig_user_id` ASC, `media_id` ASC, `comment_pk` ASC) USING BTREE,
+  INDEX `idx_media_comment_commenter`(`ig_user_id` ASC, `commenter_user_id` ASC) USING BTREE,
+  INDEX `FKc4g13ic2kajrl02anuikf5bao`(`media_id` ASC) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC
+-- 依用戶雜湊分區，報表與清除以 ig_user_id 為條件時只掃描單一分區；分區表不支援外鍵
+PARTITION BY HASH (`ig_user_id`) PARTITIONS 16;
+
+-- ----------------------------
+-- Table structure for media_comment_archive
+-- ----------------------------
+DROP TABLE IF EXISTS `media_comment_archive`;
+CREATE TABLE `media_comment_archive`  (
+  `id` int NOT NULL COMMENT '原 media_comment.id',
+  `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶',
+  `media_id` int NULL DEFAULT NULL,
+  `text` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '留言內容',
+  `commenter_user_id` bigint NULL DEFAULT NULL COMMENT '留言者pk, 對應 ig_profile.pk',
+  `comment_pk` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `content_type` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `status` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `comment_like_count` int NULL DEFAULT NULL,
+  `content_hash` bigint NULL DEFAULT NULL,
   PRIMARY KEY (`id`) USING BTREE,
-  INDEX `FKc4g13ic2kajrl02anuikf5bao`(`media_id` ASC) USING BTREE,
-  CONSTRAINT `FKc4g13ic2kajrl02anuikf5bao` FOREIGN KEY (`media_id`) REFERENCES `media` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
-) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+  INDEX `idx_media_comment_archive_ig_user`(`ig_user_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
 
 -- ----------------------------
 -- Table structure for media_liker
@@ -166,19 +232,27 @@ CREATE TABLE `media_comment`  (
 DROP TABLE IF EXISTS `media_liker`;
 CREATE TABLE `media_liker`  (
   `id` int NOT NULL AUTO_INCREMENT COMMENT 'pk',
+  `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶, 分區鍵',
   `media_id` int NULL DEFAULT NULL COMMENT 'fk, media表的id',
-  `liker_pk` bigint NULL DEFAULT NULL,
-  `liker_user_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
-  `liker_full_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
-  `liker_is_private` tinyint(1) NULL DEFAULT NULL,
-  `liker_is_verified` tinyint(1) NULL DEFAULT NULL,
-  `liker_profile_pic_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
-  `liker_profile_pic_url` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL,
-  `liker_latest_reel_media` bigint NULL DEFAULT NULL,
+  `liker_pk` bigint NULL DEFAULT NULL COMMENT '按讚者pk, 對應 ig_profile.pk',
+  PRIMARY KEY (`id`, `ig_user_id`) USING BTREE,
+  UNIQUE INDEX `idx_media_liker_unique`(`ig_user_id` ASC, `media_id` ASC, `liker_pk` ASC) USING BTREE,
+  INDEX `idx_media_liker_media_id`(`media_id` ASC) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC
+PARTITION BY HASH (`ig_user_id`) PARTITIONS 16;
+
+-- ----------------------------
+-- Table structure for media_liker_archive
+-- ----------------------------
+DROP TABLE IF EXISTS `media_liker_archive`;
+CREATE TABLE `media_liker_archive`  (
+  `id` int NOT NULL COMMENT '原 media_liker.id',
+  `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶',
+  `media_id` int NULL DEFAULT NULL,
+  `liker_pk` bigint NULL DEFAULT NULL COMMENT '按讚者pk, 對應 ig_profile.pk',
   PRIMARY KEY (`id`) USING BTREE,
-  UNIQUE INDEX `idx_media_liker_unique`(`media_id` ASC, `liker_pk` ASC) USING BTREE,
-  CONSTRAINT `FKrrb2t5yyng90b7lym3ou22jfp` FOREIGN KEY (`media_id`) REFERENCES `media` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
-) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+  INDEX `idx_media_liker_archive_ig_user`(`ig_user_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
 
 -- ----------------------------
 -- Table structure for task_config
@@ -189,20 +263,22 @@ CREATE TABLE `task_config`  (
   `task_type` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL DEFAULT '' COMMENT 'task類型',
   `need_login_ig` tinyint(1) NOT NULL DEFAULT 1 COMMENT '0:false 1:true 任務是否需要登入',
   `init_status` enum('DAILY_PENDING','PENDING') CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `weight` int NOT NULL DEFAULT 1 COMMENT '通道權重，每輪可領取的任務數',
+  `max_concurrency` int NOT NULL DEFAULT 1 COMMENT '通道同時執行中的任務上限',
   PRIMARY KEY (`id`) USING BTREE
 ) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
 
 -- ----------------------------
 -- Records of task_config
 -- ----------------------------
-INSERT INTO `task_config` VALUES (1, 'GET_FOLLOWERS', 1, 'PENDING');
-INSERT INTO `task_config` VALUES (2, 'GET_MEDIA', 1, 'PENDING');
-INSERT INTO `task_config` VALUES (3, 'NOTHING', 1, 'PENDING');
-INSERT INTO `task_config` VALUES (4, 'GET_MEDIA_COMMENT', 1, 'PENDING');
-INSERT INTO `task_config` VALUES (5, 'GET_MEDIA_LIKER', 1, 'PENDING');
-INSERT INTO `task_config` VALUES (6, 'GET_FOLLOWERS_DETAIL', 0, 'PENDING');
-INSERT INTO `task_config` VALUES (7, 'SEND_PROMOTE_MESSAGE', 0, 'PENDING');
-INSERT INTO `task_config` VALUES (8, 'SEND_PROMOTE_MESSAGE_BY_POST_SHARE', 0, 'DAILY_PENDING');
+INSERT INTO `task_config` VALUES (1, 'GET_FOLLOWERS', 1, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (2, 'GET_MEDIA', 1, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (3, 'NOTHING', 1, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (4, 'GET_MEDIA_COMMENT', 1, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (5, 'GET_MEDIA_LIKER', 1, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (6, 'GET_FOLLOWERS_DETAIL', 0, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (7, 'SEND_PROMOTE_MESSAGE', 0, 'PENDING', 1, 1);
+INSERT INTO `task_config` VALUES (8, 'SEND_PROMOTE_MESSAGE_BY_POST_SHARE', 0, 'DAILY_PENDING', 1, 1);
 
 -- ----------------------------
 -- Table structure for task_queue
@@ -221,7 +297,10 @@ CREATE TABLE `task_queue`  (
   `modify_time` datetime NULL DEFAULT NULL COMMENT '任務修改時間',
   `next_id_for_search` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '爬蟲任務需要的next_id',
   `task_queue_media_id` int NULL DEFAULT NULL COMMENT '指針',
+  `crawl_generation` int NULL DEFAULT NULL COMMENT '本次爬取寫入的世代(GET_FOLLOWERS/GET_MEDIA)',
   `version` bigint NOT NULL DEFAULT 0 COMMENT '樂觀鎖用版本號',
+  `lease_expires_at` datetime NULL DEFAULT NULL COMMENT '執行租約到期時間，過期的IN_PROGRESS任務改回PAUSED',
+  `content_purged_at` datetime NULL DEFAULT NULL COMMENT '舊的留言/按讚資料清除完成時間，有值時不再重新清除',
   PRIMARY KEY (`id`) USING BTREE,
   UNIQUE INDEX `task_id`(`id` ASC) USING BTREE,
   UNIQUE INDEX `id`(`id` ASC) USING BTREE,
@@ -241,6 +320,8 @@ CREATE TABLE `task_queue`  (
   INDEX `FK50qhqvwec3jbpuw8mvfhpjh5q`(`ig_user_id` ASC) USING BTREE,
   INDEX `FK5ie87hsevsebwkwlucs1bpqsa`(`task_config_id` ASC) USING BTREE,
   INDEX `FK310lon0pr93v3i9eoopolc1ak`(`task_queue_media_id` ASC) USING BTREE,
+  INDEX `idx_task_queue_claim`(`status` ASC, `submit_time` ASC) USING BTREE,
+  INDEX `idx_task_queue_lane`(`task_config_id` ASC, `status` ASC, `ig_user_id` ASC, `submit_time` ASC) USING BTREE,
   CONSTRAINT `FK310lon0pr93v3i9eoopolc1ak` FOREIGN KEY (`task_queue_media_id`) REFERENCES `task_queue_media` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT,
   CONSTRAINT `FK50qhqvwec3jbpuw8mvfhpjh5q` FOREIGN KEY (`ig_user_id`) REFERENCES `ig_user` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT,
   CONSTRAINT `FK5ie87hsevsebwkwlucs1bpqsa` FOREIGN KEY (`task_config_id`) REFERENCES `task_config` (`id`) ON DELETE RESTRICT ON UPDATE RESTRICT
@@ -0,0 +1,22 @@
+USE `crawler_ig`;
+
+-- ----------------------------
+-- 留言者彙總表，報表的留言統計改讀此表；留言寫入時依留言者增量更新
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `commenter_rollup`  (
+  `id` int NOT NULL AUTO_INCREMENT COMMENT 'pk',
+  `ig_user_id` int NOT NULL COMMENT '對象用戶',
+  `commenter_pk` bigint NOT NULL COMMENT '留言者pk, 對應 ig_profile.pk',
+  `comment_count` bigint NOT NULL DEFAULT 0 COMMENT '留言數(已發布世代的貼文)',
+  `like_sum` bigint NOT NULL DEFAULT 0 COMMENT '留言獲讚數合計',
+  `first_seen` datetime NULL DEFAULT NULL COMMENT '首次彙總時間',
+  `last_seen` datetime NULL DEFAULT NULL COMMENT '最近一次數量變動時間',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `idx_commenter_rollup_unique`(`ig_user_id` ASC, `commenter_pk` ASC) USING BTREE,
+  INDEX `idx_commenter_rollup_count`(`ig_user_id` ASC, `comment_count` ASC) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 0 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+
+-- 每頁寫入後依 (ig_user_id, commenter_user_id) 重新彙總受影響的留言者
+ALTER TABLE `media_comment` ADD INDEX `idx_media_comment_commenter`(`ig_user_id` ASC, `commenter_user_id` ASC);
+
+-- 既有資料回填: 呼叫 POST admin/commenterRollup?rebuild=true (未指定用戶時處理所有用戶)
@@ -0,0 +1,16 @@
+USE `crawler_ig`;
+
+-- 世代計數器: 每次配置遞增，失敗未發布的世代號碼不再被重試沿用
+ALTER TABLE `ig_user` ADD COLUMN `next_follower_generation` int NOT NULL DEFAULT 0 COMMENT '最後配置的追蹤者世代' AFTER `media_generation`;
+ALTER TABLE `ig_user` ADD COLUMN `next_media_generation` int NOT NULL DEFAULT 0 COMMENT '最後配置的貼文世代' AFTER `next_follower_generation`;
+
+-- 從已發布世代、已寫入的世代及任務已取得的世代中最大者接續
+UPDATE `ig_user` u SET
+    u.next_follower_generation = GREATEST(u.follower_generation,
+        COALESCE((SELECT MAX(f.last_seen_generation) FROM `followers` f WHERE f.ig_user_id = u.id), 0),
+        COALESCE((SELECT MAX(t.crawl_generation) FROM `task_queue` t JOIN `task_config` c ON c.id = t.task_config_id
+                  WHERE t.ig_user_id = u.id AND c.task_type = 'GET_FOLLOWERS'), 0)),
+    u.next_media_generation = GREATEST(u.media_generation,
+        COALESCE((SELECT MAX(m.last_seen_generation) FROM `media` m WHERE m.ig_user_id = u.id), 0),
+        COALESCE((SELECT MAX(t.crawl_generation) FROM `task_queue` t JOIN `task_config` c ON c.id = t.task_config_id
+                  WHERE t.ig_user_id = u.id AND c.task_type = 'GET_MEDIA'), 0));
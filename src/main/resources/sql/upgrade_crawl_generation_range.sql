@@ -0,0 +1,17 @@
+USE `crawler_ig`;
+
+-- 世代可見範圍: 列在 first_seen_generation <= 已發布世代 <= last_seen_generation 時可見，
+-- 進行中或失敗世代新寫入的列不會在發布前被讀到，未再出現的列於下次發布後清除
+ALTER TABLE `followers` RENAME COLUMN `crawl_generation` TO `last_seen_generation`;
+ALTER TABLE `followers` MODIFY COLUMN `last_seen_generation` int NOT NULL DEFAULT 0 COMMENT '最後出現的爬取世代';
+ALTER TABLE `followers` ADD COLUMN `first_seen_generation` int NOT NULL DEFAULT 0 COMMENT '首次出現的爬取世代' AFTER `follower_pk`;
+
+ALTER TABLE `media` RENAME COLUMN `crawl_generation` TO `last_seen_generation`;
+ALTER TABLE `media` MODIFY COLUMN `last_seen_generation` int NOT NULL DEFAULT 0 COMMENT '最後出現的爬取世代';
+ALTER TABLE `media` ADD COLUMN `first_seen_generation` int NOT NULL DEFAULT 0 COMMENT '首次出現的爬取世代' AFTER `text`;
+
+-- 既有的列視為自已發布世代起即存在；尚未發布世代寫入的列維持不可見
+UPDATE `followers` f JOIN `ig_user` u ON u.id = f.ig_user_id
+SET f.first_seen_generation = LEAST(f.last_seen_generation, u.follower_generation);
+UPDATE `media` m JOIN `ig_user` u ON u.id = m.ig_user_id
+SET m.first_seen_generation = LEAST(m.last_seen_generation, u.media_generation);
@@ -0,0 +1,78 @@
+USE `crawler_ig`;
+
+-- ----------------------------
+-- 個人資料移至共用的 ig_profile(以 pk 為主鍵)，followers/media_comment/media_liker 只保留 pk
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `ig_profile`  (
+  `pk` bigint NOT NULL COMMENT 'ig帳號pk',
+  `user_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '帳號',
+  `full_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '自定義名稱',
+  `is_private` tinyint(1) NULL DEFAULT NULL COMMENT '是否為私人帳號',
+  `is_verified` tinyint(1) NULL DEFAULT NULL COMMENT '是否以驗證 1=true=已meta驗證',
+  `profile_pic_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL COMMENT '照片id',
+  `profile_pic_url` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '照片地址',
+  `has_anonymous_profile_picture` tinyint(1) NULL DEFAULT NULL COMMENT '是否為匿名投向 1=true=空白頭像',
+  `latest_reel_media` bigint NULL DEFAULT NULL COMMENT '最後發布的media Id(目前活躍限動)',
+  `post_count` int NULL DEFAULT NULL COMMENT '發文數',
+  `follower_count` int NULL DEFAULT NULL COMMENT '追隨者數量',
+  `following_count` int NULL DEFAULT NULL COMMENT '追蹤數量',
+  `content_hash` bigint NULL DEFAULT NULL COMMENT '可變動欄位的64位元雜湊，未變動時略過寫入',
+  PRIMARY KEY (`pk`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
+
+-- 回填：追蹤者資料最完整(含明細任務的計數)優先，其餘來源只補上尚未存在的帳號
+-- content_hash 留空，下次爬取時各帳號會重寫一次
+INSERT IGNORE INTO `ig_profile` (`pk`, `user_name`, `full_name`, `is_private`, `is_verified`, `profile_pic_id`, `profile_pic_url`,
+                                 `has_anonymous_profile_picture`, `latest_reel_media`, `post_count`, `follower_count`, `following_count`)
+SELECT `follower_pk`, `follower_user_name`, `follower_full_name`, `is_private`, `is_verified`, `profile_pic_id`, `profile_pic_url`,
+       `has_anonymous_profile_picture`, `latest_reel_media`, `post_count`, `follower_count`, `following_count`
+FROM `followers`;
+
+INSERT IGNORE INTO `ig_profile` (`pk`, `user_name`, `full_name`, `is_private`, `is_verified`, `profile_pic_id`, `profile_pic_url`, `latest_reel_media`)
+SELECT `commenter_user_id`, `commenter_user_name`, `commenter_full_name`, `commenter_is_private`, `commenter_is_verified`,
+       `commenter_profile_pic_id`, `commenter_profile_pic_url`, `commenter_latest_reel_media`
+FROM `media_comment`
+WHERE `commenter_user_id` IS NOT NULL;
+
+INSERT IGNORE INTO `ig_profile` (`pk`, `user_name`, `full_name`, `is_private`, `is_verified`, `profile_pic_id`, `profile_pic_url`, `latest_reel_media`)
+SELECT `liker_pk`, `liker_user_name`, `liker_full_name`, `liker_is_private`, `liker_is_verified`,
+       `liker_profile_pic_id`, `liker_profile_pic_url`, `liker_latest_reel_media`
+FROM `media_liker`
+WHERE `liker_pk` IS NOT NULL;
+
+-- followers 唯一鍵改為 (ig_user_id, follower_pk)，同一帳號追蹤多個用戶時不再互相覆蓋
+ALTER TABLE `followers`
+  DROP INDEX `idx_ig_user_name_follower_pk`,
+  ADD UNIQUE INDEX `idx_followers_ig_user_follower_pk`(`ig_user_id` ASC, `follower_pk` ASC) USING BTREE,
+  DROP COLUMN `follower_user_name`,
+  DROP COLUMN `follower_full_name`,
+  DROP COLUMN `is_private`,
+  DROP COLUMN `profile_pic_url`,
+  DROP COLUMN `profile_pic_id`,
+  DROP COLUMN `is_verified`,
+  DROP COLUMN `has_anonymous_profile_picture`,
+  DROP COLUMN `latest_reel_media`,
+  DROP COLUMN `post_count`,
+  DROP COLUMN `follower_count`,
+  DROP COLUMN `following_count`,
+  DROP COLUMN `content_hash`;
+
+-- 留言的內容雜湊已不含留言者資料，下次爬取時各留言會重寫一次
+ALTER TABLE `media_comment`
+  DROP COLUMN `commenter_full_name`,
+  DROP COLUMN `commenter_user_name`,
+  DROP COLUMN `commenter_is_private`,
+  DROP COLUMN `commenter_is_verified`,
+  DROP COLUMN `commenter_profile_pic_id`,
+  DROP COLUMN `commenter_profile_pic_url`,
+  DROP COLUMN `commenter_latest_reel_media`;
+
+ALTER TABLE `media_liker`
+  DROP COLUMN `liker_user_name`,
+  DROP COLUMN `liker_full_name`,
+  DROP COLUMN `liker_is_private`,
+  DROP COLUMN `liker_is_verified`,
+  DROP COLUMN `liker_profile_pic_id`,
+  DROP COLUMN `liker_profile_pic_url`,
+  DROP COLUMN `liker_latest_reel_media`,
+  DROP COLUMN `content_hash`;
@@ -0,0 +1,15 @@
+USE `crawler_ig`;
+
+-- ----------------------------
+-- media_comment 以 (media_id, comment_pk) 為自然鍵
+-- 既有重複留言只保留最新一筆(id最大)，再建立唯一索引，使 ON DUPLICATE KEY UPDATE 生效
+-- ----------------------------
+DELETE mc
+FROM `media_comment` mc
+JOIN `media_comment` newer
+  ON newer.`media_id` = mc.`media_id`
+ AND newer.`comment_pk` = mc.`comment_pk`
+ AND newer.`id` > mc.`id`;
+
+ALTER TABLE `media_comment`
+  ADD UNIQUE INDEX `idx_media_comment_unique`(`media_id` ASC, `comment_pk` ASC) USING BTREE;
@@ -0,0 +1,71 @@
+USE `crawler_ig`;
+
+-- ----------------------------
+-- media_comment/media_liker 加入分區鍵 ig_user_id(貼文所屬用戶)並依其雜湊分區
+-- 分區表的主鍵與唯一索引須包含分區鍵，且不支援外鍵，故移除對 media 的外鍵
+-- 大表執行 ALTER 會重建整張表，請於離峰時段執行
+-- ----------------------------
+ALTER TABLE `media_comment` ADD COLUMN `ig_user_id` int NULL COMMENT '貼文所屬用戶, 分區鍵' AFTER `id`;
+UPDATE `media_comment` mc JOIN `media` m ON m.`id` = mc.`media_id` SET mc.`ig_user_id` = m.`ig_user_id`;
+-- 無對應貼文的留言無法歸屬用戶，讀取端也查不到
+DELETE FROM `media_comment` WHERE `ig_user_id` IS NULL;
+
+ALTER TABLE `media_comment`
+  DROP FOREIGN KEY `FKc4g13ic2kajrl02anuikf5bao`,
+  MODIFY COLUMN `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶, 分區鍵',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `ig_user_id`) USING BTREE,
+  DROP INDEX `idx_media_comment_unique`,
+  ADD UNIQUE INDEX `idx_media_comment_unique`(`ig_user_id` ASC, `media_id` ASC, `comment_pk` ASC) USING BTREE;
+
+ALTER TABLE `media_comment` PARTITION BY HASH (`ig_user_id`) PARTITIONS 16;
+
+ALTER TABLE `media_liker` ADD COLUMN `ig_user_id` int NULL COMMENT '貼文所屬用戶, 分區鍵' AFTER `id`;
+UPDATE `media_liker` ml JOIN `media` m ON m.`id` = ml.`media_id` SET ml.`ig_user_id` = m.`ig_user_id`;
+DELETE FROM `media_liker` WHERE `ig_user_id` IS NULL;
+
+ALTER TABLE `media_liker`
+  DROP FOREIGN KEY `FKrrb2t5yyng90b7lym3ou22jfp`,
+  MODIFY COLUMN `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶, 分區鍵',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (`id`, `ig_user_id`) USING BTREE,
+  DROP INDEX `idx_media_liker_unique`,
+  ADD UNIQUE INDEX `idx_media_liker_unique`(`ig_user_id` ASC, `media_id` ASC, `liker_pk` ASC) USING BTREE,
+  ADD INDEX `idx_media_liker_media_id`(`media_id` ASC) USING BTREE;
+
+ALTER TABLE `media_liker` PARTITION BY HASH (`ig_user_id`) PARTITIONS 16;
+
+-- ----------------------------
+-- 冷資料表(壓縮)與封存狀態
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `media_comment_archive`  (
+  `id` int NOT NULL COMMENT '原 media_comment.id',
+  `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶',
+  `media_id` int NULL DEFAULT NULL,
+  `text` text CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL COMMENT '留言內容',
+  `commenter_user_id` bigint NULL DEFAULT NULL COMMENT '留言者pk, 對應 ig_profile.pk',
+  `comment_pk` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `content_type` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `status` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NULL DEFAULT NULL,
+  `comment_like_count` int NULL DEFAULT NULL,
+  `content_hash` bigint NULL DEFAULT NULL,
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_media_comment_archive_ig_user`(`ig_user_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
+
+CREATE TABLE IF NOT EXISTS `media_liker_archive`  (
+  `id` int NOT NULL COMMENT '原 media_liker.id',
+  `ig_user_id` int NOT NULL COMMENT '貼文所屬用戶',
+  `media_id` int NULL DEFAULT NULL,
+  `liker_pk` bigint NULL DEFAULT NULL COMMENT '按讚者pk, 對應 ig_profile.pk',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_media_liker_archive_ig_user`(`ig_user_id` ASC) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = COMPRESSED KEY_BLOCK_SIZE = 8;
+
+CREATE TABLE IF NOT EXISTS `cold_archive`  (
+  `ig_user_id` int NOT NULL COMMENT '用戶',
+  `table_name` varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci NOT NULL COMMENT '已封存的熱表',
+  `archived_rows` bigint NOT NULL DEFAULT 0 COMMENT '封存筆數',
+  `archived_time` datetime NOT NULL COMMENT '封存時間',
+  PRIMARY KEY (`ig_user_id`, `table_name`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci ROW_FORMAT = DYNAMIC;
@@ -0,0 +1,10 @@
+USE `crawler_ig`;
+
+-- 任務類型通道: 每個任務類型一條通道，依權重輪流領取(deficit round robin)，通道內對象用戶輪替
+ALTER TABLE `task_config` ADD COLUMN `weight` int NOT NULL DEFAULT 1 COMMENT '通道權重，每輪可領取的任務數' AFTER `init_status`;
+ALTER TABLE `task_config` ADD COLUMN `max_concurrency` int NOT NULL DEFAULT 1 COMMENT '通道同時執行中的任務上限' AFTER `weight`;
+
+-- 通道內依對象用戶輪替領取
+ALTER TABLE `task_queue` ADD INDEX `idx_task_queue_lane`(`task_config_id` ASC, `status` ASC, `ig_user_id` ASC);
+
+-- 權重調整範例(即時生效，不需重啟): UPDATE `task_config` SET `weight` = 3 WHERE `task_type` = 'GET_MEDIA_COMMENT';
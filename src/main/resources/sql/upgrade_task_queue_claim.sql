@@ -0,0 +1,5 @@
+USE `crawler_ig`;
+
+-- 任務領取改為單一交易的 SELECT ... FOR UPDATE SKIP LOCKED，依狀態與提交時間找下一個任務
+-- SKIP LOCKED 需 MySQL 8.0.1 以上
+ALTER TABLE `task_queue` ADD INDEX `idx_task_queue_claim`(`status` ASC, `submit_time` ASC);
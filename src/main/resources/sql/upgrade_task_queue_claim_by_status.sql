@@ -0,0 +1,5 @@
+USE `crawler_ig`;
+
+-- 任務領取改為依狀態逐一查詢，每次查詢只涉及單一狀態，同對象依提交時間排序可直接走索引
+ALTER TABLE `task_queue` DROP INDEX `idx_task_queue_lane`,
+    ADD INDEX `idx_task_queue_lane`(`task_config_id` ASC, `status` ASC, `ig_user_id` ASC, `submit_time` ASC);
@@ -0,0 +1,5 @@
+USE `crawler_ig`;
+
+-- 任務執行租約: 領取時給予，執行期間定期續約；程序中止後租約過期的IN_PROGRESS任務由回收排程改回PAUSED
+-- 既有無租約的IN_PROGRESS任務會在第一次回收時改回PAUSED，請於程序停止時執行
+ALTER TABLE `task_queue` ADD COLUMN `lease_expires_at` datetime NULL DEFAULT NULL COMMENT '執行租約到期時間，過期的IN_PROGRESS任務改回PAUSED' AFTER `version`;
@@ -0,0 +1,7 @@
+USE `crawler_ig`;
+
+-- 留言/按讚任務的舊資料清除完成標記: 清除工作只存在記憶體，完成後持久化，程序重啟或租約回收後不再重新刪除已寫入的資料
+ALTER TABLE `task_queue` ADD COLUMN `content_purged_at` datetime NULL DEFAULT NULL COMMENT '舊的留言/按讚資料清除完成時間，有值時不再重新清除' AFTER `lease_expires_at`;
+
+-- 已開始爬取(已指向子任務)的任務視為已清除完成
+UPDATE `task_queue` SET `content_purged_at` = COALESCE(`modify_time`, NOW()) WHERE `task_queue_media_id` IS NOT NULL;
@@ -0,0 +1,65 @@
+package org.example.bean.enumtype;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 任務狀態轉換表的檢核
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+class TaskStatusEnumTest {
+
+    @Test
+    void everyInitialStatusCanReachATerminalStatus() {
+        for (TaskStatusEnum initial : EnumSet.of(TaskStatusEnum.PENDING, TaskStatusEnum.DAILY_PENDING)) {
+            Set<TaskStatusEnum> reachable = reachableFrom(initial);
+            assertTrue(reachable.stream().anyMatch(TaskStatusEnum::isTerminal), initial + " 無法到達終結狀態");
+        }
+    }
+
+    @Test
+    void everyStatusIsReachableFromAnInitialStatus() {
+        Set<TaskStatusEnum> reachable = reachableFrom(TaskStatusEnum.PENDING);
+        reachable.addAll(reachableFrom(TaskStatusEnum.DAILY_PENDING));
+        assertEquals(EnumSet.allOf(TaskStatusEnum.class), reachable);
+    }
+
+    @Test
+    void onlyClaimableStatusesMoveToInProgress() {
+        for (TaskStatusEnum status : TaskStatusEnum.values()) {
+            boolean claimable = status == TaskStatusEnum.PENDING || status == TaskStatusEnum.PAUSED || status == TaskStatusEnum.DAILY_PENDING;
+            assertEquals(claimable, status.canTransitionTo(TaskStatusEnum.IN_PROGRESS), status.name());
+        }
+    }
+
+    @Test
+    void terminalStatusesHaveNoExit() {
+        assertTrue(TaskStatusEnum.COMPLETED.isTerminal());
+        assertTrue(TaskStatusEnum.FAILED.isTerminal());
+        assertTrue(TaskStatusEnum.DAILY_COMPLETED.isTerminal());
+        assertFalse(TaskStatusEnum.COMPLETED.canTransitionTo(TaskStatusEnum.PENDING));
+    }
+
+    private static Set<TaskStatusEnum> reachableFrom(TaskStatusEnum start) {
+        Set<TaskStatusEnum> visited = EnumSet.of(start);
+        Deque<TaskStatusEnum> queue = new ArrayDeque<>(visited);
+        while (!queue.isEmpty()) {
+            for (TaskStatusEnum next : queue.poll().nextStatuses()) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return visited;
+    }
+}
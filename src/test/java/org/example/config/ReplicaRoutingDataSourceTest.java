@@ -0,0 +1,94 @@
+package org.example.config;
+
+import org.example.bean.enumtype.DataSourceWorkloadEnum;
+import org.example.bean.enumtype.ReadConsistencyEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 以兩個本機MySQL分別作為主庫與副本，驗證唯讀呼叫的副本分派與退回主庫
+ * 執行: gradle test -Dreplica.url='jdbc:mysql://localhost:3307/crawler_ig?useSSL=false' --tests '*ReplicaRoutingDataSourceTest'
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@SpringBootTest(properties = {
+        "datasource.replica.enabled=true",
+        // 兩個獨立實例之間沒有複寫，延遲固定回報0秒，由測試自行模擬延遲
+        "datasource.replica.lagQuery=SELECT 0",
+        "datasource.replica.lagCheckMillis=3600000"})
+@EnabledIfSystemProperty(named = "replica.url", matches = ".+")
+class ReplicaRoutingDataSourceTest {
+    private static final String SERVER_SQL = "SELECT CONCAT(@@hostname, ':', @@port)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired
+    @Qualifier("reportingDataSource")
+    private DataSource reportingDataSource;
+
+    private String primaryServer;
+
+    @DynamicPropertySource
+    static void replicaUrls(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replica.urls", () -> System.getProperty("replica.url"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicaRoutingDataSource.refreshLag();
+        primaryServer = new JdbcTemplate(reportingDataSource).queryForObject(SERVER_SQL, String.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.clearConsistency();
+    }
+
+    @Test
+    void readOnlyReportingReadsReplica() {
+        assertNotEquals(primaryServer, serverFor(DataSourceWorkloadEnum.REPORTING, true));
+    }
+
+    @Test
+    void writableOrOtherWorkloadReadsPrimary() {
+        assertEquals(primaryServer, serverFor(DataSourceWorkloadEnum.REPORTING, false));
+        assertEquals(primaryServer, serverFor(DataSourceWorkloadEnum.CONTROL, true));
+    }
+
+    @Test
+    void strongConsistencyReadsPrimary() {
+        ReplicaRoutingDataSource.bindConsistency(ReadConsistencyEnum.STRONG);
+        assertEquals(primaryServer, serverFor(DataSourceWorkloadEnum.REPORTING, true));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicaRoutingDataSource.updateLag("replica-1", 3600L);
+        assertEquals(primaryServer, serverFor(DataSourceWorkloadEnum.REPORTING, true));
+    }
+
+    private String serverFor(DataSourceWorkloadEnum workload, boolean readOnly) {
+        WorkloadRoutingDataSource.Binding previous = WorkloadRoutingDataSource.bind(workload, readOnly);
+        try {
+            return jdbcTemplate.queryForObject(SERVER_SQL, String.class);
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+}
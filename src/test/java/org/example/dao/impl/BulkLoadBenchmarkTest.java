@@ -0,0 +1,97 @@
+package org.example.dao.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 比較 ig_profile 大量寫入時，多列批量寫入與 LOAD DATA LOCAL INFILE 的耗時，
+ * 以及以爬取的每頁筆數逐頁寫入時兩者的耗時(用於設定 ingest.bulkLoad.rowThreshold)
+ * 需本機MySQL開啟local_infile，執行: gradle test -Dbenchmark=true --tests '*BulkLoadBenchmarkTest'
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkLoadBenchmarkTest {
+    private static final int ROWS = 100_000;
+    // 爬取每頁筆數
+    private static final int PAGE_ROWS = 200;
+    // 遠離真實IG pk的測試區段，結束後刪除
+    private static final long UPSERT_PK_BASE = 9_000_000_000_000L;
+    private static final long LOAD_PK_BASE = 9_100_000_000_000L;
+    private static final String[] COLUMNS = {"pk", "user_name", "full_name", "is_private", "profile_pic_url", "profile_pic_id", "is_verified", "has_anonymous_profile_picture", "latest_reel_media"};
+    private static final String ON_DUPLICATE_KEY_UPDATE = "ON DUPLICATE KEY UPDATE user_name = VALUES(user_name), full_name = VALUES(full_name)";
+
+    @Autowired
+    private BulkUpsertTemplate bulkUpsertTemplate;
+    @Autowired
+    private BulkLoadTemplate bulkLoadTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM ig_profile WHERE pk >= ?", UPSERT_PK_BASE);
+    }
+
+    @Test
+    void compareBatchUpsertWithLoadData() {
+        long upsertMillis = time(() -> bulkUpsertTemplate.upsert("ig_profile", COLUMNS, ON_DUPLICATE_KEY_UPDATE, rows(UPSERT_PK_BASE), row -> row));
+        long loadMillis = time(() -> bulkLoadTemplate.load("ig_profile", COLUMNS, ON_DUPLICATE_KEY_UPDATE, rows(LOAD_PK_BASE), row -> row));
+
+        assertEquals(ROWS, countFrom(UPSERT_PK_BASE, LOAD_PK_BASE));
+        assertEquals(ROWS, countFrom(LOAD_PK_BASE, Long.MAX_VALUE));
+        System.out.printf("ig_profile %d筆: 多列批量寫入 %dms (%d rows/s), LOAD DATA %dms (%d rows/s)%n",
+                ROWS, upsertMillis, ROWS * 1000L / Math.max(1, upsertMillis), loadMillis, ROWS * 1000L / Math.max(1, loadMillis));
+    }
+
+    @Test
+    void compareAtPageSize() {
+        List<Object[]> upsertRows = rows(UPSERT_PK_BASE);
+        List<Object[]> loadRows = rows(LOAD_PK_BASE);
+        long upsertMillis = time(() -> pages(upsertRows).forEach(page -> bulkUpsertTemplate.upsert("ig_profile", COLUMNS, ON_DUPLICATE_KEY_UPDATE, page, row -> row)));
+        long loadMillis = time(() -> pages(loadRows).forEach(page -> bulkLoadTemplate.load("ig_profile", COLUMNS, ON_DUPLICATE_KEY_UPDATE, page, row -> row)));
+
+        assertEquals(ROWS, countFrom(UPSERT_PK_BASE, LOAD_PK_BASE));
+        assertEquals(ROWS, countFrom(LOAD_PK_BASE, Long.MAX_VALUE));
+        int pages = ROWS / PAGE_ROWS;
+        System.out.printf("ig_profile 每頁%d筆 x %d頁: 多列批量寫入 %.2fms/頁, LOAD DATA %.2fms/頁%n",
+                PAGE_ROWS, pages, (double) upsertMillis / pages, (double) loadMillis / pages);
+    }
+
+    private static List<List<Object[]>> pages(List<Object[]> rows) {
+        return IntStream.range(0, (rows.size() + PAGE_ROWS - 1) / PAGE_ROWS)
+                .mapToObj(i -> rows.subList(i * PAGE_ROWS, Math.min(rows.size(), (i + 1) * PAGE_ROWS)))
+                .toList();
+    }
+
+    private static List<Object[]> rows(long pkBase) {
+        return LongStream.range(0, ROWS).mapToObj(i -> new Object[]{
+                pkBase + i, "bench_user_" + i, "Bench\tUser " + i, i % 2 == 0,
+                "https://example.com/pic/" + i + ".jpg", "pic_" + i, false, false, 0L
+        }).toList();
+    }
+
+    private long countFrom(long fromPk, long toPk) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ig_profile WHERE pk >= ? AND pk < ?", Long.class, fromPk, toPk);
+        return count == null ? 0 : count;
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
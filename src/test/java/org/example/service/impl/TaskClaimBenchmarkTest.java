@@ -0,0 +1,157 @@
+package org.example.service.impl;
+
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.entity.TaskConfig;
+import org.example.entity.TaskQueue;
+import org.example.service.TaskConfigService;
+import org.example.service.TaskQueueService;
+import org.example.task.CheckTaskQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 多執行緒同時自同一任務類型通道領取任務時的領取延遲，並確認每個任務只被領取一次；
+ * 仍有可領取任務卻領取落空(候選列皆被其他交易鎖定)的次數一併列出
+ * 會領取資料庫中所有不需登入的待執行任務，需在沒有待執行任務的測試庫執行:
+ * gradle test -Dbenchmark=true --tests '*TaskClaimBenchmarkTest'
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskClaimBenchmarkTest {
+    private static final int TASKS = 2_000;
+    private static final int[] THREADS = {1, 4, 8};
+    private static final String MARKER = "claim-benchmark";
+    private static final List<TaskStatusEnum> STATUS_PRIORITY = List.of(TaskStatusEnum.DAILY_PENDING, TaskStatusEnum.PAUSED, TaskStatusEnum.PENDING);
+
+    private TaskConfig taskConfig;
+    @Autowired
+    private TaskQueueService taskQueueService;
+    @Autowired
+    private TaskConfigService taskConfigService;
+    @Autowired
+    private CheckTaskQueue checkTaskQueue;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 停止正式派發通道，避免與壓測搶任務
+        checkTaskQueue.stopBaseQueue();
+        assumeTrue(countClaimable() == 0, "測試庫已有待執行的任務");
+        Integer igUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM ig_user", Integer.class);
+        Long taskConfigId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM task_config WHERE need_login_ig = 0", Long.class);
+        assumeTrue(igUserId != null && taskConfigId != null, "需有ig_user及不需登入的task_config資料");
+        taskConfig = taskConfigService.findById(taskConfigId.intValue()).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = IntStream.range(0, TASKS)
+                .mapToObj(i -> new Object[]{igUserId, taskConfigId, STATUS_PRIORITY.get(i % STATUS_PRIORITY.size()).name(), Timestamp.valueOf(now.minusSeconds(i)), MARKER})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO task_queue (ig_user_id, task_config_id, status, submit_time, result) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM task_queue WHERE result = ?", MARKER);
+    }
+
+    @Test
+    void claimUnderContention() throws Exception {
+        for (int threads : THREADS) {
+            jdbcTemplate.update("UPDATE task_queue SET status = ELT(1 + MOD(id, 3), 'DAILY_PENDING', 'PAUSED', 'PENDING') WHERE result = ?", MARKER);
+            List<Long> latencies = claimAll(threads);
+            assertEquals(TASKS, latencies.size());
+            assertEquals(0, countClaimable());
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%d 執行緒領取 %d 個任務: p50 %.2fms, p99 %.2fms, max %.2fms%n",
+                    threads, TASKS, millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+        }
+    }
+
+    /**
+     * 多執行緒領取至無任務為止；領取落空時以不加鎖的計數確認，仍有可領取任務則記為誤判落空並繼續
+     *
+     * @return 每次成功領取的耗時(奈秒)
+     */
+    private List<Long> claimAll(int threads) throws Exception {
+        Set<BigInteger> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger falseEmpties = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                start.await();
+                while (true) {
+                    long t0 = System.nanoTime();
+                    Optional<TaskQueue> task = taskQueueService.claimNextTask(taskConfig, STATUS_PRIORITY, 0);
+                    if (task.isEmpty()) {
+                        if (countClaimable() == 0) {
+                            return latencies;
+                        }
+                        falseEmpties.incrementAndGet();
+                        continue;
+                    }
+                    latencies.add(System.nanoTime() - t0);
+                    if (!claimed.add(task.get().getId())) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        pool.shutdown();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        System.out.printf("%d 執行緒: 總耗時 %dms (%d claims/s), 誤判落空 %d 次%n", threads, elapsedMillis, TASKS * 1000L / elapsedMillis, falseEmpties.get());
+        assertEquals(0, duplicates.get());
+        assertEquals(TASKS, claimed.size());
+        return latencies;
+    }
+
+    private long countClaimable() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_queue t JOIN task_config c ON c.id = t.task_config_id " +
+                "WHERE c.need_login_ig = 0 AND t.status IN ('DAILY_PENDING', 'PAUSED', 'PENDING')", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
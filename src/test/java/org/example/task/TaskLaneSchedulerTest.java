@@ -0,0 +1,140 @@
+package org.example.task;
+
+import org.example.bean.dto.TaskLaneDto;
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.entity.IgUser;
+import org.example.entity.TaskConfig;
+import org.example.entity.TaskQueue;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.TaskConfigService;
+import org.example.service.TaskQueueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 通道輪替的檢核：權重額度、略過無任務或已達執行上限的通道、通道內對象用戶輪替
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+class TaskLaneSchedulerTest {
+    private static final List<TaskStatusEnum> STATUSES = List.of(TaskStatusEnum.PAUSED, TaskStatusEnum.PENDING);
+
+    private TaskConfigService taskConfigService;
+    private TaskQueueService taskQueueService;
+    private TaskLaneScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskConfigService = mock(TaskConfigService.class);
+        taskQueueService = mock(TaskQueueService.class);
+        scheduler = new TaskLaneScheduler(taskConfigService, taskQueueService, new CrawlerMetrics());
+    }
+
+    @Test
+    void laneClaimsUpToItsWeightBeforeNextLane() {
+        TaskConfig comment = config(1L, TaskTypeEnum.GET_MEDIA_COMMENT, 2, 1, false);
+        TaskConfig liker = config(2L, TaskTypeEnum.GET_MEDIA_LIKER, 1, 1, false);
+        givenLanes(List.of(comment, liker), Map.of(1L, lane(10, 0), 2L, lane(10, 0)));
+        when(taskQueueService.claimNextTask(eq(comment), eq(STATUSES), anyInt())).thenReturn(Optional.of(task(1, comment)));
+        when(taskQueueService.claimNextTask(eq(liker), eq(STATUSES), anyInt())).thenReturn(Optional.of(task(1, liker)));
+
+        List<TaskTypeEnum> claimed = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            claimed.add(scheduler.claimNext(false, STATUSES).orElseThrow().getTaskConfig().getTaskType());
+        }
+
+        assertEquals(List.of(TaskTypeEnum.GET_MEDIA_COMMENT, TaskTypeEnum.GET_MEDIA_COMMENT, TaskTypeEnum.GET_MEDIA_LIKER,
+                TaskTypeEnum.GET_MEDIA_COMMENT, TaskTypeEnum.GET_MEDIA_COMMENT, TaskTypeEnum.GET_MEDIA_LIKER), claimed);
+    }
+
+    @Test
+    void emptyAndSaturatedLanesAreSkipped() {
+        TaskConfig empty = config(1L, TaskTypeEnum.GET_MEDIA_COMMENT, 1, 1, false);
+        TaskConfig saturated = config(2L, TaskTypeEnum.GET_MEDIA_LIKER, 1, 0, false);
+        TaskConfig other = config(3L, TaskTypeEnum.GET_FOLLOWERS_DETAIL, 1, 1, true);
+        TaskConfig open = config(4L, TaskTypeEnum.GET_MEDIA, 1, 1, false);
+        givenLanes(List.of(empty, saturated, other, open),
+                Map.of(1L, lane(0, 0), 2L, lane(5, 1), 3L, lane(5, 0), 4L, lane(1, 0)));
+        when(taskQueueService.claimNextTask(eq(open), eq(STATUSES), anyInt())).thenReturn(Optional.of(task(1, open)));
+
+        assertEquals(TaskTypeEnum.GET_MEDIA, scheduler.claimNext(false, STATUSES).orElseThrow().getTaskConfig().getTaskType());
+        verify(taskQueueService, never()).claimNextTask(eq(empty), any(), anyInt());
+        verify(taskQueueService, never()).claimNextTask(eq(saturated), any(), anyInt());
+        verify(taskQueueService, never()).claimNextTask(eq(other), any(), anyInt());
+    }
+
+    @Test
+    void laneClaimedEmptyMovesToNextLane() {
+        TaskConfig raced = config(1L, TaskTypeEnum.GET_MEDIA_COMMENT, 3, 1, false);
+        TaskConfig open = config(2L, TaskTypeEnum.GET_MEDIA_LIKER, 1, 1, false);
+        givenLanes(List.of(raced, open), Map.of(1L, lane(1, 0), 2L, lane(1, 0)));
+        when(taskQueueService.claimNextTask(eq(raced), eq(STATUSES), anyInt())).thenReturn(Optional.empty());
+        when(taskQueueService.claimNextTask(eq(open), eq(STATUSES), anyInt())).thenReturn(Optional.of(task(1, open)));
+
+        assertEquals(TaskTypeEnum.GET_MEDIA_LIKER, scheduler.claimNext(false, STATUSES).orElseThrow().getTaskConfig().getTaskType());
+        assertEquals(0, scheduler.snapshot().get(0).getDeficit());
+    }
+
+    @Test
+    void targetsRotateWithinLane() {
+        TaskConfig comment = config(1L, TaskTypeEnum.GET_MEDIA_COMMENT, 3, 1, false);
+        givenLanes(List.of(comment), Map.of(1L, lane(3, 0)));
+        when(taskQueueService.claimNextTask(eq(comment), eq(STATUSES), anyInt()))
+                .thenReturn(Optional.of(task(5, comment)), Optional.of(task(9, comment)), Optional.of(task(2, comment)));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(scheduler.claimNext(false, STATUSES).isPresent());
+        }
+
+        verify(taskQueueService).claimNextTask(comment, STATUSES, 0);
+        verify(taskQueueService).claimNextTask(comment, STATUSES, 5);
+        verify(taskQueueService).claimNextTask(comment, STATUSES, 9);
+        assertEquals(2, scheduler.snapshot().get(0).getLastIgUserId());
+    }
+
+    private void givenLanes(List<TaskConfig> configs, Map<Long, TaskLaneDto> counts) {
+        when(taskConfigService.findAllDefined()).thenReturn(configs);
+        when(taskQueueService.countByLane(any())).thenReturn(counts);
+    }
+
+    private static TaskConfig config(long id, TaskTypeEnum taskType, int weight, int maxConcurrency, boolean needLoginIg) {
+        return TaskConfig.builder()
+                .id(id)
+                .taskType(taskType)
+                .weight(weight)
+                .maxConcurrency(maxConcurrency)
+                .needLoginIg(needLoginIg)
+                .build();
+    }
+
+    private static TaskLaneDto lane(long queued, long running) {
+        return TaskLaneDto.builder().queued(queued).running(running).build();
+    }
+
+    private static TaskQueue task(int igUserId, TaskConfig config) {
+        return TaskQueue.builder()
+                .igUser(IgUser.builder().id(igUserId).build())
+                .taskConfig(config)
+                .status(TaskStatusEnum.IN_PROGRESS)
+                .submitTime(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.task.impl;
+
+import org.example.bean.enumtype.TaskStatusEnum;
+import org.example.bean.enumtype.TaskTypeEnum;
+import org.example.entity.TaskConfig;
+import org.example.entity.TaskQueue;
+import org.example.metrics.CrawlerMetrics;
+import org.example.service.LoginService;
+import org.example.service.TaskLeaseService;
+import org.example.service.TaskQueueMediaService;
+import org.example.service.TaskQueueService;
+import org.example.strategy.TaskExecutionStrategyFactory;
+import org.example.strategy.TaskStrategy;
+import org.example.task.TaskDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 租約失效的檢核：結束時狀態已被回收的任務捨棄結果並計數，不暫停任務排程
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+class TaskExecutionServiceImplTest {
+    private TaskStrategy strategy;
+    private TaskQueueService taskQueueService;
+    private TaskDispatcher taskDispatcher;
+    private CrawlerMetrics crawlerMetrics;
+    private TaskExecutionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        strategy = mock(TaskStrategy.class);
+        taskQueueService = mock(TaskQueueService.class);
+        taskDispatcher = mock(TaskDispatcher.class);
+        crawlerMetrics = new CrawlerMetrics();
+        TaskExecutionStrategyFactory strategyFactory = mock(TaskExecutionStrategyFactory.class);
+        when(strategyFactory.getStrategy(any())).thenReturn(strategy);
+        TaskLeaseService taskLeaseService = mock(TaskLeaseService.class);
+        when(taskLeaseService.hold(any())).thenReturn(() -> {
+        });
+        service = new TaskExecutionServiceImpl(taskQueueService, mock(TaskQueueMediaService.class), strategyFactory,
+                mock(LoginService.class), taskDispatcher, taskLeaseService, crawlerMetrics);
+    }
+
+    @Test
+    void optimisticLockConflictIsLeaseLost() {
+        TaskQueue task = task();
+        doThrow(new ObjectOptimisticLockingFailureException(TaskQueue.class, task.getId()))
+                .when(strategy).executeTask(task, null);
+
+        service.executeTask(task, null);
+
+        assertTrue(service.isTaskEnabled());
+        assertEquals(1, crawlerMetrics.getCount("task.finalize.leaseLost"));
+        verify(taskQueueService, never()).transition(any(), any(), any(), any());
+        verify(taskDispatcher).onTaskFinished(task);
+    }
+
+    @Test
+    void taskLeftInProgressIsLeaseLost() {
+        TaskQueue task = task();
+
+        service.executeTask(task, null);
+
+        assertTrue(service.isTaskEnabled());
+        assertEquals(1, crawlerMetrics.getCount("task.finalize.leaseLost"));
+    }
+
+    @Test
+    void finishedTaskIsNotLeaseLost() {
+        TaskQueue task = task();
+        doAnswer(invocation -> {
+            task.setStatus(TaskStatusEnum.PAUSED);
+            return null;
+        }).when(strategy).executeTask(task, null);
+
+        service.executeTask(task, null);
+
+        assertEquals(0, crawlerMetrics.getCount("task.finalize.leaseLost"));
+    }
+
+    private static TaskQueue task() {
+        return TaskQueue.builder()
+                .id(BigInteger.ONE)
+                .version(3L)
+                .taskConfig(TaskConfig.builder().taskType(TaskTypeEnum.GET_FOLLOWERS).build())
+                .status(TaskStatusEnum.IN_PROGRESS)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.utils;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.example.bean.dto.MediaCommentDetailDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 比較明細工作表以 XSSF 全量建構後逐格套樣式，與 SXSSF 串流寫入的峰值堆積與首位元組時間
+ * 執行: gradle test -Dbenchmark=true -Dbenchmark.excelRows=1000000 --tests '*ExcelExportBenchmarkTest'
+ * 舊流程在預設堆積下可能 OOM，此時僅記錄失敗
+ *
+ * @author Eric.Lee
+ * Date: 2026/10/17
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExcelExportBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("benchmark.excelRows", 1_000_000);
+    private static final String[] HEADERS = {"留言貼文", "留言文章id", "留言帳號", "帳號全名", "留言內容", "公開帳號", "Meta驗證", "當下是否有發限動", "留言被按讚數"};
+
+    @Test
+    void compareXssfWithSxssf() {
+        run("XSSF + 逐格套樣式", this::writeXssf);
+        run("SXSSF 串流", this::writeSxssf);
+    }
+
+    private void writeXssf(OutputStream out) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("明細資料DetailData");
+            CellStyle headerStyle = headerStyle(workbook);
+            CellStyle cellStyle = cellStyle(workbook);
+            ExcelUtils.createHeaderRow(sheet, HEADERS, null);
+            for (int i = 0; i < ROWS; i++) {
+                ExcelUtils.createRowAndFillData(sheet, i + 1, detail(i).toList());
+            }
+            // 原流程: 寫完後再走訪所有儲存格設定樣式
+            for (Row row : sheet) {
+                for (Cell cell : row) {
+                    cell.setCellStyle(row.getRowNum() == 0 ? headerStyle : cellStyle);
+                }
+            }
+            workbook.write(out);
+        }
+    }
+
+    private void writeSxssf(OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = ExcelUtils.createStreamingWorkbook(500);
+        try {
+            Sheet sheet = workbook.createSheet("明細資料DetailData");
+            CellStyle cellStyle = cellStyle(workbook);
+            ExcelUtils.createHeaderRow(sheet, HEADERS, headerStyle(workbook));
+            for (int i = 0; i < ROWS; i++) {
+                ExcelUtils.createRowAndFillData(sheet, i + 1, detail(i).toList(), cellStyle);
+            }
+            workbook.write(out);
+            workbook.close();
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private static void run(String name, ExcelWriter writer) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        FirstByteOutputStream out = new FirstByteOutputStream();
+        String result;
+        try {
+            writer.write(out);
+            result = "ok";
+        } catch (OutOfMemoryError e) {
+            result = "OOM";
+        } catch (IOException e) {
+            result = "IO error: " + e.getMessage();
+        } finally {
+            sampling.set(false);
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long firstByteMillis = out.firstByteAt < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(out.firstByteAt - start);
+        System.out.printf("%s %d列: %s, 峰值堆積 +%dMB, 首位元組 %dms, 總耗時 %dms, 輸出 %dKB%n",
+                name, ROWS, result, (peak.get() - baseline) >> 20, firstByteMillis, totalMillis, out.bytes >> 10);
+    }
+
+    private static MediaCommentDetailDto detail(int i) {
+        return new MediaCommentDetailDto("bench media text " + (i % 500), 3_000_000_000L + i % 500,
+                "bench_user_" + i, "Bench User " + i, "comment text " + i,
+                i % 2 == 0, i % 7 == 0, 0L, i % 100);
+    }
+
+    private static CellStyle headerStyle(Workbook workbook) {
+        XSSFColor color = ExcelUtils.getCustomColor((byte) 241, (byte) 169, (byte) 131);
+        return ExcelUtils.createHeaderCellStyle(workbook, color, (short) 15);
+    }
+
+    private static CellStyle cellStyle(Workbook workbook) {
+        XSSFColor color = ExcelUtils.getCustomColor((byte) 255, (byte) 255, (byte) 255);
+        return ExcelUtils.createCellStyle(workbook, color, (short) 13, HorizontalAlignment.LEFT);
+    }
+
+    @FunctionalInterface
+    private interface ExcelWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 丟棄輸出，只記錄首次寫出時間與總位元組
+     */
+    private static final class FirstByteOutputStream extends OutputStream {
+        private long firstByteAt = -1;
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (firstByteAt < 0 && len > 0) {
+                firstByteAt = System.nanoTime();
+            }
+            bytes += len;
+        }
+    }
+}